@@ -0,0 +1,170 @@
+package com.xceptance.xrt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * <p>
+ * In-process HTTP server on the loopback interface that answers every request with the same JSON document. The
+ * response can be delayed to simulate server processing time.
+ * </p>
+ * <br>
+ * <p>
+ * Every response carries the header {@value #STUB_TIME_HEADER} with the nanoseconds the server spent on the request
+ * before sending the response. The client subtracts it from the round-trip time to get its own overhead.
+ * </p>
+ */
+final class LocalStubServer implements HttpHandler
+{
+    /**
+     * The name of the response header that holds the server time in nanoseconds.
+     */
+    static final String STUB_TIME_HEADER = "X-Stub-Time";
+
+    /**
+     * The HTTP server.
+     */
+    private final HttpServer server;
+
+    /**
+     * The threads that handle the requests.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The response body.
+     */
+    private final byte[] body;
+
+    /**
+     * The delay of every response in milliseconds.
+     */
+    private final long latencyMillis;
+
+    /**
+     * Starts the server on a free port.
+     *
+     * @param responseSize
+     *         The size of the JSON response in bytes.
+     * @param latencyMillis
+     *         The delay of every response in milliseconds.
+     * @param threads
+     *         The number of threads that handle requests.
+     *
+     * @throws IOException
+     *         Thrown if the server could not be started.
+     */
+    LocalStubServer( final int responseSize, final long latencyMillis, final int threads ) throws IOException
+    {
+        // Headers and body are written separately. Without TCP_NODELAY every response waits for a delayed ACK.
+        System.setProperty( "sun.net.httpserver.nodelay", "true" );
+
+        this.body = createBody( responseSize );
+        this.latencyMillis = latencyMillis;
+        this.executor = Executors.newFixedThreadPool( threads );
+
+        this.server = HttpServer.create( new InetSocketAddress( InetAddress.getLoopbackAddress(), 0 ), 1024 );
+        this.server.createContext( "/", this );
+        this.server.setExecutor( executor );
+        this.server.start();
+    }
+
+    /**
+     * Returns the Url of the server.
+     *
+     * @return The Url of the server.
+     */
+    String getUrl()
+    {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server.
+     */
+    void stop()
+    {
+        server.stop( 0 );
+        executor.shutdownNow();
+    }
+
+    /**
+     * Answers a request with the canned response.
+     */
+    @Override
+    public void handle( final HttpExchange exchange ) throws IOException
+    {
+        long start = System.nanoTime();
+        try
+        {
+            // Read the request completely to keep the connection reusable.
+            byte[] buffer = new byte[8192];
+            try ( InputStream in = exchange.getRequestBody() )
+            {
+                while ( in.read( buffer ) != -1 )
+                {
+                    // discard
+                }
+            }
+
+            if ( latencyMillis > 0 )
+                TimeUnit.MILLISECONDS.sleep( latencyMillis );
+
+            exchange.getResponseHeaders().set( "Content-Type", "application/json;charset=UTF-8" );
+            exchange.getResponseHeaders().set( STUB_TIME_HEADER, String.valueOf( System.nanoTime() - start ) );
+            exchange.sendResponseHeaders( 200, body.length );
+
+            try ( OutputStream out = exchange.getResponseBody() )
+            {
+                out.write( body );
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Creates a JSON document of the given size.
+     *
+     * @param size
+     *         The size in bytes.
+     *
+     * @return The JSON document.
+     */
+    private static byte[] createBody( final int size )
+    {
+        StringBuilder builder = new StringBuilder( size + 64 ).append( "{\"items\":[" );
+        for ( int i = 0; builder.length() < size - 64; i++ )
+        {
+            if ( i > 0 )
+                builder.append( ',' );
+
+            builder.append( "{\"id\":" ).append( i ).append( ",\"name\":\"Item " ).append( i ).append( "\"}" );
+        }
+        builder.append( "],\"padding\":\"" );
+
+        // Fill up to the exact size.
+        char[] padding = new char[Math.max( 0, size - builder.length() - 2 )];
+        Arrays.fill( padding, 'x' );
+
+        return builder.append( padding ).append( "\"}" ).toString().getBytes( StandardCharsets.UTF_8 );
+    }
+}
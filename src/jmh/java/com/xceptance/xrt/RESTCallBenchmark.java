@@ -0,0 +1,215 @@
+package com.xceptance.xrt;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.xceptance.xrt.annotation.HttpHeader;
+import com.xceptance.xrt.annotation.HttpHeaderDefinition;
+import com.xceptance.xrt.annotation.Placeholder;
+import com.xceptance.xrt.annotation.PlaceholderDefinition;
+import com.xceptance.xrt.annotation.QueryParameter;
+import com.xceptance.xrt.annotation.ResourceDefinition;
+import com.xceptance.xrt.annotation.StatelessValidator;
+
+/**
+ * Measures setting up a {@link RESTCall} and resolving its Url.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class RESTCallBenchmark
+{
+    /**
+     * A typical resource definition.
+     */
+    @ResourceDefinition( baseUrl = "https://api.example.com:8443", basePath = "shop/v1", resourcePath = "products/${id}", queryParams =
+        { @QueryParameter( name = "lang", value = "${lang}" ), @QueryParameter( name = "currency", value = "EUR" ) } )
+    @HttpHeaderDefinition(
+        { @HttpHeader( name = "Accept", value = "application/json" ), @HttpHeader( name = "X-Client", value = "xrt" ) } )
+    @PlaceholderDefinition(
+        { @Placeholder( name = "id", value = "4711" ), @Placeholder( name = "lang", value = "en" ) } )
+    public static class ProductResource
+    {
+    }
+
+    /**
+     * A resource definition with default validation.
+     */
+    public static class ValidatedResource implements AutoValidatable
+    {
+        @Override
+        public void validate( final RESTCallValidator call )
+        {
+        }
+    }
+
+    /**
+     * A resource definition with a shared default validation.
+     */
+    @StatelessValidator
+    public static class StatelessResource implements AutoValidatable
+    {
+        @Override
+        public void validate( final RESTCallValidator call )
+        {
+        }
+    }
+
+    /**
+     * A typical request body.
+     */
+    public static class Order
+    {
+        public String productId = "4711";
+
+        public int quantity = 2;
+
+        public String currency = "EUR";
+
+        public String[] coupons = { "WELCOME", "FREESHIPPING" };
+    }
+
+    /**
+     * The Url used to create REST calls.
+     */
+    private static final String URL = "https://api.example.com:8443/shop/v1/products/${id}?lang=${lang}&currency=EUR";
+
+    /**
+     * Product ids used to change the Url.
+     */
+    private final String[] ids = new String[1024];
+
+    /**
+     * The index of the next product id.
+     */
+    private int next;
+
+    /**
+     * A configured REST call.
+     */
+    private RESTCall call;
+
+    /**
+     * The placeholder values used to render the Url.
+     */
+    private final Map<String, String> placeholders = new HashMap<>();
+
+    /**
+     * The request body serialized into JSON.
+     */
+    private final Order order = new Order();
+
+    /**
+     * Creates the configured REST call.
+     */
+    @Setup
+    public void setup()
+    {
+        for ( int i = 0; i < ids.length; i++ )
+            ids[i] = String.valueOf( 100000 + i );
+
+        call = new RESTCall( ProductResource.class );
+
+        placeholders.put( "id", "4711" );
+        placeholders.put( "lang", "en" );
+    }
+
+    /**
+     * Creates a REST call without configuration.
+     */
+    @Benchmark
+    public RESTCall newRESTCall()
+    {
+        return new RESTCall();
+    }
+
+    /**
+     * Creates a REST call from an Url.
+     */
+    @Benchmark
+    public RESTCall newRESTCallWithUrl()
+    {
+        return new RESTCall( URL );
+    }
+
+    /**
+     * Creates a REST call from a resource definition.
+     */
+    @Benchmark
+    public RESTCall newRESTCallWithDefinition()
+    {
+        return new RESTCall( ProductResource.class );
+    }
+
+    /**
+     * Creates a REST call from a resource definition with default validation.
+     */
+    @Benchmark
+    public RESTCall newRESTCallWithValidator()
+    {
+        return new RESTCall( ValidatedResource.class );
+    }
+
+    /**
+     * Creates a REST call from a resource definition with a shared default validation.
+     */
+    @Benchmark
+    public RESTCall newRESTCallWithStatelessValidator()
+    {
+        return new RESTCall( StatelessResource.class );
+    }
+
+    /**
+     * Returns the Url of an unchanged REST call.
+     */
+    @Benchmark
+    public String getUrl()
+    {
+        return call.getUrl();
+    }
+
+    /**
+     * Changes a placeholder value and returns the new Url.
+     */
+    @Benchmark
+    public String getUrlAfterChange()
+    {
+        String id = ids[next];
+        next = ( next + 1 ) & ( ids.length - 1 );
+
+        return call.addPlaceholderValue( "id", id ).getUrl();
+    }
+
+    /**
+     * Replaces the placeholders of the Url.
+     */
+    @Benchmark
+    public String replacePlaceholders()
+    {
+        return PlaceholderTemplate.replace( URL, placeholders );
+    }
+
+    /**
+     * Serializes an object into the JSON request body.
+     */
+    @Benchmark
+    public RESTCall setRequestBodyAsJson()
+    {
+        return call.setRequestBodyAsJson( order );
+    }
+}
@@ -0,0 +1,139 @@
+package com.xceptance.xrt;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gargoylesoftware.htmlunit.HttpMethod;
+import com.gargoylesoftware.htmlunit.WebResponse;
+import com.gargoylesoftware.htmlunit.WebResponseData;
+import com.gargoylesoftware.htmlunit.util.NameValuePair;
+
+/**
+ * Measures reading the response of a {@link RESTCall} and running the default validation. The response is set
+ * directly, no request is sent.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class RESTCallResponseBenchmark
+{
+    /**
+     * Resource definition with default validation.
+     */
+    public static class ValidatedResource implements AutoValidatable
+    {
+        @Override
+        public void validate( final RESTCallValidator call )
+        {
+            if ( call.getResponseStatusCode() != 200 )
+                throw new AssertionError( "Unexpected status code" );
+
+            if ( !call.getResponseContentType().startsWith( "application/json" ) )
+                throw new AssertionError( "Unexpected content type" );
+        }
+    }
+
+    /**
+     * The type the response body is bound to.
+     */
+    public static class Product
+    {
+        public int id;
+
+        public String name;
+    }
+
+    /**
+     * A performed REST call.
+     */
+    private RESTCall call;
+
+    /**
+     * Creates the REST call and sets a response with typical headers.
+     */
+    @Setup
+    public void setup() throws Exception
+    {
+        List<NameValuePair> headers = new ArrayList<>();
+        headers.add( new NameValuePair( "Date", "Mon, 02 Oct 2017 10:00:00 GMT" ) );
+        headers.add( new NameValuePair( "Server", "nginx" ) );
+        headers.add( new NameValuePair( "Content-Type", "application/json;charset=UTF-8" ) );
+        headers.add( new NameValuePair( "Content-Length", "27" ) );
+        headers.add( new NameValuePair( "Connection", "keep-alive" ) );
+        headers.add( new NameValuePair( "Cache-Control", "no-cache, no-store" ) );
+        headers.add( new NameValuePair( "Pragma", "no-cache" ) );
+        headers.add( new NameValuePair( "Vary", "Accept-Encoding" ) );
+        headers.add( new NameValuePair( "X-Request-Id", "3f2a9c1e-7d4b-4e0a-9b1f-2c6d8e5a7b90" ) );
+        headers.add( new NameValuePair( "X-RateLimit-Remaining", "998" ) );
+        headers.add( new NameValuePair( "ETag", "\"5d8c72a5edda8d6a\"" ) );
+
+        byte[] body = "{\"id\":4711,\"name\":\"Product\"}".getBytes( StandardCharsets.UTF_8 );
+        WebResponseData data = new WebResponseData( body, 200, "OK", headers );
+
+        call = new RESTCall( ValidatedResource.class ).setUrl( "http://api.example.com/products/4711" );
+        call.setRESTResponse( new WebResponse( data, new URL( call.getUrl() ), HttpMethod.GET, 10 ) );
+    }
+
+    /**
+     * Looks up a header near the start of the response headers.
+     */
+    @Benchmark
+    public String getResponseHttpHeaderFirst()
+    {
+        return call.getResponseHttpHeader( "Server" );
+    }
+
+    /**
+     * Looks up a header at the end of the response headers.
+     */
+    @Benchmark
+    public String getResponseHttpHeaderLast()
+    {
+        return call.getResponseHttpHeader( "ETag" );
+    }
+
+    /**
+     * Looks up a header that is not part of the response.
+     */
+    @Benchmark
+    public String getResponseHttpHeaderMissing()
+    {
+        return call.getResponseHttpHeader( "Location" );
+    }
+
+    /**
+     * Runs the default validation.
+     */
+    @Benchmark
+    public RESTCall processValidators()
+    {
+        call.processValidators();
+        return call;
+    }
+
+    /**
+     * Binds the response body to a type.
+     */
+    @Benchmark
+    public Product getResponseBodyAs() throws Exception
+    {
+        return call.getResponseBodyAs( Product.class );
+    }
+}
@@ -0,0 +1,365 @@
+package com.xceptance.xrt;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.xceptance.xlt.api.util.XltProperties;
+
+/**
+ * <p>
+ * End-to-end benchmark of {@link RESTCall#process()}. Starts a {@link LocalStubServer} on the loopback interface and
+ * lets a number of virtual users call it through {@link XltRESTAction} and the XLT web client as fast as possible. No
+ * network access is needed.
+ * </p>
+ * <br>
+ * <p>
+ * Reports the requests per second, the percentiles of the client overhead, i.e. the round-trip time minus the time
+ * the stub spent on the request, and the bytes allocated per request by the virtual users. Allocations of the stub
+ * are not included.
+ * </p>
+ * <br>
+ * <p>
+ * Arguments are passed as <b>name=value</b>:
+ * </p>
+ * <ul>
+ * <li><b>users</b>: the number of concurrent virtual users, default 1</li>
+ * <li><b>size</b>: the size of the JSON response in bytes, default 1024</li>
+ * <li><b>latency</b>: the processing time of the stub in milliseconds, default 0</li>
+ * <li><b>warmup</b>: the warmup time in seconds, default 5</li>
+ * <li><b>duration</b>: the measurement time in seconds, default 10</li>
+ * </ul>
+ * <p>
+ * Example: {@code mvn -P benchmark -DskipTests test-compile exec:exec@round-trip -Dround-trip.args="users=8 size=65536"}
+ * </p>
+ */
+public final class RoundTripBenchmark
+{
+    /**
+     * <p>
+     * Counts values in logarithmic buckets with 32 linear sub-buckets each, so percentiles are accurate to about 3%.
+     * Values below 64 are counted exactly. The memory footprint is fixed and independent of the number of values.
+     * </p>
+     */
+    private static final class Histogram
+    {
+        /**
+         * The number of linear sub-buckets per power of two.
+         */
+        private static final int SUB_BUCKETS = 32;
+
+        /**
+         * The number of values that are counted exactly.
+         */
+        private static final int EXACT = 2 * SUB_BUCKETS;
+
+        /**
+         * The counts of all buckets. Covers all non-negative long values.
+         */
+        private final long[] counts = new long[EXACT + ( 63 - 6 ) * SUB_BUCKETS];
+
+        /**
+         * The number of recorded values.
+         */
+        private long total;
+
+        /**
+         * Records a value. Negative values are recorded as 0.
+         *
+         * @param value
+         *         The value.
+         */
+        void record( final long value )
+        {
+            counts[index( Math.max( 0, value ) )]++;
+            total++;
+        }
+
+        /**
+         * Adds all values of the given histogram to this one.
+         *
+         * @param other
+         *         The other histogram.
+         */
+        void add( final Histogram other )
+        {
+            for ( int i = 0; i < counts.length; i++ )
+                counts[i] += other.counts[i];
+            total += other.total;
+        }
+
+        /**
+         * Returns the value at the given percentile.
+         *
+         * @param percentile
+         *         The percentile between 0 and 1.
+         *
+         * @return The middle of the bucket that contains the percentile or 0 if no value was recorded.
+         */
+        long percentile( final double percentile )
+        {
+            if ( total == 0 )
+                return 0;
+
+            long rank = Math.max( 1, (long) Math.ceil( percentile * total ) );
+            long seen = 0;
+            for ( int i = 0; i < counts.length; i++ )
+            {
+                seen += counts[i];
+                if ( seen >= rank )
+                    return value( i );
+            }
+
+            return value( counts.length - 1 );
+        }
+
+        /**
+         * Returns the bucket of a non-negative value.
+         */
+        private static int index( final long value )
+        {
+            if ( value < EXACT )
+                return (int) value;
+
+            // The highest bit is at least 6. The 5 bits below it select the sub-bucket.
+            int exponent = 63 - Long.numberOfLeadingZeros( value );
+            int subBucket = (int) ( value >>> ( exponent - 5 ) ) - SUB_BUCKETS;
+
+            return EXACT + ( exponent - 6 ) * SUB_BUCKETS + subBucket;
+        }
+
+        /**
+         * Returns the middle of the values counted by a bucket.
+         */
+        private static long value( final int index )
+        {
+            if ( index < EXACT )
+                return index;
+
+            int exponent = ( index - EXACT ) / SUB_BUCKETS + 6;
+            long lowest = (long) ( SUB_BUCKETS + ( index - EXACT ) % SUB_BUCKETS ) << ( exponent - 5 );
+
+            return lowest + ( 1L << ( exponent - 5 ) ) / 2;
+        }
+    }
+
+    /**
+     * A virtual user that calls the stub in a loop.
+     */
+    private static final class User implements Runnable
+    {
+        /**
+         * The Url of the stub.
+         */
+        private final String url;
+
+        /**
+         * <b>true</b> while the measurement is running.
+         */
+        private final AtomicBoolean measuring;
+
+        /**
+         * <b>true</b> until the benchmark ends.
+         */
+        private final AtomicBoolean running;
+
+        /**
+         * Counted down when the user is done.
+         */
+        private final CountDownLatch done;
+
+        /**
+         * The client overhead of the measured requests in nanoseconds.
+         */
+        private final Histogram overheads = new Histogram();
+
+        /**
+         * The number of measured requests.
+         */
+        private int requests;
+
+        /**
+         * The number of measured requests that didn't return status code 200.
+         */
+        private int errors;
+
+        /**
+         * The bytes allocated during the measurement.
+         */
+        private long allocatedBytes;
+
+        /**
+         * The first error that occurred.
+         */
+        private volatile Throwable failure;
+
+        private User( final String url, final AtomicBoolean measuring, final AtomicBoolean running,
+                      final CountDownLatch done )
+        {
+            this.url = url;
+            this.measuring = measuring;
+            this.running = running;
+            this.done = done;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                // Warmup
+                while ( running.get() && !measuring.get() )
+                    new RESTCall( url ).get();
+
+                long allocatedBefore = allocatedBytes();
+                while ( running.get() && measuring.get() )
+                {
+                    long start = System.nanoTime();
+                    RESTCall call = new RESTCall( url ).get();
+                    long roundTrip = System.nanoTime() - start;
+
+                    if ( call.getResponseStatusCode() != 200 )
+                        errors++;
+
+                    String stubTime = call.getResponseHttpHeader( LocalStubServer.STUB_TIME_HEADER );
+                    long overhead = stubTime != null ? roundTrip - Long.parseLong( stubTime ) : roundTrip;
+
+                    overheads.record( overhead );
+                    requests++;
+                }
+                allocatedBytes = allocatedBytes() - allocatedBefore;
+            }
+            catch ( Throwable t )
+            {
+                failure = t;
+            }
+            finally
+            {
+                done.countDown();
+            }
+        }
+
+        /**
+         * Returns the bytes allocated by the current thread so far.
+         *
+         * @return The allocated bytes.
+         */
+        private static long allocatedBytes()
+        {
+            return ( (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean() )
+                    .getThreadAllocatedBytes( Thread.currentThread().getId() );
+        }
+    }
+
+    /**
+     * Private constructor.
+     */
+    private RoundTripBenchmark()
+    {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *         The arguments as <b>name=value</b>.
+     *
+     * @throws Exception
+     *         Thrown if the benchmark failed.
+     */
+    public static void main( final String[] args ) throws Exception
+    {
+        int users = intArg( args, "users", 1 );
+        int size = intArg( args, "size", 1024 );
+        int latency = intArg( args, "latency", 0 );
+        int warmup = intArg( args, "warmup", 5 );
+        int duration = intArg( args, "duration", 10 );
+
+        // Keep the timer output of the actions out of the working directory.
+        File resultDir = new File( System.getProperty( "java.io.tmpdir" ), "xrt-round-trip" );
+        XltProperties.getInstance().setProperty( "com.xceptance.xlt.result-dir", resultDir.getAbsolutePath() );
+
+        LocalStubServer server = new LocalStubServer( size, latency, Math.max( 4, users * 2 ) );
+        try
+        {
+            AtomicBoolean measuring = new AtomicBoolean();
+            AtomicBoolean running = new AtomicBoolean( true );
+            CountDownLatch done = new CountDownLatch( users );
+
+            User[] virtualUsers = new User[users];
+            for ( int i = 0; i < users; i++ )
+            {
+                virtualUsers[i] = new User( server.getUrl() + "/items", measuring, running, done );
+
+                // Every virtual user runs in its own thread group and therefore in its own XLT session.
+                Thread thread = new Thread( new ThreadGroup( "user-" + i ), virtualUsers[i], "user-" + i );
+                thread.setDaemon( true );
+                thread.start();
+            }
+
+            TimeUnit.SECONDS.sleep( warmup );
+            measuring.set( true );
+            long start = System.nanoTime();
+            TimeUnit.SECONDS.sleep( duration );
+            measuring.set( false );
+            running.set( false );
+            done.await();
+            long elapsed = System.nanoTime() - start;
+
+            report( virtualUsers, users, size, latency, elapsed );
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+
+    /**
+     * Prints the results of all virtual users.
+     */
+    private static void report( final User[] virtualUsers, final int users, final int size, final int latency,
+                                final long elapsedNanos )
+    {
+        long requests = 0;
+        long errors = 0;
+        long allocatedBytes = 0;
+        Histogram overheads = new Histogram();
+        for ( User user : virtualUsers )
+        {
+            if ( user.failure != null )
+                throw new IllegalStateException( "Virtual user failed", user.failure );
+
+            requests += user.requests;
+            errors += user.errors;
+            allocatedBytes += user.allocatedBytes;
+            overheads.add( user.overheads );
+        }
+
+        double seconds = elapsedNanos / 1e9;
+        System.out.println( String.format( Locale.ENGLISH,
+                                           "users=%d size=%d latency=%dms%n" + "requests:          %d (%d errors)%n"
+                                                   + "throughput:        %.1f req/s%n"
+                                                   + "client overhead:   p50 %.1f us, p99 %.1f us%n"
+                                                   + "allocated:         %d B/request", users, size, latency, requests,
+                                           errors, requests / seconds, overheads.percentile( 0.50 ) / 1e3,
+                                           overheads.percentile( 0.99 ) / 1e3,
+                                           requests > 0 ? allocatedBytes / requests : 0 ) );
+    }
+
+    /**
+     * Returns the value of an argument.
+     */
+    private static int intArg( final String[] args, final String name, final int defaultValue )
+    {
+        for ( String arg : args )
+        {
+            if ( arg.startsWith( name + "=" ) )
+                return Integer.parseInt( arg.substring( name.length() + 1 ) );
+        }
+
+        return defaultValue;
+    }
+}
@@ -0,0 +1,92 @@
+package com.xceptance.xrt.document;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures creating a {@link JSON} document and reading values from it.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class JSONBenchmark
+{
+    /**
+     * The number of products in the document.
+     */
+    @Param(
+        { "1", "100" } )
+    public int products;
+
+    /**
+     * The JSON document.
+     */
+    private String body;
+
+    /**
+     * A document that was already read.
+     */
+    private JSON json;
+
+    /**
+     * Creates the document.
+     */
+    @Setup
+    public void setup()
+    {
+        StringBuilder builder = new StringBuilder( "{\"total\":" ).append( products ).append( ",\"products\":[" );
+        for ( int i = 0; i < products; i++ )
+        {
+            if ( i > 0 )
+                builder.append( ',' );
+
+            builder.append( "{\"id\":" ).append( i ).append( ",\"name\":\"Product " ).append( i )
+                   .append( "\",\"price\":" ).append( i * 1.5 ).append( ",\"tags\":[\"new\",\"sale\"]}" );
+        }
+        body = builder.append( "]}" ).toString();
+
+        json = new JSON( body );
+        json.get( "total" );
+    }
+
+    /**
+     * Creates the document without reading it.
+     */
+    @Benchmark
+    public JSON newJSON()
+    {
+        return new JSON( body );
+    }
+
+    /**
+     * Creates the document and reads a single value.
+     */
+    @Benchmark
+    public Object newJSONAndGet()
+    {
+        return new JSON( body ).get( "products[0].name" );
+    }
+
+    /**
+     * Reads a value from a document that was read before.
+     */
+    @Benchmark
+    public Object get()
+    {
+        return json.get( "products[0].name" );
+    }
+}
@@ -0,0 +1,307 @@
+package com.xceptance.xrt;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.xceptance.xlt.api.util.XltLogger;
+
+/**
+ * <p>
+ * Base class of pre-processors that authorize REST calls with a token, e.g. an OAuth access token. The tokens are
+ * cached per provider class and credential key and shared by all threads and test users, i.e. users with the same
+ * credentials fetch a token only once instead of once per user.
+ * </p>
+ * <br>
+ * <p>
+ * A token is refreshed ahead of its expiry, but not before half of its lifetime has passed. Only one caller fetches a
+ * new token while all others keep using the current token as long as it is valid or wait for the refresh otherwise,
+ * at most for the XLT timeout. If the refresh fails, callers fall back to the current token until it expires.
+ * </p>
+ * <br>
+ * <p>
+ * Implementations need a public no-args constructor to be used with {@link com.xceptance.xrt.annotation.PreProcess}
+ * or the property <b>com.xceptance.xrt.preprocess.class</b>. A new instance per REST call is cheap because the tokens
+ * are not held by the instance.
+ * </p>
+ */
+public abstract class CachingTokenProvider implements PreProcessible
+{
+    /**
+     * The tokens by credential key per provider class.
+     */
+    private static final ClassValue<ConcurrentMap<String, CachedToken>> tokens = new ClassValue<ConcurrentMap<String, CachedToken>>()
+    {
+        @Override
+        protected ConcurrentMap<String, CachedToken> computeValue( final Class<?> type )
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * Returns the key of the credentials the given REST call is authorized with. REST calls with the same key share a
+     * token.
+     *
+     * @param call
+     *         The REST call that is about to be performed.
+     *
+     * @return The credential key, e.g. the client id.
+     */
+    protected abstract String getCredentialKey( RESTCall call );
+
+    /**
+     * Fetches a new token. Called by a single thread per credential key at a time.
+     *
+     * @param credentialKey
+     *         The credential key.
+     *
+     * @return The new token.
+     *
+     * @throws Exception
+     *         Thrown if the token can't be fetched.
+     */
+    protected abstract Token fetchToken( String credentialKey ) throws Exception;
+
+    /**
+     * Returns how long before its expiry a token is refreshed. Defaults to 30 seconds. Tokens are not refreshed before
+     * half of their lifetime has passed, even if this time is longer.
+     *
+     * @return The time in milliseconds.
+     */
+    protected long getRefreshAhead()
+    {
+        return 30000;
+    }
+
+    /**
+     * Returns how long callers wait for a token that is fetched by another caller. Defaults to the XLT timeout
+     * <b>com.xceptance.xlt.timeout</b>.
+     *
+     * @return The time in milliseconds or <b>0</b> to wait without limit.
+     */
+    protected long getRefreshTimeout()
+    {
+        return GlobalSettings.getCurrent().timeout;
+    }
+
+    /**
+     * Adds the token to the REST call. Sets the header <b>Authorization: Bearer &lt;token&gt;</b> by default.
+     *
+     * @param call
+     *         The REST call that is about to be performed.
+     * @param token
+     *         The value of the token.
+     */
+    protected void applyToken( final RESTCall call, final String token )
+    {
+        call.addHttpHeader( "Authorization", "Bearer " + token );
+    }
+
+    /**
+     * Adds the cached token to the REST call. The token is fetched or refreshed if necessary.
+     *
+     * @param call
+     *         The REST call that is about to be performed.
+     */
+    @Override
+    public final void preProcess( final RESTCall call )
+    {
+        applyToken( call, getToken( getCredentialKey( call ) ).value );
+    }
+
+    /**
+     * Returns the token of the given credential key. Only one caller per key refreshes the token.
+     *
+     * @param credentialKey
+     *         The credential key.
+     *
+     * @return The valid token.
+     */
+    final Token getToken( final String credentialKey )
+    {
+        ConcurrentMap<String, CachedToken> cache = tokens.get( getClass() );
+        CachedToken cached = cache.get( credentialKey );
+        if ( cached == null )
+        {
+            CachedToken existing = cache.putIfAbsent( credentialKey, cached = new CachedToken() );
+            if ( existing != null )
+                cached = existing;
+        }
+
+        // Fast path. Volatile read only.
+        Token token = cached.token;
+        long now = System.currentTimeMillis();
+        if ( token != null && now < token.refreshAt( getRefreshAhead() ) )
+            return token;
+
+        CompletableFuture<Token> refresh;
+        boolean owner = false;
+        synchronized ( cached )
+        {
+            // Another caller might have refreshed the token in the meantime.
+            Token current = cached.token;
+            if ( current != null && System.currentTimeMillis() < current.refreshAt( getRefreshAhead() ) )
+                return current;
+
+            refresh = cached.refresh;
+            if ( refresh == null )
+            {
+                refresh = cached.refresh = new CompletableFuture<>();
+                owner = true;
+            }
+        }
+
+        if ( owner )
+        {
+            try
+            {
+                Token newToken = fetchToken( credentialKey );
+                cached.token = newToken;
+                refresh.complete( newToken );
+            } catch ( Throwable t )
+            {
+                refresh.completeExceptionally( t );
+            } finally
+            {
+                synchronized ( cached )
+                {
+                    cached.refresh = null;
+                }
+            }
+        }
+        // Don't wait for a refresh ahead of the expiry.
+        else if ( token != null && now < token.expiresAt )
+            return token;
+
+        try
+        {
+            long timeout = getRefreshTimeout();
+            return timeout > 0 ? refresh.get( timeout, TimeUnit.MILLISECONDS ) : refresh.get();
+        } catch ( ExecutionException | TimeoutException e )
+        {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            if ( token != null && System.currentTimeMillis() < token.expiresAt )
+            {
+                XltLogger.runTimeLogger.warn( "Failed to refresh token of '" + credentialKey + "'. Using current token.",
+                                              cause );
+                return token;
+            }
+
+            throw new IllegalStateException( "Failed to fetch token of '" + credentialKey + "'.", cause );
+        } catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while waiting for token of '" + credentialKey + "'.", e );
+        }
+    }
+
+    /**
+     * A token and its expiry.
+     */
+    public static final class Token
+    {
+        /**
+         * The value of the token.
+         */
+        final String value;
+
+        /**
+         * The expiry in milliseconds since the epoch.
+         */
+        final long expiresAt;
+
+        /**
+         * When the token was created in milliseconds since the epoch.
+         */
+        final long issuedAt;
+
+        /**
+         * Constructor. The token is issued now.
+         *
+         * @param value
+         *         The value of the token.
+         * @param expiresAt
+         *         The expiry in milliseconds since the epoch.
+         */
+        public Token( final String value, final long expiresAt )
+        {
+            if ( value == null )
+                throw new IllegalArgumentException( "The value of a token must not be null." );
+
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.issuedAt = System.currentTimeMillis();
+        }
+
+        /**
+         * Creates a token that expires after the given number of seconds.
+         *
+         * @param value
+         *         The value of the token.
+         * @param expiresIn
+         *         The lifetime of the token in seconds.
+         *
+         * @return The token.
+         */
+        public static Token expiringIn( final String value, final long expiresIn )
+        {
+            return new Token( value, System.currentTimeMillis() + expiresIn * 1000 );
+        }
+
+        /**
+         * Returns when the token should be refreshed. That is the given time before its expiry but at most half of its
+         * lifetime, so that short-lived tokens are used for a while instead of being refreshed on every call.
+         *
+         * @param refreshAhead
+         *         How long before its expiry the token should be refreshed in milliseconds.
+         *
+         * @return The time of the refresh in milliseconds since the epoch.
+         */
+        long refreshAt( final long refreshAhead )
+        {
+            long lifetime = Math.max( 0, expiresAt - issuedAt );
+
+            return expiresAt - Math.min( refreshAhead, lifetime / 2 );
+        }
+
+        /**
+         * Returns the value of the token.
+         *
+         * @return The value of the token.
+         */
+        public String getValue()
+        {
+            return value;
+        }
+
+        /**
+         * Returns the expiry of the token.
+         *
+         * @return The expiry in milliseconds since the epoch.
+         */
+        public long getExpiresAt()
+        {
+            return expiresAt;
+        }
+    }
+
+    /**
+     * The cache entry of a credential key.
+     */
+    private static final class CachedToken
+    {
+        /**
+         * The current token. <b>null</b> until the first token was fetched.
+         */
+        volatile Token token;
+
+        /**
+         * The refresh in progress. <b>null</b> if there is none. Guarded by the entry.
+         */
+        CompletableFuture<Token> refresh;
+    }
+}
@@ -0,0 +1,410 @@
+package com.xceptance.xrt;
+
+import com.gargoylesoftware.htmlunit.HttpMethod;
+import com.xceptance.xlt.api.util.XltLogger;
+import com.xceptance.xlt.api.util.XltProperties;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * <p>
+ * Immutable snapshot of the XRT specific global settings defined in the *.properties files, e.g. project.properties.
+ * The properties are read and parsed once. A {@link RESTCall} starts from a copy of the current snapshot.
+ * </p>
+ * <br>
+ * <p>
+ * Snapshots are held per test case by its {@link SessionContext} because XLT allows to override properties per test
+ * case. They are dropped together with the context when the session ends. A snapshot is replaced when the properties
+ * instance is replaced, e.g. by {@link XltProperties#reset()}, or when one of the XRT properties or the XLT timeout
+ * changed. The check compares the raw values only, they are parsed again only after a change.
+ * </p>
+ */
+final class GlobalSettings
+{
+    /**
+     * The common prefix of all XRT properties.
+     */
+    private static final String PREFIX = "com.xceptance.xrt.";
+
+    /**
+     * The XLT timeout property.
+     */
+    private static final String TIMEOUT_KEY = "com.xceptance.xlt.timeout";
+
+    /**
+     * The properties instance the snapshot was read from.
+     */
+    private final XltProperties source;
+
+    /**
+     * The raw values of all XRT properties the snapshot was read from, without the prefix.
+     */
+    private final Map<String, String> rawProperties;
+
+    /**
+     * The raw value of the XLT timeout the snapshot was read from. Can be <b>null</b>.
+     */
+    private final String rawTimeout;
+
+    /**
+     * The host name. Defaults to an empty String.
+     */
+    final String hostName;
+
+    /**
+     * The protocol without separators. Defaults to <b>http</b>.
+     */
+    final String protocol;
+
+    /**
+     * The port. Defaults to <b>-1</b>.
+     */
+    final int port;
+
+    /**
+     * The sanitized base path. Defaults to an empty String.
+     */
+    final String basePath;
+
+    /**
+     * The sanitized resource path. Defaults to an empty String.
+     */
+    final String resourcePath;
+
+    /**
+     * The fragment. Defaults to an empty String.
+     */
+    final String fragment;
+
+    /**
+     * The default validation flag. Defaults to <b>true</b>.
+     */
+    final boolean defaultValidationEnabled;
+
+    /**
+     * The class name of the pre-processor. Can be <b>null</b>.
+     */
+    final String preprocessorClassName;
+
+    /**
+     * <b>true</b> if the pre-processor should be used in the whole test case.
+     */
+    final boolean reusePreprocessor;
+
+    /**
+     * The query parameters. Never <b>null</b>.
+     */
+    final Map<String, String> queryParams;
+
+    /**
+     * The HTTP headers. Never <b>null</b>.
+     */
+    final Map<String, String> httpHeaders;
+
+    /**
+     * The placeholder values. Never <b>null</b>.
+     */
+    final Map<String, String> placeholders;
+
+    /**
+     * The HTTP method. Can be <b>null</b>.
+     */
+    final HttpMethod httpMethod;
+
+    /**
+     * Only every n-th REST call is traced. Defaults to <b>1</b>, i.e. every REST call.
+     */
+    final int traceSampleRate;
+
+    /**
+     * The action names of the REST calls that are traced. An empty set traces all actions. Never <b>null</b>.
+     */
+    final Set<String> traceActions;
+
+    /**
+     * The maximum number of characters of a traced body. Defaults to <b>-1</b>, i.e. no limit.
+     */
+    final int traceMaxBodyLength;
+
+    /**
+     * The number of threads per test user that perform asynchronous REST calls. Defaults to <b>4</b>.
+     */
+    final int asyncThreads;
+
+    /**
+     * The transport that sends the requests. Defaults to {@link RESTTransport#HTMLUNIT}.
+     */
+    final RESTTransport transport;
+
+    /**
+     * The connect and read timeout of XLT in milliseconds. Used by the transports that don't send the request via the
+     * web client of XLT. Defaults to <b>100000</b>, the same as XLT.
+     */
+    final int timeout;
+
+    /**
+     * <b>true</b> if the phases of each REST call are logged as custom timers. Defaults to <b>false</b>.
+     */
+    final boolean phaseTimersEnabled;
+
+    /**
+     * The Url of the OAuth token endpoint. Can be <b>null</b>.
+     */
+    final String oauthTokenUrl;
+
+    /**
+     * The OAuth client id. Can be <b>null</b>.
+     */
+    final String oauthClientId;
+
+    /**
+     * The OAuth client secret. Can be <b>null</b>.
+     */
+    final String oauthClientSecret;
+
+    /**
+     * The requested OAuth scope. Can be <b>null</b>.
+     */
+    final String oauthScope;
+
+    /**
+     * How many seconds before their expiry OAuth tokens are refreshed. Defaults to <b>30</b>.
+     */
+    final int oauthRefreshAhead;
+
+    /**
+     * Reads and parses all XRT specific properties.
+     *
+     * @param properties
+     *         The properties to read.
+     * @param rawProperties
+     *         The raw values of all XRT properties.
+     * @param rawTimeout
+     *         The raw value of the XLT timeout.
+     */
+    private GlobalSettings( final XltProperties properties, final Map<String, String> rawProperties,
+                            final String rawTimeout )
+    {
+        this.source = properties;
+        this.rawProperties = rawProperties;
+        this.rawTimeout = rawTimeout;
+
+        this.hostName = properties.getProperty( "com.xceptance.xrt.host", "" );
+
+        String protocol = properties.getProperty( "com.xceptance.xrt.protocol" );
+        this.protocol = protocol != null && !protocol.isEmpty() ? RESTCall.sanitizeProtocol( protocol ) : "http";
+
+        // Ignore ports that are negative or 0.
+        int port = properties.getProperty( "com.xceptance.xrt.port", -1 );
+        this.port = port > 0 ? port : -1;
+
+        this.basePath = RESTCall.sanitizeUrlPathSegment( properties.getProperty( "com.xceptance.xrt.basePath", "" ) );
+        this.resourcePath = RESTCall.sanitizeUrlPathSegment( properties.getProperty( "com.xceptance.xrt.resourcePath",
+                "" ) );
+        this.fragment = properties.getProperty( "com.xceptance.xrt.fragment", "" );
+        this.defaultValidationEnabled = properties.getProperty( "com.xceptance.xrt.defaultValidation.enabled", true );
+
+        this.preprocessorClassName = properties.getProperty( "com.xceptance.xrt.preprocess.class" );
+        this.reusePreprocessor = properties.getProperty( "com.xceptance.xrt.preprocess.reuseInstance", false );
+
+        // Read settings that contain a list of key-value pairs. Single definitions override list entries.
+        this.queryParams = readMapProperty( properties, "com.xceptance.xrt.queryParams", "com.xceptance.xrt.queryParam." );
+        this.httpHeaders = readMapProperty( properties, "com.xceptance.xrt.http.headers", "com.xceptance.xrt.http.header." );
+        this.placeholders = readMapProperty( properties, "com.xceptance.xrt.placeholders",
+                "com.xceptance.xrt.placeholder." );
+
+        this.httpMethod = parseHttpMethod( properties.getProperty( "com.xceptance.xrt.http.method" ) );
+
+        // Tracing
+        this.traceSampleRate = Math.max( 1, properties.getProperty( "com.xceptance.xrt.trace.sampleRate", 1 ) );
+        this.traceActions = readSetProperty( properties, "com.xceptance.xrt.trace.actions" );
+        this.traceMaxBodyLength = properties.getProperty( "com.xceptance.xrt.trace.maxBodyLength", -1 );
+
+        this.asyncThreads = Math.max( 1, properties.getProperty( "com.xceptance.xrt.async.threads", 4 ) );
+
+        this.transport = parseTransport( properties.getProperty( "com.xceptance.xrt.transport" ) );
+        this.timeout = Math.max( 0, properties.getProperty( TIMEOUT_KEY, 100000 ) );
+        this.phaseTimersEnabled = properties.getProperty( "com.xceptance.xrt.phaseTimers.enabled", false );
+
+        // OAuth client credentials
+        this.oauthTokenUrl = properties.getProperty( "com.xceptance.xrt.oauth.tokenUrl" );
+        this.oauthClientId = properties.getProperty( "com.xceptance.xrt.oauth.clientId" );
+        this.oauthClientSecret = properties.getProperty( "com.xceptance.xrt.oauth.clientSecret" );
+        this.oauthScope = properties.getProperty( "com.xceptance.xrt.oauth.scope" );
+        this.oauthRefreshAhead = Math.max( 0, properties.getProperty( "com.xceptance.xrt.oauth.refreshAhead", 30 ) );
+    }
+
+    /**
+     * Returns the snapshot of the global settings for the current test case. The snapshot is read again if the
+     * properties instance was replaced or the raw value of an XRT property or of the XLT timeout changed since the
+     * last call.
+     *
+     * @return The current snapshot of the global settings.
+     */
+    static GlobalSettings getCurrent()
+    {
+        XltProperties properties = XltProperties.getInstance();
+        Map<String, String> rawProperties = properties.getPropertiesForKey( PREFIX );
+        String rawTimeout = properties.getProperty( TIMEOUT_KEY );
+        SessionContext context = SessionContext.getCurrent();
+
+        GlobalSettings settings = context.getSettings();
+        if ( settings == null || settings.source != properties || !Objects.equals( settings.rawTimeout, rawTimeout )
+                || !settings.rawProperties.equals( rawProperties ) )
+        {
+            settings = new GlobalSettings( properties, rawProperties, rawTimeout );
+            context.setSettings( settings );
+        }
+
+        return settings;
+    }
+
+    /**
+     * Reads a property that contains a list of key-value pairs and all single properties that start with the given key
+     * fragment.
+     *
+     * @param properties
+     *         The properties to read.
+     * @param listKey
+     *         The identifier of the property that contains the list.
+     * @param keyFragment
+     *         The prefix of all single properties.
+     *
+     * @return The map of all key-value pairs.
+     */
+    private static Map<String, String> readMapProperty( final XltProperties properties, final String listKey,
+                                                        final String keyFragment )
+    {
+        Map<String, String> propertyMap = new HashMap<>();
+
+        String list = properties.getProperty( listKey );
+        if ( list != null )
+        {
+            // Get all key-value pairs and iterate through them.
+            for ( String pairString : list.split( "," ) )
+            {
+                // Separate key from value and check if both are valid.
+                String[] keyValueArray = pairString.split( ":" );
+                if ( keyValueArray.length != 2 || keyValueArray[0].isEmpty() || keyValueArray[1].isEmpty() )
+                    continue;
+
+                // Add the key value pair to the property map.
+                propertyMap.put( keyValueArray[0].trim(), keyValueArray[1].trim() );
+            }
+        }
+
+        propertyMap.putAll( properties.getPropertiesForKey( keyFragment ) );
+
+        return Collections.unmodifiableMap( propertyMap );
+    }
+
+    /**
+     * Reads a property that contains a comma separated list of values.
+     *
+     * @param properties
+     *         The properties to read.
+     * @param key
+     *         The identifier of the property.
+     *
+     * @return The set of all non-empty values.
+     */
+    private static Set<String> readSetProperty( final XltProperties properties, final String key )
+    {
+        Set<String> values = new HashSet<>();
+
+        String list = properties.getProperty( key );
+        if ( list != null )
+        {
+            for ( String value : list.split( "," ) )
+            {
+                if ( !value.trim().isEmpty() )
+                    values.add( value.trim() );
+            }
+        }
+
+        return Collections.unmodifiableSet( values );
+    }
+
+    /**
+     * Converts the value of the HTTP method property into a {@link HttpMethod}. The value is case insensitive.
+     *
+     * @param httpMethod
+     *         The value of the HTTP method property.
+     *
+     * @return The HTTP method or <b>null</b> if the value is unknown.
+     */
+    private static HttpMethod parseHttpMethod( final String httpMethod )
+    {
+        if ( httpMethod == null )
+            return null;
+
+        switch ( httpMethod.toLowerCase() )
+        {
+            case "get":
+                return HttpMethod.GET;
+            case "post":
+                return HttpMethod.POST;
+            case "put":
+                return HttpMethod.PUT;
+            case "delete":
+                return HttpMethod.DELETE;
+            case "head":
+                return HttpMethod.HEAD;
+            case "options":
+                return HttpMethod.OPTIONS;
+            case "trace":
+                return HttpMethod.TRACE;
+            case "patch":
+                return HttpMethod.PATCH;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Converts the value of the transport property into a {@link RESTTransport}. The value is either <b>htmlunit</b>,
+     * <b>lean</b>, <b>http2</b>, or the name of a class that implements {@link RESTTransport}. Occurring errors are caught and
+     * printed as warnings.
+     *
+     * @param transport
+     *         The value of the transport property.
+     *
+     * @return The transport. Falls back to {@link RESTTransport#HTMLUNIT} if the value is missing or invalid.
+     */
+    private static RESTTransport parseTransport( final String transport )
+    {
+        if ( transport == null || transport.trim().isEmpty() || "htmlunit".equalsIgnoreCase( transport.trim() ) )
+            return RESTTransport.HTMLUNIT;
+
+        if ( "lean".equalsIgnoreCase( transport.trim() ) )
+            return RESTTransport.LEAN;
+
+        if ( "http2".equalsIgnoreCase( transport.trim() ) )
+            return RESTTransport.HTTP2;
+
+        String className = transport.trim();
+        try
+        {
+            Object object = Class.forName( className ).newInstance();
+            if ( object instanceof RESTTransport )
+                return ( RESTTransport ) object;
+
+            XltLogger.runTimeLogger.warn( "Class '" + className + "' is not of type 'com.xceptance.xrt.RESTTransport'. " +
+                    "Ignoring global property." );
+        } catch ( InstantiationException | IllegalAccessException e )
+        {
+            XltLogger.runTimeLogger.warn( "Could not instantiate class: '" + className + "'. Please check if there's a " +
+                    "public no-args constructor. Ignoring global property." );
+        } catch ( ClassNotFoundException e )
+        {
+            XltLogger.runTimeLogger.warn( "Could not find class in classpath: '" + className + "'. Ignoring global property." );
+        }
+
+        return RESTTransport.HTMLUNIT;
+    }
+}
@@ -0,0 +1,22 @@
+package com.xceptance.xrt;
+
+import com.gargoylesoftware.htmlunit.WebRequest;
+import com.gargoylesoftware.htmlunit.WebResponse;
+
+/**
+ * Sends the request with the web client of the XLT action. XLT records the request timer, handles cookies, and shows
+ * the response in the result browser.
+ */
+final class HtmlUnitTransport implements RESTTransport
+{
+    @Override
+    public WebResponse send( final WebRequest request, final XltRESTAction action ) throws Exception
+    {
+        WebResponse response = action.getWebClient().loadWebResponse( request );
+
+        // Provide the response as page for the result browser.
+        action.setResultPage( response );
+
+        return response;
+    }
+}
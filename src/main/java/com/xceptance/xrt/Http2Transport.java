@@ -0,0 +1,399 @@
+package com.xceptance.xrt;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.H2AsyncClientBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.Timeout;
+
+import com.gargoylesoftware.htmlunit.WebRequest;
+import com.gargoylesoftware.htmlunit.WebResponse;
+import com.gargoylesoftware.htmlunit.WebResponseData;
+import com.gargoylesoftware.htmlunit.util.NameValuePair;
+import com.xceptance.xlt.api.engine.RequestData;
+import com.xceptance.xlt.api.engine.Session;
+
+/**
+ * <p>
+ * Sends the request via HTTP/2, i.e. h2 for https and h2c with prior knowledge for http. Every test user has its own
+ * HTTP/2 client that keeps one connection per host. Concurrent REST calls of the test user, e.g. asynchronous calls or
+ * batches, are multiplexed as streams over that connection. The client is closed at the end of the test case.
+ * </p>
+ * <br>
+ * <p>
+ * Like {@link LeanHttpTransport} the response body is read once into a byte array, there is no page for the result
+ * browser, binary request bodies are sent as is with files mapped into memory, cookies are not handled, and Basic
+ * authentication credentials of the Url are sent preemptively. Headers that are not allowed in HTTP/2 are dropped.
+ * Compressed responses are not requested because they are not decoded. Connecting, waiting for the response, and
+ * the whole exchange are limited by the XLT timeout <b>com.xceptance.xlt.timeout</b>.
+ * </p>
+ * <br>
+ * <p>
+ * The request timer is recorded under the timer name of the action together with the stream timing: the time to the
+ * response headers of the stream, the time to its end, and the time in between spent receiving the body.
+ * </p>
+ */
+final class Http2Transport implements RESTTransport
+{
+    /**
+     * Request headers that are set by the client itself, that are part of the request body, or that are connection
+     * specific and not allowed in HTTP/2. The names are in lower case.
+     */
+    private static final Set<String> SKIPPED_HEADERS = new HashSet<>( Arrays.asList( "content-length", "content-type",
+                                                                                     "host", "connection", "keep-alive",
+                                                                                     "proxy-connection",
+                                                                                     "transfer-encoding", "upgrade",
+                                                                                     "accept-encoding" ) );
+
+    @Override
+    public WebResponse send( final WebRequest request, final XltRESTAction action ) throws Exception
+    {
+        CloseableHttpAsyncClient client = SessionContext.getCurrent().getResource( Http2Transport.class,
+                                                                                   Http2Transport::createClient );
+
+        URL url = request.getUrl();
+        BasicHttpRequest httpRequest = new BasicHttpRequest( request.getHttpMethod().name(), url.toURI() );
+
+        for ( Entry<String, String> header : request.getAdditionalHeaders().entrySet() )
+        {
+            if ( !SKIPPED_HEADERS.contains( header.getKey().toLowerCase( Locale.ROOT ) ) )
+                httpRequest.addHeader( header.getKey(), header.getValue() );
+        }
+
+        String authorization = LeanHttpTransport.basicAuthorization( url );
+        if ( authorization != null )
+            httpRequest.addHeader( "Authorization", authorization );
+
+        // Binary bodies are sent as is. Mapped files go from the page cache to the connection without a heap copy.
+        ByteBuffer requestBody = null;
+        String contentType = request.getAdditionalHeaders().get( "Content-Type" );
+        RequestBody binaryRequestBody = action.restCall.getBinaryRequestBody();
+        if ( binaryRequestBody != null )
+        {
+            requestBody = binaryRequestBody.toByteBuffer();
+            contentType = binaryRequestBody.contentType;
+        }
+        else if ( request.getRequestBody() != null )
+        {
+            Charset charset = Charset.forName( request.getCharset() );
+            requestBody = ByteBuffer.wrap( request.getRequestBody().getBytes( charset ) );
+            if ( contentType == null )
+                contentType = ContentType.DEFAULT_TEXT.withCharset( charset ).toString();
+        }
+
+        RequestData requestData = new RequestData( action.getTimerName() );
+        requestData.setUrl( url.toString() );
+        requestData.setBytesSent( requestBody != null ? requestBody.remaining() : 0 );
+
+        int timeout = GlobalSettings.getCurrent().timeout;
+        StreamTimingConsumer consumer = new StreamTimingConsumer();
+        try
+        {
+            Future<SimpleHttpResponse> future = client.execute( new BasicRequestProducer( httpRequest,
+                    requestBody != null ? new ByteBufferEntityProducer( requestBody, contentType ) : null ), consumer,
+                                                                null );
+
+            SimpleHttpResponse httpResponse;
+            try
+            {
+                // A timeout of 0 means no timeout, like in XLT.
+                httpResponse = timeout > 0 ? future.get( timeout, TimeUnit.MILLISECONDS ) : future.get();
+            }
+            catch ( ExecutionException e )
+            {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+            catch ( TimeoutException e )
+            {
+                // Resets the stream, the connection stays open for the other streams.
+                future.cancel( true );
+                throw new TimeoutException( "No response from " + url + " within " + timeout + " ms" );
+            }
+
+            long loadTime = consumer.elapsed( consumer.end );
+            long timeToFirstBytes = consumer.elapsed( consumer.head );
+
+            byte[] body = httpResponse.getBodyBytes();
+            if ( body == null )
+                body = new byte[0];
+
+            List<NameValuePair> headers = new ArrayList<>();
+            for ( Header header : httpResponse.getHeaders() )
+                headers.add( new NameValuePair( header.getName(), header.getValue() ) );
+
+            int statusCode = httpResponse.getCode();
+            WebResponseData data = new WebResponseData( body, statusCode, httpResponse.getReasonPhrase() != null
+                    ? httpResponse.getReasonPhrase() : "", headers );
+
+            requestData.setRunTime( loadTime );
+            requestData.setTimeToFirstBytes( (int) timeToFirstBytes );
+            requestData.setTimeToLastBytes( (int) loadTime );
+            requestData.setReceiveTime( (int) ( loadTime - timeToFirstBytes ) );
+            requestData.setResponseCode( statusCode );
+            requestData.setBytesReceived( body.length );
+            requestData.setContentType( httpResponse.getContentType() != null ? httpResponse.getContentType().toString()
+                                                                               : null );
+            requestData.setFailed( statusCode >= 500 );
+
+            return new WebResponse( data, request, loadTime );
+        }
+        catch ( Exception e )
+        {
+            requestData.setRunTime( consumer.elapsed( System.nanoTime() ) );
+            requestData.setFailed( true );
+            throw e;
+        }
+        finally
+        {
+            Session.getCurrent().getDataManager().logDataRecord( requestData );
+        }
+    }
+
+    /**
+     * Creates and starts the HTTP/2 client of a test user. The socket, connect, and response timeouts are set to the
+     * XLT timeout.
+     *
+     * @return The HTTP/2 client.
+     */
+    private static CloseableHttpAsyncClient createClient()
+    {
+        Timeout timeout = Timeout.ofMilliseconds( GlobalSettings.getCurrent().timeout );
+
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom().setSoTimeout( timeout ).build();
+        RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout( timeout )
+                                                   .setConnectionRequestTimeout( timeout )
+                                                   .setResponseTimeout( timeout ).build();
+
+        CloseableHttpAsyncClient client = H2AsyncClientBuilder.create().setIOReactorConfig( ioReactorConfig )
+                                                              .setDefaultRequestConfig( requestConfig )
+                                                              .disableCookieManagement().disableAutomaticRetries()
+                                                              .build();
+        client.start();
+
+        return client;
+    }
+
+    /**
+     * Reads the response of a stream and remembers when its headers and its end arrived.
+     */
+    private static final class StreamTimingConsumer implements AsyncResponseConsumer<SimpleHttpResponse>
+    {
+        /**
+         * Reads the response.
+         */
+        private final AsyncResponseConsumer<SimpleHttpResponse> delegate = SimpleResponseConsumer.create();
+
+        /**
+         * When the request was started, in nanoseconds.
+         */
+        private final long start = System.nanoTime();
+
+        /**
+         * When the response headers arrived, in nanoseconds.
+         */
+        private volatile long head;
+
+        /**
+         * When the stream ended, in nanoseconds.
+         */
+        private volatile long end;
+
+        /**
+         * Returns the milliseconds between the start of the request and the given point in time.
+         *
+         * @param time
+         *         The point in time in nanoseconds or <b>0</b> if it wasn't reached.
+         *
+         * @return The milliseconds since the start of the request.
+         */
+        private long elapsed( final long time )
+        {
+            return ( ( time != 0 ? time : System.nanoTime() ) - start ) / 1_000_000L;
+        }
+
+        @Override
+        public void consumeResponse( final HttpResponse response, final EntityDetails entityDetails,
+                                     final HttpContext context, final FutureCallback<SimpleHttpResponse> callback )
+            throws HttpException, IOException
+        {
+            head = System.nanoTime();
+
+            // Responses without body end with their headers.
+            if ( entityDetails == null )
+                end = head;
+
+            delegate.consumeResponse( response, entityDetails, context, callback );
+        }
+
+        @Override
+        public void informationResponse( final HttpResponse response, final HttpContext context )
+            throws HttpException, IOException
+        {
+            delegate.informationResponse( response, context );
+        }
+
+        @Override
+        public void updateCapacity( final CapacityChannel capacityChannel ) throws IOException
+        {
+            delegate.updateCapacity( capacityChannel );
+        }
+
+        @Override
+        public void consume( final ByteBuffer src ) throws IOException
+        {
+            delegate.consume( src );
+        }
+
+        @Override
+        public void streamEnd( final List<? extends Header> trailers ) throws HttpException, IOException
+        {
+            end = System.nanoTime();
+            delegate.streamEnd( trailers );
+        }
+
+        @Override
+        public void failed( final Exception cause )
+        {
+            delegate.failed( cause );
+        }
+
+        @Override
+        public void releaseResources()
+        {
+            delegate.releaseResources();
+        }
+    }
+
+    /**
+     * Writes the remaining bytes of a buffer as request body.
+     */
+    private static final class ByteBufferEntityProducer implements AsyncEntityProducer
+    {
+        /**
+         * The body. Its position is moved while writing.
+         */
+        private final ByteBuffer body;
+
+        /**
+         * The content type of the body.
+         */
+        private final String contentType;
+
+        /**
+         * The length of the body.
+         */
+        private final long contentLength;
+
+        /**
+         * Constructor.
+         *
+         * @param body
+         *         The body.
+         * @param contentType
+         *         The content type of the body. Can be <b>null</b>.
+         */
+        private ByteBufferEntityProducer( final ByteBuffer body, final String contentType )
+        {
+            this.body = body;
+            this.contentType = contentType;
+            this.contentLength = body.remaining();
+        }
+
+        @Override
+        public boolean isRepeatable()
+        {
+            return false;
+        }
+
+        @Override
+        public long getContentLength()
+        {
+            return contentLength;
+        }
+
+        @Override
+        public String getContentType()
+        {
+            return contentType;
+        }
+
+        @Override
+        public String getContentEncoding()
+        {
+            return null;
+        }
+
+        @Override
+        public boolean isChunked()
+        {
+            return false;
+        }
+
+        @Override
+        public Set<String> getTrailerNames()
+        {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public int available()
+        {
+            return body.remaining();
+        }
+
+        @Override
+        public void produce( final DataStreamChannel channel ) throws IOException
+        {
+            // Writes as much as the flow control window of the stream allows.
+            if ( body.hasRemaining() )
+                channel.write( body );
+
+            if ( !body.hasRemaining() )
+                channel.endStream();
+        }
+
+        @Override
+        public void failed( final Exception cause )
+        {
+            // Nothing to clean up, the request fails on its own.
+        }
+
+        @Override
+        public void releaseResources()
+        {
+            // Nothing to release, the buffer is owned by the caller.
+        }
+    }
+}
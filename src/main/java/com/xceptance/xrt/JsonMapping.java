@@ -0,0 +1,148 @@
+package com.xceptance.xrt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectReader;
+import org.codehaus.jackson.map.ObjectWriter;
+import org.codehaus.jackson.type.TypeReference;
+
+/**
+ * <p>
+ * Converts objects into JSON and JSON into objects with Jackson. There is a single {@link ObjectMapper} for all
+ * threads. The {@link ObjectWriter} and {@link ObjectReader} of a type are created once and shared because they are
+ * immutable and thread-safe, and creating one resolves the serializers or deserializers of the type.
+ * </p>
+ */
+final class JsonMapping
+{
+    /**
+     * The mapper. Thread-safe once configured and expensive to create.
+     */
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * The writers by type shared by all threads. The number of types is limited by the code of the test suite.
+     */
+    private static final ConcurrentHashMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    /**
+     * The readers by target type shared by all threads. Generic types of a {@link TypeReference} are compared by
+     * equality, i.e. every instance of <b>new TypeReference&lt;List&lt;Product&gt;&gt;() {}</b> finds the same reader.
+     */
+    private static final ConcurrentHashMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor. Utility class.
+     */
+    private JsonMapping()
+    {
+    }
+
+    /**
+     * Serializes the given value into UTF-8 encoded JSON without creating an intermediate String.
+     *
+     * @param value
+     *         The value. Can be <b>null</b>.
+     *
+     * @return The JSON bytes.
+     *
+     * @throws IOException
+     *         Thrown if the value can't be serialized.
+     */
+    static byte[] toJson( final Object value ) throws IOException
+    {
+        return writer( value != null ? value.getClass() : Object.class ).writeValueAsBytes( value );
+    }
+
+    /**
+     * Returns the writer for the given type.
+     *
+     * @param type
+     *         The type.
+     *
+     * @return The writer.
+     */
+    static ObjectWriter writer( final Class<?> type )
+    {
+        ObjectWriter writer = writers.get( type );
+        if ( writer == null )
+        {
+            writer = mapper.writerWithType( type );
+            writers.putIfAbsent( type, writer );
+        }
+
+        return writer;
+    }
+
+    /**
+     * Binds JSON from the given stream without decoding it into a String first. Byte streams are parsed directly if
+     * the document is encoded in Unicode.
+     *
+     * @param in
+     *         The stream. Closed afterwards.
+     * @param charset
+     *         The charset of the JSON document. Can be <b>null</b> to detect the Unicode encoding.
+     * @param reader
+     *         The reader of the target type.
+     *
+     * @return The bound value.
+     *
+     * @throws IOException
+     *         Thrown if the stream can't be read or bound to the target type.
+     */
+    static <T> T fromJson( final InputStream in, final String charset, final ObjectReader reader ) throws IOException
+    {
+        try ( InputStream stream = in )
+        {
+            if ( charset == null || charset.toUpperCase().startsWith( "UTF-" ) )
+                return reader.readValue( stream );
+
+            return reader.readValue( new InputStreamReader( stream, charset ) );
+        }
+    }
+
+    /**
+     * Returns the reader for the given target type.
+     *
+     * @param type
+     *         The target type.
+     *
+     * @return The reader.
+     */
+    static ObjectReader reader( final Class<?> type )
+    {
+        ObjectReader reader = readers.get( type );
+        if ( reader == null )
+        {
+            reader = mapper.reader( type );
+            readers.putIfAbsent( type, reader );
+        }
+
+        return reader;
+    }
+
+    /**
+     * Returns the reader for the given generic target type.
+     *
+     * @param type
+     *         The target type.
+     *
+     * @return The reader.
+     */
+    static ObjectReader reader( final TypeReference<?> type )
+    {
+        ObjectReader reader = readers.get( type.getType() );
+        if ( reader == null )
+        {
+            reader = mapper.reader( type );
+            readers.putIfAbsent( type.getType(), reader );
+        }
+
+        return reader;
+    }
+}
@@ -0,0 +1,292 @@
+package com.xceptance.xrt;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.FileEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+
+import com.gargoylesoftware.htmlunit.WebRequest;
+import com.gargoylesoftware.htmlunit.WebResponse;
+import com.gargoylesoftware.htmlunit.WebResponseData;
+import com.gargoylesoftware.htmlunit.util.NameValuePair;
+import com.xceptance.xlt.api.engine.RequestData;
+import com.xceptance.xlt.api.engine.Session;
+
+/**
+ * <p>
+ * Sends the request with a plain HTTP client instead of the web client of XLT. Every test user has its own pool of
+ * connections that is closed at the end of the test case. The response body is read once into a byte array and wrapped
+ * without any further processing, i.e. there is no page for the result browser. Binary request bodies are sent without
+ * converting them, files and streams are streamed.
+ * </p>
+ * <br>
+ * <p>
+ * The request timer is recorded under the timer name of the action. Cookies are not handled. Basic authentication
+ * credentials of the Url are sent preemptively. Connecting, waiting for a pooled connection, and reading the response
+ * are limited by the XLT timeout <b>com.xceptance.xlt.timeout</b>.
+ * </p>
+ */
+final class LeanHttpTransport implements RESTTransport
+{
+    @Override
+    public WebResponse send( final WebRequest request, final XltRESTAction action ) throws Exception
+    {
+        CloseableHttpClient client = SessionContext.getCurrent().getResource( LeanHttpTransport.class,
+                                                                              LeanHttpTransport::createClient );
+
+        URL url = request.getUrl();
+        RequestBuilder builder = RequestBuilder.create( request.getHttpMethod().name() ).setUri( url.toURI() );
+
+        for ( Entry<String, String> header : request.getAdditionalHeaders().entrySet() )
+        {
+            // Set by the client itself.
+            if ( !"Content-Length".equalsIgnoreCase( header.getKey() ) && !"Host".equalsIgnoreCase( header.getKey() ) )
+                builder.addHeader( header.getKey(), header.getValue() );
+        }
+
+        String authorization = basicAuthorization( url );
+        if ( authorization != null )
+            builder.addHeader( "Authorization", authorization );
+
+        RequestBody binaryRequestBody = action.restCall.getBinaryRequestBody();
+        CountingInputStream requestStream = null;
+        long bytesSent = 0;
+
+        RequestData requestData = new RequestData( action.getTimerName() );
+        requestData.setUrl( url.toString() );
+
+        long start = System.currentTimeMillis();
+        try
+        {
+            if ( binaryRequestBody != null )
+            {
+                bytesSent = binaryRequestBody.getLength();
+                if ( bytesSent == -1 )
+                {
+                    // Unknown length, send it chunked and count the bytes.
+                    requestStream = new CountingInputStream( binaryRequestBody.stream.get() );
+                    builder.setEntity( new InputStreamEntity( requestStream ) );
+                }
+                else
+                    builder.setEntity( createEntity( binaryRequestBody ) );
+            }
+            else if ( request.getRequestBody() != null )
+            {
+                byte[] requestBody = request.getRequestBody().getBytes( Charset.forName( request.getCharset() ) );
+                builder.setEntity( new ByteArrayEntity( requestBody ) );
+                bytesSent = requestBody.length;
+            }
+
+            try ( CloseableHttpResponse httpResponse = client.execute( builder.build() ) )
+            {
+                HttpEntity entity = httpResponse.getEntity();
+                byte[] body = entity != null ? EntityUtils.toByteArray( entity ) : new byte[0];
+                long loadTime = System.currentTimeMillis() - start;
+
+                List<NameValuePair> headers = new ArrayList<>();
+                for ( Header header : httpResponse.getAllHeaders() )
+                    headers.add( new NameValuePair( header.getName(), header.getValue() ) );
+
+                int statusCode = httpResponse.getStatusLine().getStatusCode();
+                WebResponseData data = new WebResponseData( body, statusCode, httpResponse.getStatusLine()
+                                                                                         .getReasonPhrase(), headers );
+
+                requestData.setRunTime( loadTime );
+                requestData.setResponseCode( statusCode );
+                requestData.setBytesReceived( body.length );
+                requestData.setContentType( entity != null && entity.getContentType() != null
+                                                    ? entity.getContentType().getValue() : null );
+                requestData.setFailed( statusCode >= 500 );
+
+                return new WebResponse( data, request, loadTime );
+            }
+        }
+        catch ( Exception e )
+        {
+            requestData.setRunTime( System.currentTimeMillis() - start );
+            requestData.setFailed( true );
+            throw e;
+        }
+        finally
+        {
+            requestData.setBytesSent( (int) ( requestStream != null ? requestStream.count : bytesSent ) );
+            if ( requestStream != null )
+                requestStream.close();
+
+            Session.getCurrent().getDataManager().logDataRecord( requestData );
+        }
+    }
+
+    /**
+     * Creates the entity of a binary request body with known length. Arrays are sent without copying them and files
+     * are streamed.
+     *
+     * @param requestBody
+     *         The binary request body.
+     *
+     * @return The entity.
+     *
+     * @throws IOException
+     *         Thrown if the size of the file can't be read.
+     */
+    private static HttpEntity createEntity( final RequestBody requestBody ) throws IOException
+    {
+        if ( requestBody.bytes != null )
+            return new ByteArrayEntity( requestBody.bytes );
+
+        if ( requestBody.file != null )
+            return new FileEntity( requestBody.file.toFile() );
+
+        ByteBuffer buffer = requestBody.toByteBuffer();
+        if ( buffer.hasArray() )
+            return new ByteArrayEntity( buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining() );
+
+        return new InputStreamEntity( new ByteBufferInputStream( buffer ), buffer.remaining() );
+    }
+
+    /**
+     * Returns the value of the Authorization header for the Basic authentication credentials of the given Url.
+     *
+     * @param url
+     *         The Url of the request.
+     *
+     * @return The value of the Authorization header or <b>null</b> if the Url has no credentials.
+     */
+    static String basicAuthorization( final URL url )
+    {
+        String userInfo = url.getUserInfo();
+        if ( userInfo == null )
+            return null;
+
+        if ( userInfo.indexOf( ':' ) == -1 )
+            userInfo += ":";
+
+        return "Basic " + Base64.getEncoder().encodeToString( userInfo.getBytes( Charset.forName( "UTF-8" ) ) );
+    }
+
+    /**
+     * Creates the HTTP client of a test user. The connection pool allows as many connections per host as the test
+     * user can perform asynchronous REST calls. All timeouts are set to the XLT timeout.
+     *
+     * @return The HTTP client.
+     */
+    private static CloseableHttpClient createClient()
+    {
+        GlobalSettings settings = GlobalSettings.getCurrent();
+        int connections = Math.max( 2, settings.asyncThreads );
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal( connections * 2 );
+        connectionManager.setDefaultMaxPerRoute( connections );
+        connectionManager.setDefaultSocketConfig( SocketConfig.custom().setSoTimeout( settings.timeout ).build() );
+
+        RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout( settings.timeout )
+                                                   .setConnectionRequestTimeout( settings.timeout )
+                                                   .setSocketTimeout( settings.timeout ).build();
+
+        return HttpClients.custom().setConnectionManager( connectionManager ).setDefaultRequestConfig( requestConfig )
+                          .disableCookieManagement().disableAutomaticRetries().build();
+    }
+
+    /**
+     * Reads the remaining bytes of a buffer.
+     */
+    private static final class ByteBufferInputStream extends InputStream
+    {
+        /**
+         * The buffer.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * Constructor.
+         *
+         * @param buffer
+         *         The buffer. Its position is moved while reading.
+         */
+        private ByteBufferInputStream( final ByteBuffer buffer )
+        {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read()
+        {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read( final byte[] bytes, final int offset, final int length )
+        {
+            if ( !buffer.hasRemaining() )
+                return -1;
+
+            int read = Math.min( length, buffer.remaining() );
+            buffer.get( bytes, offset, read );
+
+            return read;
+        }
+    }
+
+    /**
+     * Counts the bytes read from a stream.
+     */
+    private static final class CountingInputStream extends FilterInputStream
+    {
+        /**
+         * The number of bytes read so far.
+         */
+        private long count;
+
+        /**
+         * Constructor.
+         *
+         * @param in
+         *         The stream.
+         */
+        private CountingInputStream( final InputStream in )
+        {
+            super( in );
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            int read = super.read();
+            if ( read != -1 )
+                count++;
+
+            return read;
+        }
+
+        @Override
+        public int read( final byte[] bytes, final int offset, final int length ) throws IOException
+        {
+            int read = super.read( bytes, offset, length );
+            if ( read > 0 )
+                count += read;
+
+            return read;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.xceptance.xrt;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import com.xceptance.xlt.api.engine.CustomData;
+import com.xceptance.xlt.api.engine.Session;
+
+/**
+ * <p>
+ * Pre-processor that authorizes REST calls with an OAuth access token of the client credentials grant. The token is
+ * shared by all test users with the same client and refreshed ahead of its expiry, see {@link CachingTokenProvider}.
+ * Each token request is logged as custom timer <b>OAuth Token</b>. Connecting to the token endpoint and reading its
+ * response are limited by the XLT timeout <b>com.xceptance.xlt.timeout</b>.
+ * </p>
+ * <br>
+ * <p>
+ * The client is configured with the following properties:
+ * </p>
+ * <ul>
+ * <li><b>com.xceptance.xrt.oauth.tokenUrl</b> - The Url of the token endpoint.</li>
+ * <li><b>com.xceptance.xrt.oauth.clientId</b> - The client id.</li>
+ * <li><b>com.xceptance.xrt.oauth.clientSecret</b> - The client secret.</li>
+ * <li><b>com.xceptance.xrt.oauth.scope</b> - The requested scope. Optional.</li>
+ * <li><b>com.xceptance.xrt.oauth.refreshAhead</b> - Seconds before the expiry a token is refreshed. Defaults to 30.</li>
+ * </ul>
+ */
+public class OAuthTokenProvider extends CachingTokenProvider
+{
+    /**
+     * The Url of the token endpoint.
+     */
+    private final String tokenUrl;
+
+    /**
+     * The client id.
+     */
+    private final String clientId;
+
+    /**
+     * The client secret.
+     */
+    private final String clientSecret;
+
+    /**
+     * The requested scope. Can be <b>null</b>.
+     */
+    private final String scope;
+
+    /**
+     * How long before their expiry tokens are refreshed in milliseconds.
+     */
+    private final long refreshAhead;
+
+    /**
+     * The key of the client credentials.
+     */
+    private final String credentialKey;
+
+    /**
+     * The connect and read timeout of token requests in milliseconds.
+     */
+    private final int timeout;
+
+    /**
+     * Constructor. Reads the client from the global settings.
+     */
+    public OAuthTokenProvider()
+    {
+        GlobalSettings settings = GlobalSettings.getCurrent();
+        if ( settings.oauthTokenUrl == null || settings.oauthClientId == null )
+            throw new IllegalStateException( "The properties 'com.xceptance.xrt.oauth.tokenUrl' and " +
+                    "'com.xceptance.xrt.oauth.clientId' must be set." );
+
+        this.tokenUrl = settings.oauthTokenUrl;
+        this.clientId = settings.oauthClientId;
+        this.clientSecret = settings.oauthClientSecret != null ? settings.oauthClientSecret : "";
+        this.scope = settings.oauthScope;
+        this.refreshAhead = settings.oauthRefreshAhead * 1000L;
+        this.credentialKey = tokenUrl + " " + clientId + ( scope != null ? " " + scope : "" );
+        this.timeout = settings.timeout;
+    }
+
+    @Override
+    protected String getCredentialKey( final RESTCall call )
+    {
+        return credentialKey;
+    }
+
+    @Override
+    protected long getRefreshAhead()
+    {
+        return refreshAhead;
+    }
+
+    /**
+     * Requests a new access token from the token endpoint.
+     *
+     * @param credentialKey
+     *         The key of the client credentials.
+     *
+     * @return The access token.
+     *
+     * @throws IOException
+     *         Thrown if the token endpoint can't be reached or doesn't return a token.
+     */
+    @Override
+    protected Token fetchToken( final String credentialKey ) throws IOException
+    {
+        CustomData timer = new CustomData( "OAuth Token" );
+        try
+        {
+            return requestToken();
+        } catch ( IOException | RuntimeException e )
+        {
+            timer.setFailed( true );
+            throw e;
+        } finally
+        {
+            timer.setRunTime();
+            Session.getCurrent().getDataManager().logDataRecord( timer );
+        }
+    }
+
+    /**
+     * Sends the token request of the client credentials grant.
+     *
+     * @return The access token.
+     *
+     * @throws IOException
+     *         Thrown if the token endpoint can't be reached or doesn't return a token.
+     */
+    private Token requestToken() throws IOException
+    {
+        String body = "grant_type=client_credentials";
+        if ( scope != null )
+            body += "&scope=" + URLEncoder.encode( scope, "UTF-8" );
+
+        // Client authentication with the Basic scheme, see RFC 6749 section 2.3.1.
+        String credentials = URLEncoder.encode( clientId, "UTF-8" ) + ":" + URLEncoder.encode( clientSecret, "UTF-8" );
+
+        HttpURLConnection connection = ( HttpURLConnection ) new URL( tokenUrl ).openConnection();
+        try
+        {
+            connection.setConnectTimeout( timeout );
+            connection.setReadTimeout( timeout );
+            connection.setRequestMethod( "POST" );
+            connection.setDoOutput( true );
+            connection.setRequestProperty( "Content-Type", "application/x-www-form-urlencoded" );
+            connection.setRequestProperty( "Accept", "application/json" );
+            connection.setRequestProperty( "Authorization", "Basic " + Base64.getEncoder().encodeToString(
+                    credentials.getBytes( StandardCharsets.UTF_8 ) ) );
+
+            try ( OutputStream out = connection.getOutputStream() )
+            {
+                out.write( body.getBytes( StandardCharsets.UTF_8 ) );
+            }
+
+            int status = connection.getResponseCode();
+            if ( status != HttpURLConnection.HTTP_OK )
+                throw new IOException( "Token endpoint '" + tokenUrl + "' returned status code " + status + "." );
+
+            Map<?, ?> response = JsonMapping.fromJson( connection.getInputStream(), "UTF-8",
+                                                       JsonMapping.reader( Map.class ) );
+
+            Object accessToken = response.get( "access_token" );
+            if ( accessToken == null )
+                throw new IOException( "Token endpoint '" + tokenUrl + "' returned no access token." );
+
+            // Tokens without lifetime are used until the end of the test.
+            Object expiresIn = response.get( "expires_in" );
+            if ( expiresIn == null )
+                return new Token( accessToken.toString(), Long.MAX_VALUE );
+
+            return Token.expiringIn( accessToken.toString(), Long.parseLong( expiresIn.toString() ) );
+        } finally
+        {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.xceptance.xrt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * A compiled representation of a String that contains placeholders, e.g. <b>/resource/${id}?lang=${lang}</b>. The
+ * source is parsed once into literal and placeholder segments. Rendering walks the segments in a single pass and looks
+ * up each placeholder in the provided value map.
+ * </p>
+ * <br>
+ * <p>
+ * Compiled templates are immutable and therefore shared between all threads via a bounded cache that is keyed by the
+ * source String. Placeholder values are inserted literally, i.e. characters like <b>$</b> or <b>\</b> have no special
+ * meaning. Placeholders without a value remain untouched.
+ * </p>
+ */
+final class PlaceholderTemplate
+{
+    /**
+     * The maximum number of compiled templates held in the cache. The cache is flushed completely once this limit is
+     * reached to keep the memory footprint bounded, e.g. when request bodies are unique per call.
+     */
+    private static final int CACHE_CAPACITY = 1024;
+
+    /**
+     * Sources with more characters are compiled on every call and never cached, so that large request bodies are not
+     * pinned in memory by the cache.
+     */
+    static final int MAX_CACHEABLE_SOURCE_LENGTH = 8 * 1024;
+
+    /**
+     * Buffers with a larger capacity are not kept for reuse to avoid pinning the memory of a single huge body.
+     */
+    private static final int MAX_REUSABLE_BUFFER_CAPACITY = 64 * 1024;
+
+    /**
+     * The start sequence of a placeholder.
+     */
+    private static final String PLACEHOLDER_START = "${";
+
+    /**
+     * The end character of a placeholder.
+     */
+    private static final char PLACEHOLDER_END = '}';
+
+    /**
+     * All compiled templates shared by all threads.
+     */
+    private static final ConcurrentHashMap<String, PlaceholderTemplate> cache = new ConcurrentHashMap<>();
+
+    /**
+     * The render buffer reused per thread.
+     */
+    private static final ThreadLocal<StringBuilder> buffer = new ThreadLocal<StringBuilder>()
+    {
+        @Override
+        protected StringBuilder initialValue()
+        {
+            return new StringBuilder( 256 );
+        }
+    };
+
+    /**
+     * The source of the template.
+     */
+    private final String source;
+
+    /**
+     * The literal segments. The literal at index <b>i</b> is followed by the placeholder at index <b>i</b>. There is
+     * always one literal more than placeholders.
+     */
+    private final String[] literals;
+
+    /**
+     * The names of the placeholders.
+     */
+    private final String[] names;
+
+    /**
+     * Private constructor. Use {@link #compile(String)} instead.
+     *
+     * @param source
+     *         The source of the template.
+     * @param literals
+     *         The literal segments.
+     * @param names
+     *         The placeholder names.
+     */
+    private PlaceholderTemplate( final String source, final String[] literals, final String[] names )
+    {
+        this.source = source;
+        this.literals = literals;
+        this.names = names;
+    }
+
+    /**
+     * Replaces all placeholders in the given content with the values of the given map. This is the short form of
+     * {@link #compile(String)} followed by {@link #render(Map)}.
+     *
+     * @param content
+     *         The content that contains placeholders. Can be <b>null</b>.
+     * @param values
+     *         The placeholder values mapped by their name.
+     *
+     * @return The content with the replaced placeholders or <b>null</b> if the content was <b>null</b>.
+     */
+    static String replace( final String content, final Map<String, String> values )
+    {
+        // Nothing to replace.
+        if ( content == null || values.isEmpty() || content.indexOf( PLACEHOLDER_START ) == -1 )
+            return content;
+
+        return compile( content ).render( values );
+    }
+
+    /**
+     * Returns the compiled template for the given source. The template is taken from the cache if available. Sources
+     * longer than {@link #MAX_CACHEABLE_SOURCE_LENGTH} are compiled but not cached.
+     *
+     * @param source
+     *         The source of the template.
+     *
+     * @return The compiled template.
+     */
+    static PlaceholderTemplate compile( final String source )
+    {
+        if ( source.length() > MAX_CACHEABLE_SOURCE_LENGTH )
+            return parse( source );
+
+        PlaceholderTemplate template = cache.get( source );
+        if ( template != null )
+            return template;
+
+        template = parse( source );
+
+        if ( cache.size() >= CACHE_CAPACITY )
+            cache.clear();
+
+        cache.put( source, template );
+
+        return template;
+    }
+
+    /**
+     * Renders the template with the given placeholder values.
+     *
+     * @param values
+     *         The placeholder values mapped by their name.
+     *
+     * @return The rendered String.
+     */
+    String render( final Map<String, String> values )
+    {
+        // A template without placeholders is the source itself.
+        if ( names.length == 0 )
+            return source;
+
+        StringBuilder builder = buffer.get();
+        builder.setLength( 0 );
+
+        for ( int i = 0; i < names.length; i++ )
+        {
+            builder.append( literals[i] );
+
+            String value = values.get( names[i] );
+            if ( value != null )
+                builder.append( value );
+            else
+                builder.append( PLACEHOLDER_START ).append( names[i] ).append( PLACEHOLDER_END );
+        }
+        builder.append( literals[names.length] );
+
+        String result = builder.toString();
+
+        // Do not keep huge buffers alive.
+        if ( builder.capacity() > MAX_REUSABLE_BUFFER_CAPACITY )
+            buffer.remove();
+
+        return result;
+    }
+
+    /**
+     * Returns the source of this template.
+     */
+    @Override
+    public String toString()
+    {
+        return source;
+    }
+
+    /**
+     * Splits the source into literal and placeholder segments.
+     *
+     * @param source
+     *         The source of the template.
+     *
+     * @return The compiled template.
+     */
+    private static PlaceholderTemplate parse( final String source )
+    {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+
+        int literalStart = 0;
+        int index = source.indexOf( PLACEHOLDER_START );
+        while ( index != -1 )
+        {
+            int nameStart = index + PLACEHOLDER_START.length();
+            int end = source.indexOf( PLACEHOLDER_END, nameStart );
+
+            // An unterminated placeholder is just text.
+            if ( end == -1 )
+                break;
+
+            // Take the innermost start sequence, e.g. "${a${b}" contains the placeholder "b".
+            int innerStart = source.lastIndexOf( PLACEHOLDER_START, end );
+            if ( innerStart > index )
+            {
+                index = innerStart;
+                nameStart = index + PLACEHOLDER_START.length();
+            }
+
+            literals.add( source.substring( literalStart, index ) );
+            names.add( source.substring( nameStart, end ) );
+
+            literalStart = end + 1;
+            index = source.indexOf( PLACEHOLDER_START, literalStart );
+        }
+        literals.add( source.substring( literalStart ) );
+
+        return new PlaceholderTemplate( source, literals.toArray( new String[literals.size()] ),
+                names.toArray( new String[names.size()] ) );
+    }
+}
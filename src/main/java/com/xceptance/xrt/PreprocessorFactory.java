@@ -0,0 +1,165 @@
+package com.xceptance.xrt;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.xceptance.xlt.api.util.XltLogger;
+
+/**
+ * <p>
+ * Creates pre-processor instances of a class that implements {@link PreProcessible}. The class is resolved and its
+ * no-args constructor is looked up only once per class and class name. Classes that can't be used as pre-processor are
+ * remembered as well, i.e. the warning is logged once and later lookups fail fast.
+ * </p>
+ */
+final class PreprocessorFactory
+{
+    /**
+     * The factory of classes that can't be used as pre-processor.
+     */
+    private static final PreprocessorFactory MISSING = new PreprocessorFactory( null );
+
+    /**
+     * The factories by class. Entries are bound to the life cycle of their class.
+     */
+    private static final ClassValue<PreprocessorFactory> byClass = new ClassValue<PreprocessorFactory>()
+    {
+        @Override
+        protected PreprocessorFactory computeValue( final Class<?> type )
+        {
+            return resolve( type );
+        }
+    };
+
+    /**
+     * The factories by class name, e.g. of the global property <b>com.xceptance.xrt.preprocess.class</b>.
+     */
+    private static final ConcurrentHashMap<String, PreprocessorFactory> byName = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new pre-processor. <b>null</b> if the class can't be used as pre-processor.
+     */
+    private final MethodHandle constructor;
+
+    /**
+     * Constructor.
+     *
+     * @param constructor
+     *         Creates a new pre-processor.
+     */
+    private PreprocessorFactory( final MethodHandle constructor )
+    {
+        this.constructor = constructor;
+    }
+
+    /**
+     * Returns the factory of the given class.
+     *
+     * @param type
+     *         The pre-processor class.
+     *
+     * @return The factory. Never <b>null</b>.
+     */
+    static PreprocessorFactory forClass( final Class<?> type )
+    {
+        return byClass.get( type );
+    }
+
+    /**
+     * Returns the factory of the class with the given name.
+     *
+     * @param className
+     *         The name of the pre-processor class.
+     *
+     * @return The factory. Never <b>null</b>.
+     */
+    static PreprocessorFactory forName( final String className )
+    {
+        PreprocessorFactory factory = byName.get( className );
+        if ( factory == null )
+        {
+            try
+            {
+                factory = forClass( Class.forName( className ) );
+            } catch ( ClassNotFoundException e )
+            {
+                XltLogger.runTimeLogger.warn( "Could not find class in classpath: '" + className + "'. Ignoring global property." );
+                factory = MISSING;
+            }
+
+            PreprocessorFactory existing = byName.putIfAbsent( className, factory );
+            if ( existing != null )
+                factory = existing;
+        }
+
+        return factory;
+    }
+
+    /**
+     * Checks the given class and looks up its no-args constructor. Occurring errors are caught and printed as warnings.
+     *
+     * @param type
+     *         The pre-processor class.
+     *
+     * @return The factory of the class or {@link #MISSING} if the class can't be used as pre-processor.
+     */
+    private static PreprocessorFactory resolve( final Class<?> type )
+    {
+        if ( !PreProcessible.class.isAssignableFrom( type ) )
+        {
+            XltLogger.runTimeLogger.warn( "Class '" + type.getName() + "' is not of type 'com.xceptance.xrt.PreProcessible'. " +
+                    "Ignoring global property." );
+            return MISSING;
+        }
+
+        try
+        {
+            if ( Modifier.isAbstract( type.getModifiers() ) )
+                throw new InstantiationException( type.getName() );
+
+            return new PreprocessorFactory( MethodHandles.lookup()
+                                                         .findConstructor( type, MethodType.methodType( void.class ) )
+                                                         .asType( MethodType.methodType( PreProcessible.class ) ) );
+        } catch ( InstantiationException | NoSuchMethodException | IllegalAccessException e )
+        {
+            XltLogger.runTimeLogger.warn( "Could not instantiate class: '" + type.getName() + "'. Please check if there's a " +
+                    "public no-args constructor. Ignoring global property." );
+            return MISSING;
+        }
+    }
+
+    /**
+     * Returns whether the class can be used as pre-processor.
+     *
+     * @return <b>true</b> if {@link #newInstance()} creates pre-processors.
+     */
+    boolean isAvailable()
+    {
+        return constructor != null;
+    }
+
+    /**
+     * Creates a new pre-processor.
+     *
+     * @return The pre-processor or <b>null</b> if the class can't be used as pre-processor.
+     */
+    PreProcessible newInstance()
+    {
+        if ( constructor == null )
+            return null;
+
+        try
+        {
+            return ( PreProcessible ) constructor.invokeExact();
+        } catch ( RuntimeException | Error e )
+        {
+            throw e;
+        } catch ( Throwable t )
+        {
+            throw new IllegalStateException( "Could not instantiate pre-processor.", t );
+        }
+    }
+}
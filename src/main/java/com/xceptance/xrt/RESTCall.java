@@ -3,22 +3,35 @@ package com.xceptance.xrt;
 import com.gargoylesoftware.htmlunit.HttpMethod;
 import com.gargoylesoftware.htmlunit.WebResponse;
 import com.gargoylesoftware.htmlunit.util.NameValuePair;
+import com.xceptance.xlt.api.engine.CustomData;
 import com.xceptance.xlt.api.engine.Session;
-import com.xceptance.xlt.api.engine.SessionShutdownListener;
 import com.xceptance.xlt.api.util.XltLogger;
-import com.xceptance.xlt.api.util.XltProperties;
 import com.xceptance.xrt.annotation.*;
-import com.xceptance.xrt.annotation.authentication.BasicAuth;
 import com.xceptance.xrt.authentication.BasicAuthCredentials;
 import com.xceptance.xrt.document.JSON;
-
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import com.xceptance.xrt.document.StreamingJSON;
+import org.codehaus.jackson.type.TypeReference;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * <p>
@@ -41,15 +54,9 @@ public class RESTCall
      ****************************************************************************************/
 
     /**
-     * Implements an automatic approach for action handling. Is set to null in {@link RESTCall#init()} when session dies
-     * at the end of a test case.
-     */
-    private static ThreadLocal<XltRESTAction> prevAction = new ThreadLocal<>();
-
-    /**
-     * Stores the preprocessor for the whole test case.
+     * The content type of request bodies that were serialized into JSON.
      */
-    private static ThreadLocal<PreProcessible> preprocessorReuse = new ThreadLocal<>();
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=UTF-8";
 
     /**
      * Stores the preprocessor for a single call.
@@ -115,6 +122,11 @@ public class RESTCall
      */
     private String requestBody;
 
+    /**
+     * The binary request body. Replaces {@link #requestBody} if set.
+     */
+    private RequestBody binaryRequestBody;
+
     /**
      * The credentials for basic authentication used in the REST call.
      */
@@ -139,11 +151,47 @@ public class RESTCall
      */
     private boolean enableDefaultValidation = true;
 
+    /**
+     * The transport that sends the request. Defaults to the global setting.
+     */
+    private RESTTransport transport = RESTTransport.HTMLUNIT;
+
+    /**
+     * <b>true</b> if the phases of the REST call are logged as custom timers. Defaults to the global setting.
+     */
+    private boolean phaseTimersEnabled;
+
     /**
      * Classes with default validation.
      */
     List<AutoValidatable> defaultValidators = new ArrayList<>();
 
+    /**
+     * The view of this REST call handed to the validators. Created on first use.
+     */
+    private RESTCallValidator validatorView;
+
+    /****************************************************************************************
+     ************************ Private Url Cache *********************************************
+     ****************************************************************************************/
+
+    /**
+     * The cached Url is filled when requested the first time and deleted when any part of the Url changes.
+     */
+    private ResolvedUrl resolvedUrl;
+
+    /**
+     * <b>true</b> once the query parameters, placeholder values, or credentials were handed out. They can then be
+     * changed without notice and the cached Url has to be verified against them.
+     */
+    private boolean urlStateExposed;
+
+    /**
+     * The frozen prototype of the {@link RESTCallTemplate} this call was forked from. The maps and validators are
+     * shared with the prototype until this call changes them. <b>null</b> if this call was not forked.
+     */
+    private RESTCall prototype;
+
     /****************************************************************************************
      ************************ Private Response Cache ****************************************
      ****************************************************************************************/
@@ -154,6 +202,12 @@ public class RESTCall
      */
     private String responseContent;
 
+    /**
+     * The cache for the response content as JSON is filled when requested the first time and deleted when this
+     * instance is reused for another REST call. The JSON is parsed at most once per response.
+     */
+    private JSON responseJSON;
+
     /**
      * The cache for the response status code is filled when requested the first time and deleted when this instance is
      * reused for another REST call.
@@ -253,6 +307,58 @@ public class RESTCall
         splitUrl( url );
     }
 
+    /**
+     * Copies the configuration of the given REST call. A frozen copy holds unmodifiable maps and is used as the
+     * prototype of a {@link RESTCallTemplate}. A fork shares all maps with its prototype and copies them on the first
+     * change. Like every other REST call, a fork gets its own single-use pre-processor and its own instances of all
+     * validators that are not annotated with {@link StatelessValidator}.
+     *
+     * @param source
+     *         The REST call to copy.
+     * @param freeze
+     *         Should be <b>true</b> to create the prototype of a template, <b>false</b> to fork a prototype.
+     */
+    private RESTCall( final RESTCall source, final boolean freeze )
+    {
+        this.actionName = source.actionName;
+        this.protocol = source.protocol;
+        this.port = source.port;
+        this.hostName = source.hostName;
+        this.basePath = source.basePath;
+        this.resourcePath = source.resourcePath;
+        this.fragment = source.fragment;
+        this.httpMethod = source.httpMethod;
+        this.requestBody = source.requestBody;
+        this.binaryRequestBody = source.binaryRequestBody;
+        this.enableDefaultValidation = source.enableDefaultValidation;
+        this.preprocessor = source.preprocessor;
+        this.transport = source.transport;
+        this.phaseTimersEnabled = source.phaseTimersEnabled;
+
+        // Credentials are mutable, therefore every call gets its own instance.
+        if ( source.basicAuthCredentials != null )
+            this.basicAuthCredentials = new BasicAuthCredentials( source.basicAuthCredentials.getUsername(),
+                    source.basicAuthCredentials.getPassword() );
+
+        if ( freeze )
+        {
+            this.queryParams = Collections.unmodifiableMap( new HashMap<>( source.queryParams ) );
+            this.httpHeaders = Collections.unmodifiableMap( new HashMap<>( source.httpHeaders ) );
+            this.placeholders = Collections.unmodifiableMap( new HashMap<>( source.placeholders ) );
+            this.defaultValidators = Collections.unmodifiableList( new ArrayList<>( source.defaultValidators ) );
+        }
+        else
+        {
+            this.prototype = source;
+            this.resolvedUrl = source.resolvedUrl;
+            this.queryParams = source.queryParams;
+            this.httpHeaders = source.httpHeaders;
+            this.placeholders = source.placeholders;
+            this.defaultValidators = forkValidators( source.defaultValidators );
+            this.preprocessor = forkPreprocessor( source.preprocessor );
+        }
+    }
+
     /****************************************************************************************
      ************************ Public Methods ************************************************
      ****************************************************************************************/
@@ -306,7 +412,7 @@ public class RESTCall
      */
     public RESTCall setPreviousAction( XltRESTAction previousAction )
     {
-        prevAction.set( previousAction );
+        SessionContext.getCurrent().previousAction = previousAction;
 
         return this;
     }
@@ -320,7 +426,7 @@ public class RESTCall
      */
     public XltRESTAction getPreviousAction()
     {
-        return prevAction.get();
+        return SessionContext.getCurrent().previousAction;
     }
 
     /**
@@ -338,13 +444,11 @@ public class RESTCall
         if ( protocol == null )
             return this;
 
-        // Remove the protocol separators
-        String update = protocol;
-        update = update.replaceAll( "/", "" );
-        update = update.replaceAll( ":", "" );
-
         if ( !protocol.isEmpty() )
-            this.protocol = update;
+        {
+            this.protocol = sanitizeProtocol( protocol );
+            invalidateUrl();
+        }
 
         return this;
     }
@@ -372,7 +476,10 @@ public class RESTCall
         // Do nothing if the port is negative or 0.
         // Go back to default if port is -1.
         if ( port > 0 || port == -1 )
+        {
             this.port = port;
+            invalidateUrl();
+        }
 
         return this;
     }
@@ -399,7 +506,10 @@ public class RESTCall
     {
         // Do nothing if the host name is null.
         if ( hostName != null )
+        {
             this.hostName = hostName;
+            invalidateUrl();
+        }
 
         return this;
     }
@@ -427,7 +537,10 @@ public class RESTCall
     {
         // Do nothing if the base path is null.
         if ( basePath != null )
+        {
             this.basePath = sanitizeUrlPathSegment( basePath );
+            invalidateUrl();
+        }
 
         return this;
     }
@@ -456,7 +569,10 @@ public class RESTCall
     {
         // Do nothing if the resource path is null.
         if ( resourcePath != null )
+        {
             this.resourcePath = sanitizeUrlPathSegment( resourcePath );
+            invalidateUrl();
+        }
 
         return this;
     }
@@ -484,7 +600,7 @@ public class RESTCall
      */
     public RESTCall addQueryParam( final String name, final String value )
     {
-        this.queryParams.put( name, value );
+        writableQueryParams().put( name, value );
         return this;
     }
 
@@ -500,7 +616,7 @@ public class RESTCall
      */
     public RESTCall addAllQueryParams( final Map<String, String> queryParams )
     {
-        this.queryParams.putAll( queryParams );
+        writableQueryParams().putAll( queryParams );
         return this;
     }
 
@@ -524,7 +640,8 @@ public class RESTCall
      */
     public Map<String, String> getQueryParams()
     {
-        return this.queryParams;
+        exposeUrlState();
+        return writableQueryParams();
     }
 
     /**
@@ -537,7 +654,7 @@ public class RESTCall
      */
     public RESTCall removeQueryParam( final String name )
     {
-        this.queryParams.remove( name );
+        writableQueryParams().remove( name );
         return this;
     }
 
@@ -554,7 +671,7 @@ public class RESTCall
         // Loop through all names of the array and remove the corresponding
         // parameters from the map.
         for ( String name : names )
-            this.queryParams.remove( name );
+            writableQueryParams().remove( name );
 
         return this;
     }
@@ -567,6 +684,7 @@ public class RESTCall
     public RESTCall removeAllQueryParams()
     {
         this.queryParams = new HashMap<>();
+        invalidateUrl();
         return this;
     }
 
@@ -582,7 +700,10 @@ public class RESTCall
     {
         // Do nothing if the fragment is null.
         if ( fragment != null )
+        {
             this.fragment = fragment;
+            invalidateUrl();
+        }
 
         return this;
     }
@@ -627,10 +748,8 @@ public class RESTCall
      */
     public RESTCall setDefinitionClass( final Class<?> resourceDef )
     {
-        if ( resourceDef.isAnnotationPresent( DisableDefaultValidation.class ) )
-            setDefinitionClass( resourceDef, false );
-        else
-            setDefinitionClass( resourceDef, true );
+        ResourceDescriptor descriptor = ResourceDescriptor.forClass( resourceDef );
+        applyResourceDescriptor( descriptor, !descriptor.defaultValidationDisabled );
 
         return this;
     }
@@ -661,18 +780,7 @@ public class RESTCall
     {
         // Do nothing if the class is null
         if ( resourceDef != null )
-        {
-            readResourceDefinition( resourceDef );
-            readHttpMethodDefinition( resourceDef );
-            readHttpHeaderDefinition( resourceDef );
-            readPlaceholderDefinition( resourceDef );
-
-            if ( enableDefaultValidation )
-                readValidator( resourceDef );
-
-            readPreprocessorDefinition( resourceDef );
-            readBasicAuthDefinition( resourceDef );
-        }
+            applyResourceDescriptor( ResourceDescriptor.forClass( resourceDef ), enableDefaultValidation );
 
         return this;
     }
@@ -701,6 +809,37 @@ public class RESTCall
      * @return The Url ready to call. Returns <b>null</b> if the host name is missing.
      */
     public String getUrl()
+    {
+        ResolvedUrl resolved = this.resolvedUrl;
+        if ( resolved == null || !resolved.isValid( queryParams, placeholders, basicAuthCredentials ) )
+        {
+            resolved = new ResolvedUrl( buildUrl(), queryParams, placeholders, basicAuthCredentials, urlStateExposed );
+            this.resolvedUrl = resolved;
+        }
+
+        return resolved.url;
+    }
+
+    /**
+     * Returns the Url as {@link URL}. The Url is parsed once and reused until the configuration changes.
+     *
+     * @return The Url ready to call.
+     *
+     * @throws MalformedURLException
+     *         Thrown if the Url is invalid or the host name is missing.
+     */
+    URL toURL() throws MalformedURLException
+    {
+        getUrl();
+        return this.resolvedUrl.toURL();
+    }
+
+    /**
+     * Builds the Url from its parts and replaces all placeholders.
+     *
+     * @return The Url ready to call. Returns <b>null</b> if the host name is missing.
+     */
+    private String buildUrl()
     {
         // String builder that builds the URL.
         StringBuilder builder = new StringBuilder();
@@ -789,7 +928,7 @@ public class RESTCall
      */
     public RESTCall addHttpHeader( String name, String value )
     {
-        this.httpHeaders.put( name, value );
+        writableHttpHeaders().put( name, value );
         return this;
     }
 
@@ -805,7 +944,7 @@ public class RESTCall
      */
     public RESTCall addAllHttpHeaders( Map<String, String> httpHeaders )
     {
-        this.httpHeaders.putAll( httpHeaders );
+        writableHttpHeaders().putAll( httpHeaders );
         return this;
     }
 
@@ -828,6 +967,17 @@ public class RESTCall
      * @return A map of the configured HTTP headers for this REST call.
      */
     public Map<String, String> getHttpHeaders()
+    {
+        return writableHttpHeaders();
+    }
+
+    /**
+     * Returns the HTTP headers for reading only. Unlike {@link #getHttpHeaders()} the headers shared with a
+     * {@link RESTCallTemplate} are not copied.
+     *
+     * @return The HTTP headers of this REST call. Must not be modified.
+     */
+    Map<String, String> readHttpHeaders()
     {
         return this.httpHeaders;
     }
@@ -842,7 +992,7 @@ public class RESTCall
      */
     public RESTCall removeHttpHeader( String name )
     {
-        this.httpHeaders.remove( name );
+        writableHttpHeaders().remove( name );
         return this;
     }
 
@@ -859,7 +1009,7 @@ public class RESTCall
         // Loop through all names of the array and remove the corresponding
         // headers from the map.
         for ( String name : names )
-            this.httpHeaders.remove( name );
+            writableHttpHeaders().remove( name );
 
         return this;
     }
@@ -944,7 +1094,7 @@ public class RESTCall
      */
     public RESTCall addPlaceholderValue( String name, String value )
     {
-        this.placeholders.put( name, value );
+        writablePlaceholders().put( name, value );
         return this;
     }
 
@@ -960,7 +1110,7 @@ public class RESTCall
      */
     public RESTCall addAllPlaceholderValues( Map<String, String> placeholderValues )
     {
-        this.placeholders.putAll( placeholderValues );
+        writablePlaceholders().putAll( placeholderValues );
         return this;
     }
 
@@ -984,7 +1134,8 @@ public class RESTCall
      */
     public Map<String, String> getPlaceholderValues()
     {
-        return this.placeholders;
+        exposeUrlState();
+        return writablePlaceholders();
     }
 
     /**
@@ -997,7 +1148,7 @@ public class RESTCall
      */
     public RESTCall removePlaceholderValue( String name )
     {
-        this.placeholders.remove( name );
+        writablePlaceholders().remove( name );
         return this;
     }
 
@@ -1014,7 +1165,7 @@ public class RESTCall
         // Loop through all names of the array and remove the corresponding
         // placeholder values from the map.
         for ( String name : names )
-            this.placeholders.remove( name );
+            writablePlaceholders().remove( name );
 
         return this;
     }
@@ -1027,6 +1178,7 @@ public class RESTCall
     public RESTCall removeAllPlaceholderValues()
     {
         this.placeholders = new HashMap<>();
+        invalidateUrl();
         return this;
     }
 
@@ -1037,7 +1189,7 @@ public class RESTCall
      */
     public boolean hasRequestBody()
     {
-        return this.requestBody != null;
+        return this.requestBody != null || this.binaryRequestBody != null;
     }
 
     /**
@@ -1051,6 +1203,7 @@ public class RESTCall
     public RESTCall setRequestBody( final String requestBody )
     {
         this.requestBody = requestBody;
+        this.binaryRequestBody = null;
         return this;
     }
 
@@ -1065,7 +1218,10 @@ public class RESTCall
     public RESTCall setRequestBody( Object requestBody )
     {
         if ( requestBody != null )
+        {
             this.requestBody = requestBody.toString();
+            this.binaryRequestBody = null;
+        }
 
         return this;
     }
@@ -1074,7 +1230,8 @@ public class RESTCall
      * Returns the request body of this REST call configuration. All placeholders in the body were replaced by their
      * corresponding values.
      *
-     * @return The request body of this REST call configuration. If no request body was set, <b>null</b> is returned.
+     * @return The request body of this REST call configuration. If no request body or a binary request body was set,
+     *         <b>null</b> is returned.
      */
     public String getRequestBody()
     {
@@ -1089,6 +1246,127 @@ public class RESTCall
     public RESTCall removeRequestBody()
     {
         this.requestBody = null;
+        this.binaryRequestBody = null;
+        return this;
+    }
+
+    /**
+     * Sets a binary request body. The array is sent as is without copying it and without replacing placeholders.
+     *
+     * @param requestBody
+     *         The body of the REST call. <b>null</b> removes the request body.
+     * @param contentType
+     *         The content type of the body, e.g. <b>application/octet-stream</b>.
+     *
+     * @return The updated RESTCall instance.
+     */
+    public RESTCall setRequestBody( final byte[] requestBody, final String contentType )
+    {
+        return setBinaryRequestBody( requestBody != null ? RequestBody.of( requestBody, contentType ) : null );
+    }
+
+    /**
+     * Sets a binary request body. The remaining bytes of the buffer are sent as is without copying them and without
+     * replacing placeholders. The position of the buffer is not changed.
+     *
+     * @param requestBody
+     *         The body of the REST call. <b>null</b> removes the request body.
+     * @param contentType
+     *         The content type of the body, e.g. <b>application/octet-stream</b>.
+     *
+     * @return The updated RESTCall instance.
+     */
+    public RESTCall setRequestBody( final ByteBuffer requestBody, final String contentType )
+    {
+        return setBinaryRequestBody( requestBody != null ? RequestBody.of( requestBody, contentType ) : null );
+    }
+
+    /**
+     * Sets a file as request body. The file is read every time the request is sent. The lean transport streams the file
+     * and the HTTP/2 transport maps it into memory. The default transport {@link RESTTransport#HTMLUNIT} reads it
+     * completely into a String, see {@link RESTTransport}.
+     *
+     * @param requestBody
+     *         The file that contains the body of the REST call. <b>null</b> removes the request body.
+     * @param contentType
+     *         The content type of the body, e.g. <b>application/octet-stream</b>.
+     *
+     * @return The updated RESTCall instance.
+     */
+    public RESTCall setRequestBody( final Path requestBody, final String contentType )
+    {
+        return setBinaryRequestBody( requestBody != null ? RequestBody.of( requestBody, contentType ) : null );
+    }
+
+    /**
+     * Sets a stream as request body. The supplier is asked for a new stream every time the request is sent and the
+     * stream is closed afterwards. The lean transport streams the body with chunked transfer encoding. The HTTP/2
+     * transport reads it completely into the heap and {@link RESTTransport#HTMLUNIT} into a String, see
+     * {@link RESTTransport}.
+     *
+     * @param requestBody
+     *         Supplies the body of the REST call. <b>null</b> removes the request body.
+     * @param contentType
+     *         The content type of the body, e.g. <b>application/octet-stream</b>.
+     *
+     * @return The updated RESTCall instance.
+     */
+    public RESTCall setRequestBody( final Supplier<InputStream> requestBody, final String contentType )
+    {
+        return setBinaryRequestBody( requestBody != null ? RequestBody.of( requestBody, contentType ) : null );
+    }
+
+    /**
+     * Serializes the given object into JSON and uses it as binary request body with the content type
+     * <b>application/json; charset=UTF-8</b>. The object is serialized with Jackson directly into bytes, i.e. without an
+     * intermediate String. The Jackson writer of each type is created once and shared by all test users.
+     *
+     * @param requestBody
+     *         The object to send as JSON. <b>null</b> removes the request body.
+     *
+     * @return The updated RESTCall instance.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the object can't be serialized.
+     */
+    public RESTCall setRequestBodyAsJson( final Object requestBody )
+    {
+        if ( requestBody == null )
+            return setBinaryRequestBody( null );
+
+        try
+        {
+            return setBinaryRequestBody( RequestBody.of( JsonMapping.toJson( requestBody ), JSON_CONTENT_TYPE ) );
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalArgumentException( "Could not serialize the request body of type '"
+                    + requestBody.getClass().getName() + "' as JSON.", e );
+        }
+    }
+
+    /**
+     * Returns the binary request body.
+     *
+     * @return The binary request body or <b>null</b> if there is none.
+     */
+    RequestBody getBinaryRequestBody()
+    {
+        return this.binaryRequestBody;
+    }
+
+    /**
+     * Replaces the request body with the given binary request body.
+     *
+     * @param requestBody
+     *         The binary request body. Can be <b>null</b>.
+     *
+     * @return The updated RESTCall instance.
+     */
+    private RESTCall setBinaryRequestBody( final RequestBody requestBody )
+    {
+        this.requestBody = null;
+        this.binaryRequestBody = requestBody;
         return this;
     }
 
@@ -1104,6 +1382,10 @@ public class RESTCall
     public RESTCall setBasicAuthCredentials( final BasicAuthCredentials credentials )
     {
         basicAuthCredentials = credentials;
+
+        // The caller keeps a reference and can change the credentials.
+        urlStateExposed = true;
+        invalidateUrl();
         return this;
     }
 
@@ -1114,6 +1396,7 @@ public class RESTCall
      */
     public BasicAuthCredentials getBasicAuthCredentials()
     {
+        exposeUrlState();
         return basicAuthCredentials;
     }
 
@@ -1128,8 +1411,34 @@ public class RESTCall
     public RESTCall process() throws Throwable
     {
         clearResponseCaches();
-        new XltRESTAction( this ).run();
-        processValidators();
+
+        if ( !phaseTimersEnabled )
+        {
+            new XltRESTAction( this ).run();
+            processValidators();
+        }
+        else
+        {
+            RESTCallPhases phases = new RESTCallPhases( getActionName() );
+            try
+            {
+                new XltRESTAction( this, phases ).run();
+
+                long start = RESTCallPhases.start();
+                try
+                {
+                    processValidators();
+                }
+                finally
+                {
+                    phases.stop( RESTCallPhases.VALIDATION, start );
+                }
+            }
+            finally
+            {
+                phases.log();
+            }
+        }
 
         // Cleanup single-use pre-processor
         preprocessor = null;
@@ -1182,6 +1491,7 @@ public class RESTCall
     public RESTCall post( final String requestBody ) throws Throwable
     {
         this.requestBody = requestBody;
+        this.binaryRequestBody = null;
         return post();
     }
 
@@ -1215,6 +1525,7 @@ public class RESTCall
     public RESTCall put( final String requestBody ) throws Throwable
     {
         this.requestBody = requestBody;
+        this.binaryRequestBody = null;
         return put();
     }
 
@@ -1248,6 +1559,7 @@ public class RESTCall
     public RESTCall patch( final String requestBody ) throws Throwable
     {
         this.requestBody = requestBody;
+        this.binaryRequestBody = null;
         return patch();
     }
 
@@ -1312,128 +1624,456 @@ public class RESTCall
     }
 
     /**
-     * Enables or disables default validation.
-     *
-     * @param enabled
-     *         <b>true</b> enables default validation, <b>false</b> turns it off.
+     * Makes the call like {@link #process()} but doesn't wait for the response. The call is performed on a bounded
+     * executor of the current test user, see <b>com.xceptance.xrt.async.threads</b>. The action timer is recorded and
+     * the default validation runs before the returned future completes. If the call or the validation fails, the
+     * future completes exceptionally.
+     * <p>
+     * The REST call must not be changed until the future has completed. Each executor thread uses its own web client
+     * and previous action, i.e. cookies of the calling test user are not shared. A pre-processor that is reused for the
+     * whole test case is used by the executor thread for this call only and needs to be thread-safe because it is
+     * shared by all concurrent calls. The pre-processor settings of this call and of the test case are not changed.
+     * </p>
+     * <p>
+     * All calls share the XLT session of the test user, which is not built for concurrent actions. The action timer of
+     * each call is recorded, but requests and errors may be attributed to another action that runs at the same time.
+     * Use {@link #process()} where that attribution matters, e.g. in the result browser.
+     * </p>
      *
-     * @return The updated RESTCall instance.
+     * @return The future that completes with this RESTCall instance.
      */
-    public RESTCall defaultValidation( final boolean enabled )
+    public CompletableFuture<RESTCall> processAsync()
     {
-        this.enableDefaultValidation = enabled;
-
-        return this;
+        return SessionContext.getCurrent().submit( this );
     }
 
     /**
-     * Allows to enable/disable default validation for the specified resource definition individually. In contrast to
-     * {@link RESTCall#setDefinitionClass(Class, boolean)} this method does not apply the settings of the REST
-     * definition class.
+     * This method is similar to {@link #processAsync()}. It overrides the setting for the HTTP method with GET and
+     * performs the call asynchronously.
      *
-     * @param resourceDef
-     *         The class that provides default values for a REST resource.
-     * @param enableDefaultValidation
-     *         Should be <b>true</b> to enable default validation for this resource explicitly or <b>false</b> to
-     *         disable this resource.
-     *
-     * @return The updated RESTCall instance.
+     * @return The future that completes with this RESTCall instance.
      */
-    public RESTCall defaultValidation( final Class<?> resourceDef, final boolean enableDefaultValidation )
+    public CompletableFuture<RESTCall> getAsync()
     {
-        if ( enableDefaultValidation )
-            readValidator( resourceDef );
-        else
-            removeValidator( resourceDef );
-
-        return this;
+        this.httpMethod = HttpMethod.GET;
+        return processAsync();
     }
 
     /**
-     * Returns whether default validation is enabled or not.
+     * This method is similar to {@link #processAsync()}. It overrides the setting for the HTTP method with POST and
+     * performs the call asynchronously.
      *
-     * @return <b>true</b> if default validation is enabled, <b>false</b> if not.
+     * @return The future that completes with this RESTCall instance.
      */
-    public boolean isDefaultValidationEnabled()
+    public CompletableFuture<RESTCall> postAsync()
     {
-        return this.enableDefaultValidation;
+        this.httpMethod = HttpMethod.POST;
+        return processAsync();
     }
 
     /**
-     * Allows to set a pre-processor for a single call or for the rest of the test case. This method can also be used to
-     * override existing settings. <b>null</b> as value for the pre-processor is allowed and clears an existing
-     * pre-processor.
+     * This method is similar to {@link #processAsync()}. It overrides the setting for the HTTP method with POST, sets
+     * the request body, and performs the call asynchronously.
      *
-     * @param preprocessor
-     *         The pre-processor instance used for pre-processing.
-     * @param reuse
-     *         Should be <b>true</b> if the pre-processor should be used in the whole test case, <b>false</b> if not.
+     * @param requestBody
+     *         The request body used in the REST call.
      *
-     * @return The updated RESTCall instance.
+     * @return The future that completes with this RESTCall instance.
      */
-    public RESTCall setPreprocessor( final PreProcessible preprocessor, boolean reuse )
+    public CompletableFuture<RESTCall> postAsync( final String requestBody )
     {
-        if ( reuse )
-        {
-            preprocessorReuse.set( preprocessor );
-            this.preprocessor = null;
-        } else
-        {
-            this.preprocessor = preprocessor;
-            preprocessorReuse.remove();
-        }
-
-        return this;
+        this.requestBody = requestBody;
+        this.binaryRequestBody = null;
+        return postAsync();
     }
 
     /**
-     * Returns the currently configured pre-processor. Depending on the previous settings that can be the reuseable
-     * pre-processor or the one configured for this single call.
+     * This method is similar to {@link #processAsync()}. It overrides the setting for the HTTP method with PUT and
+     * performs the call asynchronously.
      *
-     * @return The configured pre-processor instance. Can be <b>null</b> if no pre-processor is configured.
+     * @return The future that completes with this RESTCall instance.
      */
-    public PreProcessible getPreprocessor()
+    public CompletableFuture<RESTCall> putAsync()
     {
-        if ( preprocessor != null )
-            return preprocessor;
-
-        if ( preprocessorReuse.get() != null )
-            return preprocessorReuse.get();
-
-        return null;
+        this.httpMethod = HttpMethod.PUT;
+        return processAsync();
     }
 
-    /****************************************************************************************
-     ************************ Public Methods - Response Handling ****************************
-     ****************************************************************************************/
-
     /**
-     * Sets the response of this REST call. When performing the configured REST call ( {@link #process() }) the REST
-     * response is set automatically.
+     * This method is similar to {@link #processAsync()}. It overrides the setting for the HTTP method with PUT, sets
+     * the request body, and performs the call asynchronously.
      *
-     * @param response
-     *         The response of the REST call.
+     * @param requestBody
+     *         The request body used in the REST call.
+     *
+     * @return The future that completes with this RESTCall instance.
      */
-    void setRESTResponse( WebResponse response )
+    public CompletableFuture<RESTCall> putAsync( final String requestBody )
     {
-        this.response = response;
+        this.requestBody = requestBody;
+        this.binaryRequestBody = null;
+        return putAsync();
     }
 
     /**
-     * Returns the response object. The REST call must be performed before this method can return a body. Otherwise a
-     * {@link RESTCallNotYetPerformedException} is thrown.
+     * This method is similar to {@link #processAsync()}. It overrides the setting for the HTTP method with PATCH and
+     * performs the call asynchronously.
      *
-     * @return The plain response object.
+     * @return The future that completes with this RESTCall instance.
      */
-    public WebResponse getRESTResponse()
+    public CompletableFuture<RESTCall> patchAsync()
     {
-        checkRESTCallPerformed( "getRESTResponse()" );
+        this.httpMethod = HttpMethod.PATCH;
+        return processAsync();
+    }
+
+    /**
+     * This method is similar to {@link #processAsync()}. It overrides the setting for the HTTP method with PATCH, sets
+     * the request body, and performs the call asynchronously.
+     *
+     * @param requestBody
+     *         The request body used in the REST call.
+     *
+     * @return The future that completes with this RESTCall instance.
+     */
+    public CompletableFuture<RESTCall> patchAsync( final String requestBody )
+    {
+        this.requestBody = requestBody;
+        this.binaryRequestBody = null;
+        return patchAsync();
+    }
+
+    /**
+     * This method is similar to {@link #processAsync()}. It overrides the setting for the HTTP method with DELETE and
+     * performs the call asynchronously.
+     *
+     * @return The future that completes with this RESTCall instance.
+     */
+    public CompletableFuture<RESTCall> deleteAsync()
+    {
+        this.httpMethod = HttpMethod.DELETE;
+        return processAsync();
+    }
+
+    /**
+     * This method is similar to {@link #processAsync()}. It overrides the setting for the HTTP method with HEAD and
+     * performs the call asynchronously.
+     *
+     * @return The future that completes with this RESTCall instance.
+     */
+    public CompletableFuture<RESTCall> headAsync()
+    {
+        this.httpMethod = HttpMethod.HEAD;
+        return processAsync();
+    }
+
+    /**
+     * This method is similar to {@link #processAsync()}. It overrides the setting for the HTTP method with OPTIONS and
+     * performs the call asynchronously.
+     *
+     * @return The future that completes with this RESTCall instance.
+     */
+    public CompletableFuture<RESTCall> optionsAsync()
+    {
+        this.httpMethod = HttpMethod.OPTIONS;
+        return processAsync();
+    }
+
+    /**
+     * This method is similar to {@link #processAsync()}. It overrides the setting for the HTTP method with TRACE and
+     * performs the call asynchronously.
+     *
+     * @return The future that completes with this RESTCall instance.
+     */
+    public CompletableFuture<RESTCall> traceAsync()
+    {
+        this.httpMethod = HttpMethod.TRACE;
+        return processAsync();
+    }
+
+    /**
+     * Enables or disables default validation.
+     *
+     * @param enabled
+     *         <b>true</b> enables default validation, <b>false</b> turns it off.
+     *
+     * @return The updated RESTCall instance.
+     */
+    public RESTCall defaultValidation( final boolean enabled )
+    {
+        this.enableDefaultValidation = enabled;
+
+        return this;
+    }
+
+    /**
+     * Allows to enable/disable default validation for the specified resource definition individually. In contrast to
+     * {@link RESTCall#setDefinitionClass(Class, boolean)} this method does not apply the settings of the REST
+     * definition class.
+     *
+     * @param resourceDef
+     *         The class that provides default values for a REST resource.
+     * @param enableDefaultValidation
+     *         Should be <b>true</b> to enable default validation for this resource explicitly or <b>false</b> to
+     *         disable this resource.
+     *
+     * @return The updated RESTCall instance.
+     */
+    public RESTCall defaultValidation( final Class<?> resourceDef, final boolean enableDefaultValidation )
+    {
+        if ( enableDefaultValidation )
+            readValidator( resourceDef );
+        else
+            removeValidator( resourceDef );
+
+        return this;
+    }
+
+    /**
+     * Returns whether default validation is enabled or not.
+     *
+     * @return <b>true</b> if default validation is enabled, <b>false</b> if not.
+     */
+    public boolean isDefaultValidationEnabled()
+    {
+        return this.enableDefaultValidation;
+    }
+
+    /**
+     * Allows to set a pre-processor for a single call or for the rest of the test case. This method can also be used to
+     * override existing settings. <b>null</b> as value for the pre-processor is allowed and clears an existing
+     * pre-processor.
+     *
+     * @param preprocessor
+     *         The pre-processor instance used for pre-processing.
+     * @param reuse
+     *         Should be <b>true</b> if the pre-processor should be used in the whole test case, <b>false</b> if not.
+     *
+     * @return The updated RESTCall instance.
+     */
+    public RESTCall setPreprocessor( final PreProcessible preprocessor, boolean reuse )
+    {
+        if ( reuse )
+        {
+            SessionContext.getCurrent().reusablePreprocessor = preprocessor;
+            this.preprocessor = null;
+        } else
+        {
+            this.preprocessor = preprocessor;
+            SessionContext.getCurrent().reusablePreprocessor = null;
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns the currently configured pre-processor. Depending on the previous settings that can be the reuseable
+     * pre-processor or the one configured for this single call.
+     *
+     * @return The configured pre-processor instance. Can be <b>null</b> if no pre-processor is configured.
+     */
+    public PreProcessible getPreprocessor()
+    {
+        if ( preprocessor != null )
+            return preprocessor;
+
+        return SessionContext.getCurrent().reusablePreprocessor;
+    }
+
+    /**
+     * Sets the transport that sends the request of this REST call, e.g. {@link RESTTransport#LEAN}. Overrides the
+     * global setting <b>com.xceptance.xrt.transport</b>.
+     *
+     * @param transport
+     *         The transport. <b>null</b> restores the default {@link RESTTransport#HTMLUNIT}.
+     *
+     * @return The updated RESTCall instance.
+     */
+    public RESTCall setTransport( final RESTTransport transport )
+    {
+        this.transport = transport != null ? transport : RESTTransport.HTMLUNIT;
+
+        return this;
+    }
+
+    /**
+     * Returns the transport that sends the request of this REST call.
+     *
+     * @return The transport. Never <b>null</b>.
+     */
+    public RESTTransport getTransport()
+    {
+        return transport;
+    }
+
+    /**
+     * Enables or disables the custom timers for the phases of this REST call, i.e. pre-processing, preparing the
+     * request, transport, wrapping the response into a page, and validation. Overrides the global setting
+     * <b>com.xceptance.xrt.phaseTimers.enabled</b>.
+     *
+     * @param enabled
+     *         <b>true</b> to log a custom timer per phase.
+     *
+     * @return The updated RESTCall instance.
+     */
+    public RESTCall setPhaseTimersEnabled( final boolean enabled )
+    {
+        this.phaseTimersEnabled = enabled;
+
+        return this;
+    }
+
+    /**
+     * Returns whether the phases of this REST call are logged as custom timers.
+     *
+     * @return <b>true</b> if phase timers are enabled.
+     */
+    public boolean isPhaseTimersEnabled()
+    {
+        return phaseTimersEnabled;
+    }
+
+    /****************************************************************************************
+     ************************ Public Methods - Batch Processing *****************************
+     ****************************************************************************************/
+
+    /**
+     * Performs all given REST calls with at most <b>maxConcurrency</b> calls at the same time and waits until all of
+     * them are done. Every call is performed like {@link #processAsync()}, i.e. it records its own action timer and
+     * runs its own default validation. The calls run on the executor of asynchronous REST calls, so the number of
+     * calls performed at the same time is also limited by <b>com.xceptance.xrt.async.threads</b>.
+     * <p>
+     * The runtime of the whole batch is recorded as custom timer named after the action of the first call with the
+     * suffix <b>(batch)</b>. If a call fails, no further calls are started. The calls already running are finished
+     * and the first error is thrown.
+     * </p>
+     *
+     * @param calls
+     *         The REST calls to perform.
+     * @param maxConcurrency
+     *         The maximum number of calls performed at the same time. Must be at least 1.
+     *
+     * @return The performed REST calls in the order of the given collection.
+     *
+     * @throws Throwable
+     *         The first error that occurred during processing of the REST calls.
+     */
+    public static List<RESTCall> processAll( final Collection<RESTCall> calls, final int maxConcurrency )
+        throws Throwable
+    {
+        if ( maxConcurrency < 1 )
+            throw new IllegalArgumentException( "The maximum concurrency must be at least 1 but was " + maxConcurrency );
+
+        final List<RESTCall> batch = new ArrayList<>( calls );
+        if ( batch.isEmpty() )
+            return batch;
+
+        CustomData timer = new CustomData( batch.get( 0 ).getActionName() + " (batch)" );
+
+        final Semaphore permits = new Semaphore( maxConcurrency );
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<RESTCall>> futures = new ArrayList<>( batch.size() );
+        for ( RESTCall call : batch )
+        {
+            permits.acquire();
+            if ( failure.get() != null )
+                break;
+
+            CompletableFuture<RESTCall> future = call.processAsync();
+            futures.add( future );
+            future.whenComplete( ( result, error ) -> {
+                if ( error != null )
+                    failure.compareAndSet( null, error );
+
+                permits.release();
+            } );
+        }
+
+        // Wait for the calls that are still running.
+        for ( CompletableFuture<RESTCall> future : futures )
+        {
+            try
+            {
+                future.join();
+            }
+            catch ( CompletionException e )
+            {
+                // Already recorded as failure.
+            }
+        }
+
+        timer.setRunTime();
+        timer.setFailed( failure.get() != null );
+        Session.getCurrent().getDataManager().logDataRecord( timer );
+
+        if ( failure.get() != null )
+            throw failure.get();
+
+        return batch;
+    }
+
+    /**
+     * Performs this REST call once for every given value of a placeholder, e.g. for a list of product ids. Every call
+     * starts with the current configuration of this REST call. This REST call itself is not performed. See {@link
+     * #processAll(Collection, int)} for details.
+     *
+     * @param placeholder
+     *         The name of the placeholder, e.g. <b>id</b>.
+     * @param values
+     *         The values of the placeholder. One REST call is performed per value.
+     * @param maxConcurrency
+     *         The maximum number of calls performed at the same time. Must be at least 1.
+     *
+     * @return The performed REST calls in the order of the given values.
+     *
+     * @throws Throwable
+     *         The first error that occurred during processing of the REST calls.
+     */
+    public List<RESTCall> processAll( final String placeholder, final Collection<String> values,
+                                      final int maxConcurrency ) throws Throwable
+    {
+        RESTCallTemplate template = new RESTCallTemplate( this );
+
+        List<RESTCall> calls = new ArrayList<>( values.size() );
+        for ( String value : values )
+            calls.add( template.fork().addPlaceholderValue( placeholder, value ) );
+
+        return processAll( calls, maxConcurrency );
+    }
+
+    /****************************************************************************************
+     ************************ Public Methods - Response Handling ****************************
+     ****************************************************************************************/
+
+    /**
+     * Sets the response of this REST call. When performing the configured REST call ( {@link #process() }) the REST
+     * response is set automatically.
+     *
+     * @param response
+     *         The response of the REST call.
+     */
+    void setRESTResponse( WebResponse response )
+    {
+        this.response = response;
+    }
+
+    /**
+     * Returns the response object. The REST call must be performed before this method can return a body. Otherwise a
+     * {@link RESTCallNotYetPerformedException} is thrown.
+     *
+     * @return The plain response object.
+     */
+    public WebResponse getRESTResponse()
+    {
+        checkRESTCallPerformed( "getRESTResponse()" );
 
         return response;
     }
 
     /**
-     * Returns the response body as String. The REST call must be performed before this method can return a body.
+     * Returns the response body as String. The body is decoded when this method is called the first time and cached
+     * for further calls. Use {@link #getResponseBodyAsStream()} or {@link #getResponseBodyAsReader()} to process large
+     * bodies without holding them as String. The REST call must be performed before this method can return a body.
      * Otherwise a {@link RESTCallNotYetPerformedException} is thrown.
      *
      * @return The response body as String.
@@ -1446,20 +2086,137 @@ public class RESTCall
         if ( responseContent == null )
             this.responseContent = this.response.getContentAsString();
 
-        return this.responseContent;
+        return this.responseContent;
+    }
+
+    /**
+     * Returns the response body as a stream of bytes. The body is not converted into a String, which makes this method
+     * the preferred way to process large responses. Every call returns a new stream that starts at the beginning of the
+     * body. The caller is responsible for closing the stream. The REST call must be performed before this method can
+     * return a body. Otherwise a {@link RESTCallNotYetPerformedException} is thrown.
+     *
+     * @return The response body as stream.
+     *
+     * @throws IOException
+     *         Thrown if the response body cannot be read.
+     */
+    public InputStream getResponseBodyAsStream() throws IOException
+    {
+        checkRESTCallPerformed( "getResponseBodyAsStream()" );
+
+        return this.response.getContentAsStream();
+    }
+
+    /**
+     * Returns the response body as a stream of characters. The body is decoded on the fly with the charset of the
+     * response and not converted into a String. Every call returns a new reader that starts at the beginning of the
+     * body. The caller is responsible for closing the reader. The REST call must be performed before this method can
+     * return a body. Otherwise a {@link RESTCallNotYetPerformedException} is thrown.
+     *
+     * @return The response body as reader.
+     *
+     * @throws IOException
+     *         Thrown if the response body cannot be read.
+     */
+    public Reader getResponseBodyAsReader() throws IOException
+    {
+        checkRESTCallPerformed( "getResponseBodyAsReader()" );
+
+        return new InputStreamReader( this.response.getContentAsStream(), this.response.getContentCharset() );
+    }
+
+    /**
+     * Returns the length of the response body in bytes without reading the body. The REST call must be performed
+     * before this method can return a length. Otherwise a {@link RESTCallNotYetPerformedException} is thrown.
+     *
+     * @return The length of the response body in bytes.
+     */
+    public long getResponseBodyLength()
+    {
+        checkRESTCallPerformed( "getResponseBodyLength()" );
+
+        return this.response.getContentLength();
+    }
+
+    /**
+     * Returns the response body as {@link com.xceptance.xrt.document.JSON JSON} . The REST call must be performed
+     * before this method can return a body. Otherwise a {@link RESTCallNotYetPerformedException} is thrown.
+     *
+     * @return The response body as JSON. The same instance is returned for the same response.
+     */
+    public JSON getResponseBodyAsJSON()
+    {
+        checkRESTCallPerformed( "getResponseBodyAsJSON()" );
+
+        if ( responseJSON == null )
+            this.responseJSON = new JSON( getResponseBodyAsString() );
+
+        return this.responseJSON;
+    }
+
+    /**
+     * Returns the response body as {@link com.xceptance.xrt.document.StreamingJSON StreamingJSON}. The body is not
+     * parsed into a tree but streamed for every evaluation, which keeps the memory footprint small for huge bodies.
+     * The REST call must be performed before this method can return a body. Otherwise a
+     * {@link RESTCallNotYetPerformedException} is thrown.
+     *
+     * @return The response body as streamed JSON.
+     */
+    public StreamingJSON getResponseBodyAsStreamingJSON()
+    {
+        checkRESTCallPerformed( "getResponseBodyAsStreamingJSON()" );
+
+        final WebResponse response = this.response;
+        return new StreamingJSON( new StreamingJSON.Source()
+        {
+            @Override
+            public InputStream open() throws IOException
+            {
+                return response.getContentAsStream();
+            }
+        }, response.getContentCharsetOrNull() );
+    }
+
+    /**
+     * Binds the JSON response body to the given type with Jackson. The body is read from the response bytes without
+     * converting it into a String or a document tree first. The Jackson reader of each type is created once and shared
+     * by all test users. The REST call must be performed before this method can return a body. Otherwise a
+     * {@link RESTCallNotYetPerformedException} is thrown.
+     *
+     * @param type
+     *         The type to bind the body to, e.g. <b>Product.class</b>.
+     *
+     * @return A new instance of the type with the values of the body.
+     *
+     * @throws IOException
+     *         Thrown if the response body cannot be read or does not match the type.
+     */
+    public <T> T getResponseBodyAs( final Class<T> type ) throws IOException
+    {
+        checkRESTCallPerformed( "getResponseBodyAs(Class)" );
+
+        return JsonMapping.fromJson( response.getContentAsStream(), response.getContentCharsetOrNull(),
+                                     JsonMapping.reader( type ) );
     }
 
     /**
-     * Returns the response body as {@link com.xceptance.xrt.document.JSON JSON} . The REST call must be performed
-     * before this method can return a body. Otherwise a {@link RESTCallNotYetPerformedException} is thrown.
+     * Binds the JSON response body to the given generic type with Jackson, e.g.
+     * <b>new TypeReference&lt;List&lt;Product&gt;&gt;() {}</b>. Works like {@link #getResponseBodyAs(Class)}.
      *
-     * @return The response body as String.
+     * @param type
+     *         The generic type to bind the body to.
+     *
+     * @return A new instance of the type with the values of the body.
+     *
+     * @throws IOException
+     *         Thrown if the response body cannot be read or does not match the type.
      */
-    public JSON getResponseBodyAsJSON()
+    public <T> T getResponseBodyAs( final TypeReference<T> type ) throws IOException
     {
-        checkRESTCallPerformed( "getResponseBodyAsJSON()" );
+        checkRESTCallPerformed( "getResponseBodyAs(TypeReference)" );
 
-        return new JSON( getResponseBodyAsString() );
+        return JsonMapping.fromJson( response.getContentAsStream(), response.getContentCharsetOrNull(),
+                                     JsonMapping.reader( type ) );
     }
 
     /**
@@ -1581,344 +2338,330 @@ public class RESTCall
      */
     private void init()
     {
-        // Register listener to delete previous action when session dies
-        if ( getPreviousAction() == null )
-        {
-            Session.getCurrent().addShutdownListener( new SessionShutdownListener()
-            {
-                @Override
-                public void shutdown()
-                {
-                    // cleanup previous action for new test case
-                    setPreviousAction( null );
-
-                    // cleanup reusable preprocessor
-                    preprocessorReuse.remove();
-                }
-            } );
-        }
-
         readGlobalSettings();
     }
 
     /**
-     * Reads the global settings and applies them.
+     * Creates the frozen prototype of a {@link RESTCallTemplate}.
+     *
+     * @param call
+     *         The configured REST call.
+     *
+     * @return The frozen copy of the REST call.
      */
-    private void readGlobalSettings()
+    static RESTCall freeze( final RESTCall call )
     {
-        // Read regular global settings
-        XltProperties globSettings = XltProperties.getInstance();
+        return new RESTCall( call, true );
+    }
 
-        setHostName( globSettings.getProperty( "com.xceptance.xrt.host", this.hostName ) );
-        setProtocol( globSettings.getProperty( "com.xceptance.xrt.protocol", this.protocol ) );
-        setPort( globSettings.getProperty( "com.xceptance.xrt.port", this.port ) );
-        setBasePath( globSettings.getProperty( "com.xceptance.xrt.basePath", this.basePath ) );
-        setResourcePath( globSettings.getProperty( "com.xceptance.xrt.resourcePath", this.resourcePath ) );
-        setFragment( globSettings.getProperty( "com.xceptance.xrt.fragment", this.fragment ) );
-        defaultValidation( globSettings.getProperty( "com.xceptance.xrt.defaultValidation.enabled",
-                this.enableDefaultValidation ) );
+    /**
+     * Creates a new REST call that shares the configuration of the given prototype.
+     *
+     * @param prototype
+     *         The frozen prototype of a {@link RESTCallTemplate}.
+     *
+     * @return The forked REST call.
+     */
+    static RESTCall fork( final RESTCall prototype )
+    {
+        return new RESTCall( prototype, false );
+    }
 
-        // Try to instantiate preprocessor via global settings
-        if ( preprocessorReuse.get() == null )
+    /**
+     * Returns the validators of a fork. Stateless validators are shared, all others are created again for the fork.
+     *
+     * @param validators
+     *         The validators of the prototype.
+     *
+     * @return The validators of the prototype if all of them are stateless, a new list otherwise.
+     */
+    private static List<AutoValidatable> forkValidators( final List<AutoValidatable> validators )
+    {
+        List<AutoValidatable> forked = new ArrayList<>( validators.size() );
+        boolean shared = true;
+        for ( AutoValidatable validator : validators )
         {
-            String preProcessorClassName = globSettings.getProperty( "com.xceptance.xrt.preprocess.class" );
-            boolean reusePreprocessor = globSettings.getProperty( "com.xceptance.xrt.preprocess.reuseInstance", false );
-            instantiatePreprocessor( preProcessorClassName, reusePreprocessor );
+            try
+            {
+                AutoValidatable forkedValidator = ResourceDescriptor.forClass( validator.getClass() ).newValidator();
+                forked.add( forkedValidator );
+                shared &= forkedValidator == validator;
+            } catch ( Exception e )
+            {
+                XltLogger.runTimeLogger.error( "Default validation failed!\n" + e.toString() );
+                shared = false;
+            }
         }
 
-        // Read settings that contain a list of key-value pairs.
-        readGlobalListProperty( "com.xceptance.xrt.queryParams", this.queryParams );
-        readGlobalMultiSingleProperties( "com.xceptance.xrt.queryParam.", this.queryParams );
-        readGlobalListProperty( "com.xceptance.xrt.http.headers", this.httpHeaders );
-        readGlobalMultiSingleProperties( "com.xceptance.xrt.http.header.", this.httpHeaders );
-        readGlobalListProperty( "com.xceptance.xrt.placeholders", this.placeholders );
-        readGlobalMultiSingleProperties( "com.xceptance.xrt.placeholder.", this.placeholders );
-
-        // Read the HTTP method property
-        String httpMethod = globSettings.getProperty( "com.xceptance.xrt.http.method" );
-        if ( httpMethod == null )
-            return;
-
-        httpMethod = httpMethod.toLowerCase();
-        switch ( httpMethod )
-        {
-            case "get":
-                setHttpMethod( HttpMethod.GET );
-                break;
-            case "post":
-                setHttpMethod( HttpMethod.POST );
-                break;
-            case "put":
-                setHttpMethod( HttpMethod.PUT );
-                break;
-            case "delete":
-                setHttpMethod( HttpMethod.DELETE );
-                break;
-            case "head":
-                setHttpMethod( HttpMethod.HEAD );
-                break;
-            case "options":
-                setHttpMethod( HttpMethod.OPTIONS );
-                break;
-            case "trace":
-                setHttpMethod( HttpMethod.TRACE );
-                break;
-            case "patch":
-                setHttpMethod( HttpMethod.PATCH );
-                break;
-        }
+        return shared ? validators : forked;
     }
 
-    private void readGlobalMultiSingleProperties( final String keyFragment, Map<String, String> propertyMap )
+    /**
+     * Returns the single-use pre-processor of a fork. A new instance of the class of the prototype's pre-processor is
+     * created. A pre-processor without public no-args constructor can't be created again and is shared.
+     *
+     * @param preprocessor
+     *         The single-use pre-processor of the prototype. Can be <b>null</b>.
+     *
+     * @return The pre-processor of the fork or <b>null</b> if the prototype has none.
+     */
+    private static PreProcessible forkPreprocessor( final PreProcessible preprocessor )
     {
-        propertyMap.putAll( XltProperties.getInstance().getPropertiesForKey( keyFragment ) );
+        if ( preprocessor == null )
+            return null;
+
+        PreprocessorFactory factory = PreprocessorFactory.forClass( preprocessor.getClass() );
+
+        return factory.isAvailable() ? factory.newInstance() : preprocessor;
     }
 
     /**
-     * Reads the global settings of a property that contains a list of key-value pairs and stores them in the
-     * corresponding map.
+     * Returns the query parameters for modification. Query parameters shared with the prototype are copied first.
      *
-     * @param key
-     *         The identifier of the property in the global settings.
-     * @param propertyMap
-     *         The map that needs to be filled with the key-value pairs of the property.
+     * @return The modifiable query parameters of this call.
      */
-    private void readGlobalListProperty( final String key, Map<String, String> propertyMap )
+    private Map<String, String> writableQueryParams()
     {
-        String list = XltProperties.getInstance().getProperty( key );
+        if ( prototype != null && queryParams == prototype.queryParams )
+            queryParams = new HashMap<>( queryParams );
 
-        // if no value was found for that property, skip next steps
-        if ( list == null )
-            return;
+        invalidateUrl();
+        return queryParams;
+    }
 
-        // Get all key-value pairs and iterate through them.
-        String[] valPairArray = list.split( "," );
-        for ( String pairString : valPairArray )
-        {
-            // Separate key from value and check if both are valid.
-            String[] keyValueArray = pairString.split( ":" );
-            if ( keyValueArray.length != 2 || keyValueArray[0].isEmpty() || keyValueArray[1].isEmpty() )
-                continue;
+    /**
+     * Drops the cached Url. Must be called whenever a part of the Url changes.
+     */
+    private void invalidateUrl()
+    {
+        resolvedUrl = null;
+    }
 
-            // Add the key value pair to the property map.
-            propertyMap.put( keyValueArray[0].trim(), keyValueArray[1].trim() );
+    /**
+     * Marks the query parameters, placeholder values, and credentials as handed out. From now on the cached Url is
+     * verified against them because they can be changed without notice.
+     */
+    private void exposeUrlState()
+    {
+        if ( !urlStateExposed )
+        {
+            urlStateExposed = true;
+            invalidateUrl();
         }
     }
 
     /**
-     * Tries to instantiate a class that implements the interface {@link PreProcessible} with the given class name.
-     * Occurring errors are caught and printed as warnings.
-     *
-     * @param className
-     *         The name of the class that is supposed to be instantiated.
-     * @param reuseInstance
-     *         Should be <b>true</b> if the pre-processor should be used in the whole test case, <b>false</b> if not.
+     * Returns the HTTP headers for modification. HTTP headers shared with the prototype are copied first.
      *
-     * @return <b>true</b> if the instantiation was successful, <b>false</b> if not.
+     * @return The modifiable HTTP headers of this call.
      */
-    private boolean instantiatePreprocessor( String className, boolean reuseInstance )
+    private Map<String, String> writableHttpHeaders()
     {
-        if ( className == null )
-            return false;
+        if ( prototype != null && httpHeaders == prototype.httpHeaders )
+            httpHeaders = new HashMap<>( httpHeaders );
 
-        try
-        {
-            Object object = Class.forName( className ).newInstance();
-            if ( object instanceof PreProcessible )
-            {
-                setPreprocessor( ( PreProcessible ) object, reuseInstance );
-                return true;
-            } else
-                XltLogger.runTimeLogger.warn( "Class '" + className + "' is not of type 'com.xceptance.xrt.PreProcessible'. " +
-                        "Ignoring global property." );
-
-        } catch ( InstantiationException | IllegalAccessException e )
-        {
-            XltLogger.runTimeLogger.warn( "Could not instantiate class: '" + className + "'. Please check if there's a " +
-                    "public no-args constructor. Ignoring global property." );
-        } catch ( ClassNotFoundException e )
-        {
-            XltLogger.runTimeLogger.warn( "Could not find class in classpath: '" + className + "'. Ignoring global property." );
-        }
-
-        return false;
+        return httpHeaders;
     }
 
     /**
-     * Reads the Url settings from the resource definition class and applies them.
+     * Returns the placeholder values for modification. Placeholder values shared with the prototype are copied first.
      *
-     * @param resourceDef
-     *         A class that has the annotation {@link ResourceDefinition}.
+     * @return The modifiable placeholder values of this call.
      */
-    private void readResourceDefinition( final Class<?> resourceDef )
+    private Map<String, String> writablePlaceholders()
     {
-        ResourceDefinition def = resourceDef.getAnnotation( ResourceDefinition.class );
-
-        // If there is no annotation stop processing.
-        if ( def == null )
-            return;
+        if ( prototype != null && placeholders == prototype.placeholders )
+            placeholders = new HashMap<>( placeholders );
 
-        // Read all properties of the definition
-        // Do not override setting with default values of
-        // ResourceDefinition.class
-        setUrl( def.baseUrl() );
+        invalidateUrl();
+        return placeholders;
+    }
 
-        if ( !def.protocol().isEmpty() )
-            setProtocol( def.protocol() );
+    /**
+     * Returns the default validators for modification. Validators shared with the prototype are copied first.
+     *
+     * @return The modifiable default validators of this call.
+     */
+    private List<AutoValidatable> writableDefaultValidators()
+    {
+        if ( prototype != null && defaultValidators == prototype.defaultValidators )
+            defaultValidators = new ArrayList<>( defaultValidators );
 
-        if ( def.port() > 0 )
-            setPort( def.port() );
+        return defaultValidators;
+    }
 
-        if ( !def.basePath().isEmpty() )
-            setBasePath( def.basePath() );
+    /**
+     * Applies the global settings. The settings are taken from the current {@link GlobalSettings} snapshot instead of
+     * reading the properties again.
+     */
+    private void readGlobalSettings()
+    {
+        GlobalSettings globSettings = GlobalSettings.getCurrent();
 
-        if ( !def.resourcePath().isEmpty() )
-            setResourcePath( def.resourcePath() );
+        this.hostName = globSettings.hostName;
+        this.protocol = globSettings.protocol;
+        this.port = globSettings.port;
+        this.basePath = globSettings.basePath;
+        this.resourcePath = globSettings.resourcePath;
+        this.fragment = globSettings.fragment;
+        this.enableDefaultValidation = globSettings.defaultValidationEnabled;
 
-        for ( QueryParameter param : def.queryParams() )
-        {
-            addQueryParam( param.name(), param.value() );
-        }
+        // Try to instantiate preprocessor via global settings
+        if ( SessionContext.getCurrent().reusablePreprocessor == null )
+            instantiatePreprocessor( globSettings.preprocessorClassName, globSettings.reusePreprocessor );
 
-        if ( !def.fragment().isEmpty() )
-            setFragment( def.fragment() );
+        // Copy settings that contain a list of key-value pairs.
+        this.queryParams.putAll( globSettings.queryParams );
+        this.httpHeaders.putAll( globSettings.httpHeaders );
+        this.placeholders.putAll( globSettings.placeholders );
 
-        if ( !def.actionName().isEmpty() )
-            setActionName( def.actionName() );
+        this.httpMethod = globSettings.httpMethod;
+        this.transport = globSettings.transport;
+        this.phaseTimersEnabled = globSettings.phaseTimersEnabled;
     }
 
     /**
-     * Reads the HTTP method settings from the resource definition class and applies them.
+     * Tries to instantiate a class that implements the interface {@link PreProcessible} with the given class name.
+     * Occurring errors are printed as warnings once per class name, see {@link PreprocessorFactory}.
      *
-     * @param resourceDef
-     *         A class that has the annotation {@link HttpMethodDefinition}.
+     * @param className
+     *         The name of the class that is supposed to be instantiated.
+     * @param reuseInstance
+     *         Should be <b>true</b> if the pre-processor should be used in the whole test case, <b>false</b> if not.
+     *
+     * @return <b>true</b> if the instantiation was successful, <b>false</b> if not.
      */
-    private void readHttpMethodDefinition( final Class<?> resourceDef )
+    private boolean instantiatePreprocessor( String className, boolean reuseInstance )
     {
-        HttpMethodDefinition def = resourceDef.getAnnotation( HttpMethodDefinition.class );
-
-        // If there is no annotation stop processing.
-        if ( def == null )
-            return;
+        if ( className == null )
+            return false;
 
-        this.httpMethod = def.value();
+        return instantiatePreprocessor( PreprocessorFactory.forName( className ), reuseInstance );
     }
 
     /**
-     * Reads the HTTP header settings from the resource definition class and applies them.
+     * Instantiates a pre-processor with the given factory and applies it.
      *
-     * @param resourceDef
-     *         A class that has the annotation {@link HttpHeaderDefinition}.
+     * @param factory
+     *         The factory of the pre-processor class.
+     * @param reuseInstance
+     *         Should be <b>true</b> if the pre-processor should be used in the whole test case, <b>false</b> if not.
+     *
+     * @return <b>true</b> if the instantiation was successful, <b>false</b> if not.
      */
-    private void readHttpHeaderDefinition( final Class<?> resourceDef )
+    private boolean instantiatePreprocessor( final PreprocessorFactory factory, final boolean reuseInstance )
     {
-        HttpHeaderDefinition def = resourceDef.getAnnotation( HttpHeaderDefinition.class );
-
-        // If there is no annotation stop processing.
-        if ( def == null )
-            return;
+        if ( !factory.isAvailable() )
+            return false;
 
-        // Loop through all headers of the definition and add them to the HTTP
-        // header map.
-        for ( HttpHeader header : def.value() )
-        {
-            this.httpHeaders.put( header.name(), header.value() );
-        }
+        setPreprocessor( factory.newInstance(), reuseInstance );
+        return true;
     }
 
     /**
-     * Reads the placeholder settings from the resource definition class and applies them.
+     * Applies the precomputed settings of a resource definition class. Only the settings defined by the class override
+     * the current configuration.
      *
-     * @param resourceDef
-     *         A class that has the annotation {@link PlaceholderDefinition}.
+     * @param descriptor
+     *         The descriptor of the resource definition class.
+     * @param enableDefaultValidation
+     *         Should be <b>true</b> to enable default validation for this resource explicitly or <b>false</b> to
+     *         disable this resource.
      */
-    private void readPlaceholderDefinition( final Class<?> resourceDef )
+    private void applyResourceDescriptor( final ResourceDescriptor descriptor, final boolean enableDefaultValidation )
     {
-        PlaceholderDefinition def = resourceDef.getAnnotation( PlaceholderDefinition.class );
+        invalidateUrl();
 
-        // If there is no annotation stop processing.
-        if ( def == null )
-            return;
+        // Url settings
+        if ( descriptor.protocol != null )
+            this.protocol = descriptor.protocol;
 
-        // Loop through all placeholders of the definition and add them to the
-        // placeholder map
-        for ( Placeholder placeholder : def.value() )
-        {
-            this.placeholders.put( placeholder.name(), placeholder.value() );
-        }
+        if ( descriptor.hostName != null )
+            this.hostName = descriptor.hostName;
+
+        if ( descriptor.port != null )
+            this.port = descriptor.port;
+
+        if ( descriptor.basePath != null )
+            this.basePath = descriptor.basePath;
+
+        if ( descriptor.resourcePath != null )
+            this.resourcePath = descriptor.resourcePath;
+
+        writableQueryParams().putAll( descriptor.queryParams );
+
+        if ( descriptor.fragment != null )
+            this.fragment = descriptor.fragment;
+
+        if ( descriptor.actionName != null )
+            this.actionName = descriptor.actionName;
+
+        // HTTP settings
+        if ( descriptor.httpMethod != null )
+            this.httpMethod = descriptor.httpMethod;
+
+        writableHttpHeaders().putAll( descriptor.httpHeaders );
+        writablePlaceholders().putAll( descriptor.placeholders );
+
+        if ( enableDefaultValidation )
+            readValidator( descriptor.type );
+
+        readPreprocessorDefinition( descriptor );
+
+        // Basic authentication. Credentials are mutable, therefore every call gets its own instance.
+        if ( descriptor.username != null )
+            this.basicAuthCredentials = new BasicAuthCredentials( descriptor.username, descriptor.password );
     }
 
     /**
      * Reads the preprocessor settings from the resource definition class and applies them. Implementing the interface
      * {@link PreProcessible} directly takes precedence before the annotation {@link PreProcess}.
      *
-     * @param resourceDef
-     *         A class that has the annotation {@link PreProcess}.
+     * @param descriptor
+     *         The descriptor of a class that has the annotation {@link PreProcess}.
      */
-    private void readPreprocessorDefinition( final Class<?> resourceDef )
+    private void readPreprocessorDefinition( final ResourceDescriptor descriptor )
     {
         // Read implemented method first
-        if ( instantiatePreprocessor( resourceDef.getName(), false ) )
+        if ( descriptor.preProcessible && instantiatePreprocessor( PreprocessorFactory.forClass( descriptor.type ), false ) )
             return;
 
-        PreProcess def = resourceDef.getAnnotation( PreProcess.class );
+        PreProcess def = descriptor.preProcess;
 
         // If there is no annotation stop processing.
         if ( def == null )
             return;
 
         // Check if the class already got defined via annotation
+        PreProcessible reusablePreprocessor = SessionContext.getCurrent().reusablePreprocessor;
         if ( def.reuseInstance()
-                && preprocessorReuse.get() != null
-                && preprocessorReuse.get().getClass().getName().equals( def.value().getName() ) )
+                && reusablePreprocessor != null
+                && reusablePreprocessor.getClass().getName().equals( def.value().getName() ) )
             return;
 
         // Try to instantiate the pre-processor
-        instantiatePreprocessor( def.value().getName(), def.reuseInstance() );
-    }
-
-    /**
-     * Reads the basic authentication settings.
-     *
-     * @param resourceDef
-     *         A class that has the annotation {@link BasicAuth}.
-     */
-    private void readBasicAuthDefinition( final Class<?> resourceDef )
-    {
-        BasicAuth def = resourceDef.getAnnotation( BasicAuth.class );
-
-        // If there is no annotation stop processing
-        if ( def == null )
-            return;
-
-        basicAuthCredentials = new BasicAuthCredentials( def.username(), def.password() );
+        instantiatePreprocessor( PreprocessorFactory.forClass( def.value() ), def.reuseInstance() );
     }
 
     /**
-     * Determines if a resource definition class was derived from {@link DisableDefaultValidation}, creates an instance
-     * of the class, and stores it in a list for a later usage of the validators.
+     * Determines if a resource definition class implements {@link AutoValidatable}, gets a validator instance of the
+     * class, and stores it in a list for a later usage of the validators. Classes with the annotation
+     * {@link StatelessValidator} share one instance, all others get a new one.
      *
-     * @param <T>
-     *         The type of the resource definition class.
      * @param resourceDef
      *         A class that has default validation methods.
      */
-    private <T> void readValidator( final Class<T> resourceDef )
+    private void readValidator( final Class<?> resourceDef )
     {
-        // Check if resource definition class d
-
         // Check if the resource definition class implements default validation
         // methods (derived from AutoValidatable.java)
-        if ( AutoValidatable.class.isAssignableFrom( resourceDef ) )
+        ResourceDescriptor descriptor = ResourceDescriptor.forClass( resourceDef );
+        if ( descriptor.autoValidatable )
         {
-            // Create an instance of that class and put it into a list.
-            Constructor<T> constr;
             try
             {
-                constr = resourceDef.getConstructor();
-                defaultValidators.add( ( AutoValidatable ) constr.newInstance() );
-            } catch ( NoSuchMethodException | SecurityException | InstantiationException | IllegalAccessException
-                    | IllegalArgumentException | InvocationTargetException e )
+                writableDefaultValidators().add( descriptor.newValidator() );
+            } catch ( Exception e )
             {
                 XltLogger.runTimeLogger.error( "Default validation failed!\n" + e.toString() );
             }
@@ -1937,7 +2680,7 @@ public class RESTCall
         {
             if ( resourceDef.isInstance( val ) )
             {
-                defaultValidators.remove( val );
+                writableDefaultValidators().remove( val );
                 return;
             }
         }
@@ -1954,18 +2697,24 @@ public class RESTCall
         responseStatusMessage = null;
         responseHttpHeaders = null;
         responseContent = null;
+        responseJSON = null;
     }
 
     /**
      * Performs the default validation by looping through the list of validators.
      */
-    private void processValidators()
+    void processValidators()
     {
-        if ( enableDefaultValidation )
+        if ( enableDefaultValidation && !defaultValidators.isEmpty() )
         {
-            for ( AutoValidatable validator : defaultValidators )
+            // The view only delegates to this call, so one instance serves all validators and iterations.
+            if ( validatorView == null )
+                validatorView = new RESTCallValidator( this );
+
+            // Random access lists, avoid the iterator.
+            for ( int i = 0; i < defaultValidators.size(); i++ )
             {
-                validator.validate( new RESTCallValidator( this ) );
+                defaultValidators.get( i ).validate( validatorView );
             }
         }
     }
@@ -1978,214 +2727,32 @@ public class RESTCall
      */
     private void splitUrl( final String url )
     {
-        // If there is no url or if it's an empty String abort without doing
-        // anything
-        if ( url == null || url.isEmpty() )
-            return;
-
-        String restUrl = url;
-
-        // Check if the url has a protocol, if yes extract it
-        int index = restUrl.indexOf( "://" );
-        if ( index != -1 )
-        {
-            setProtocol( restUrl.substring( 0, index ) );
-            restUrl = restUrl.substring( index + 3 );
-        }
-
-        // Check if the rest of the Url is empty.
-        if ( restUrl.isEmpty() )
-            return;
-
-        // Check if there are basic authentication credentials
-        index = restUrl.indexOf( "@" );
-        if ( index != -1 )
-        {
-            if ( index > 0 )
-            {
-                String credentials = restUrl.substring( 0, index );
-
-                // find the credentials separator
-                int sepIndex = credentials.indexOf( ":" );
-                // no separator => only username
-                if ( sepIndex == -1 )
-                    basicAuthCredentials = new BasicAuthCredentials( credentials, null );
-                else
-                    basicAuthCredentials = new BasicAuthCredentials( credentials.substring( 0, sepIndex ),
-                            credentials.substring( sepIndex + 1 ) );
-            }
-
-            restUrl = restUrl.substring( index + 1 );
-        }
-
-        // Remove multiple separators that are not allowed.
-        restUrl = removeMultipleSlashes( restUrl );
-        restUrl = removeMultipleQueryParamSeparators( restUrl );
-        restUrl = removeMultipleFragmentSeparators( restUrl );
-
-        // Check if there is a fragment at the end of the Url
-        index = restUrl.indexOf( '#' );
-        if ( index != -1 )
-        {
-            this.fragment = restUrl.substring( index + 1 );
-            restUrl = restUrl.substring( 0, index );
-
-            // Check if there more than 1 fragment
-            index = this.fragment.indexOf( '#' );
-            if ( index != -1 )
-                this.fragment = this.fragment.substring( 0, index );
-        }
-
-        // Check if the rest of the Url is empty.
-        if ( restUrl.isEmpty() )
-            return;
-
-        // Check if there are query parameters.
-        index = restUrl.indexOf( '?' );
-        if ( index != -1 )
-        {
-            String queryParamString = restUrl.substring( index + 1 );
-            splitQueryString( queryParamString );
-
-            restUrl = restUrl.substring( 0, index );
-        }
-
-        // Check if the rest of the Url is empty.
-        if ( restUrl.isEmpty() )
-            return;
-
-        // Get the host name and port if present.
-        index = restUrl.indexOf( "/" );
-        String hostAndPort;
-        if ( index != -1 )
-        {
-            hostAndPort = restUrl.substring( 0, index );
-            restUrl = restUrl.substring( index + 1 );
-        } else
-        {
-            // Only the host name was provided.
-            hostAndPort = restUrl;
-            restUrl = "";
-        }
-
-        // Check if there is a port.
-        index = hostAndPort.indexOf( ':' );
-        if ( index != -1 )
-        {
-            if ( index != 0 )
-                this.hostName = hostAndPort.substring( 0, index );
-
-            String portStr = hostAndPort.substring( index + 1 );
-
-            // Check if there is a port and if it's a numerical value.
-            if ( portStr.length() > 0 && portStr.matches( "^[0-9]+$" ) )
-                this.port = new Integer( portStr );
-        } else
-            this.hostName = hostAndPort;
-
-        // Check if the rest of the Url is empty.
-        if ( restUrl.isEmpty() )
-            return;
-
-        // Check if there is at least one element in the Url path after the host
-        // name. If so take it as the resource path.
-        index = restUrl.lastIndexOf( '/' );
-        if ( index != -1 )
-        {
-            this.resourcePath = restUrl.substring( index + 1 );
-            restUrl = restUrl.substring( 0, index );
-        }
-
-        // Check if the rest of the Url is empty.
-        if ( restUrl.isEmpty() )
-            return;
+        invalidateUrl();
 
-        // The rest of the Url must be the base path. Remove leading or trailing
-        // slashes.
-        if ( restUrl.startsWith( "/" ) )
-            restUrl = restUrl.substring( 1 );
+        UrlParts parts = UrlParts.parse( url );
 
-        if ( restUrl.endsWith( "/" ) )
-            restUrl = restUrl.substring( 0, restUrl.length() );
-
-        this.basePath = restUrl;
-    }
-
-    /**
-     * Removes multiple slashes from an Url without protocol.
-     *
-     * @param url
-     *         The Url that contains multiple slashes.
-     *
-     * @return An Url that only has single slashes.
-     */
-    private String removeMultipleSlashes( String url )
-    {
-        // Replace double slashes with single slashes until only single slashes
-        // exist.
-        while ( url.contains( "//" ) )
-            url = url.replaceAll( "//", "/" );
+        if ( parts.protocol != null )
+            setProtocol( parts.protocol );
 
-        return url;
-    }
+        if ( parts.hasCredentials() )
+            this.basicAuthCredentials = new BasicAuthCredentials( parts.username, parts.password );
 
-    /**
-     * Removes multiple fragment separators ( '#' ) from an Url without protocol.
-     *
-     * @param url
-     *         The Url that contains multiple fragment separators.
-     *
-     * @return An Url that only has single fragment separator.
-     */
-    private String removeMultipleFragmentSeparators( String url )
-    {
-        // Replace double fragment separators with single slashes until only
-        // single slashes exist.
-        while ( url.contains( "##" ) )
-            url = url.replaceAll( "##", "#" );
+        if ( parts.fragment != null )
+            this.fragment = parts.fragment;
 
-        return url;
-    }
+        writableQueryParams().putAll( parts.queryParams );
 
-    /**
-     * Removes multiple query param separators ( '#' ) from an Url without protocol.
-     *
-     * @param url
-     *         The Url that contains multiple query param separators.
-     *
-     * @return An Url that only has single query param separator.
-     */
-    private String removeMultipleQueryParamSeparators( String url )
-    {
-        // Replace double query param separators with single slashes until only
-        // single slashes exist.
-        while ( url.contains( "??" ) )
-            url = url.replaceAll( "\\?\\?", "?" );
+        if ( parts.hostName != null )
+            this.hostName = parts.hostName;
 
-        return url;
-    }
+        if ( parts.port != null )
+            this.port = parts.port;
 
-    /**
-     * Splits the query string of an Url into its individual parameters and adds them to the query parameter map.
-     *
-     * @param queryString
-     *         The part of the Url after '?' and before '#'. Should already be Url encoded.
-     */
-    private void splitQueryString( final String queryString )
-    {
-        // Split the query string at the occurance of '&'. As a result we get
-        // the key - value pairs of the quers parameters.
-        String[] queryPairs = queryString.split( "&" );
+        if ( parts.resourcePath != null )
+            this.resourcePath = parts.resourcePath;
 
-        // Loop through all key - value pairs and split at '='.
-        for ( String keyValue : queryPairs )
-        {
-            int index = keyValue.indexOf( '=' );
-            if ( index != -1 && !keyValue.startsWith( "=" ) )
-            {
-                this.queryParams.put( keyValue.substring( 0, index ), keyValue.substring( index + 1 ) );
-            }
-        }
+        if ( parts.basePath != null )
+            this.basePath = parts.basePath;
     }
 
     /**
@@ -2197,10 +2764,10 @@ public class RESTCall
      *
      * @return The sanitized Url path segment.
      */
-    private String sanitizeUrlPathSegment( final String urlPathSegment )
+    static String sanitizeUrlPathSegment( final String urlPathSegment )
     {
         // Remove double slashes.
-        String sanitizedUrl = removeMultipleSlashes( urlPathSegment );
+        String sanitizedUrl = UrlParts.removeMultipleSlashes( urlPathSegment );
 
         // Remove a potential leading slash.
         if ( sanitizedUrl.startsWith( "/" ) )
@@ -2214,7 +2781,21 @@ public class RESTCall
     }
 
     /**
-     * Replaces all placeholders with the given key-value map.
+     * Removes the protocol separators, e.g. <b>://</b>, from the given protocol.
+     *
+     * @param protocol
+     *         The protocol that may contain separators.
+     *
+     * @return The protocol without separators.
+     */
+    static String sanitizeProtocol( final String protocol )
+    {
+        return protocol.replace( "/", "" ).replace( ":", "" );
+    }
+
+    /**
+     * Replaces all placeholders with the given key-value map. The content is compiled once into a cached
+     * {@link PlaceholderTemplate} and rendered in a single pass. Placeholder values are inserted literally.
      *
      * @param content
      *         The content that contains placeholders that need to be replaced.
@@ -2223,14 +2804,7 @@ public class RESTCall
      */
     private String replacePlaceholders( final String content )
     {
-        String retContent = content;
-
-        for ( Entry<String, String> placeholder : this.placeholders.entrySet() )
-        {
-            retContent = retContent.replaceAll( "\\$\\{" + placeholder.getKey() + "\\}", placeholder.getValue() );
-        }
-
-        return retContent;
+        return PlaceholderTemplate.replace( content, this.placeholders );
     }
 
     /**
@@ -0,0 +1,152 @@
+package com.xceptance.xrt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.xceptance.xlt.api.engine.CustomData;
+import com.xceptance.xlt.api.engine.Session;
+
+/**
+ * <p>
+ * Measures the phases of a single REST call and logs each of them as XLT custom timer named <b>&lt;action name&gt;
+ * (&lt;phase&gt;)</b>, e.g. <b>GetProduct (validation)</b>. The phases are:
+ * </p>
+ * <ul>
+ * <li><b>preprocess</b> - The pre-processor of the REST call.</li>
+ * <li><b>prepare</b> - Building the Url, the headers, and the body of the request.</li>
+ * <li><b>transport</b> - Sending the request and receiving the response.</li>
+ * <li><b>page</b> - Wrapping the response into a page for the result browser.</li>
+ * <li><b>validation</b> - The default validators.</li>
+ * </ul>
+ * <br>
+ * <p>
+ * Enabled with the property <b>com.xceptance.xrt.phaseTimers.enabled</b>. There is no instance if the property is
+ * disabled, so the only cost is a <b>null</b> check per phase.
+ * </p>
+ */
+final class RESTCallPhases
+{
+    static final int PREPROCESS = 0;
+
+    static final int PREPARE = 1;
+
+    static final int TRANSPORT = 2;
+
+    static final int PAGE = 3;
+
+    static final int VALIDATION = 4;
+
+    /**
+     * The names of the phases by index.
+     */
+    private static final String[] NAMES =
+        { "preprocess", "prepare", "transport", "page", "validation" };
+
+    /**
+     * The name of the action the phases belong to.
+     */
+    private final String actionName;
+
+    /**
+     * The start of the REST call in milliseconds since the epoch.
+     */
+    private final long startTime = System.currentTimeMillis();
+
+    /**
+     * The duration of each phase in nanoseconds.
+     */
+    private final long[] durations = new long[NAMES.length];
+
+    /**
+     * <b>true</b> for each phase that ran.
+     */
+    private final boolean[] ran = new boolean[NAMES.length];
+
+    /**
+     * Constructor.
+     *
+     * @param actionName
+     *         The name of the action the phases belong to.
+     */
+    RESTCallPhases( final String actionName )
+    {
+        this.actionName = actionName;
+    }
+
+    /**
+     * Returns the start of a phase.
+     *
+     * @return The current value of the high resolution clock.
+     */
+    static long start()
+    {
+        return System.nanoTime();
+    }
+
+    /**
+     * Ends a phase.
+     *
+     * @param phase
+     *         The phase.
+     * @param start
+     *         The start of the phase as returned by {@link #start()}.
+     *
+     * @return The duration of the phase in nanoseconds.
+     */
+    long stop( final int phase, final long start )
+    {
+        long duration = System.nanoTime() - start;
+        durations[phase] += duration;
+        ran[phase] = true;
+
+        return duration;
+    }
+
+    /**
+     * Ends a phase that ran within another phase. The time is taken from the outer phase so that it isn't counted
+     * twice.
+     *
+     * @param phase
+     *         The inner phase.
+     * @param outer
+     *         The outer phase.
+     * @param start
+     *         The start of the inner phase as returned by {@link #start()}.
+     */
+    void stopNested( final int phase, final int outer, final long start )
+    {
+        durations[outer] -= stop( phase, start );
+    }
+
+    /**
+     * Creates a custom timer for every phase that ran.
+     *
+     * @return The timers in the order of the phases.
+     */
+    List<CustomData> toTimers()
+    {
+        List<CustomData> timers = new ArrayList<>( NAMES.length );
+        for ( int i = 0; i < NAMES.length; i++ )
+        {
+            if ( !ran[i] )
+                continue;
+
+            CustomData timer = new CustomData( actionName + " (" + NAMES[i] + ")" );
+            timer.setTime( startTime );
+            timer.setRunTime( TimeUnit.NANOSECONDS.toMillis( Math.max( 0, durations[i] ) ) );
+            timers.add( timer );
+        }
+
+        return timers;
+    }
+
+    /**
+     * Logs the timers of all phases that ran.
+     */
+    void log()
+    {
+        for ( CustomData timer : toTimers() )
+            Session.getCurrent().getDataManager().logDataRecord( timer );
+    }
+}
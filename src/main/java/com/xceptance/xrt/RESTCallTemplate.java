@@ -0,0 +1,72 @@
+package com.xceptance.xrt;
+
+/**
+ * <p>
+ * Immutable configuration of a REST call that can be used to create any number of REST calls without setting them up
+ * again. The template is created from a fully configured {@link RESTCall}, i.e. global settings, resource definitions,
+ * default validators, and the single-use pre-processor are resolved once.
+ * </p>
+ * <br>
+ * <p>
+ * Every {@link #fork()} returns a new {@link RESTCall} that starts with the configuration of the template. A fork
+ * shares the query parameters, HTTP headers, and placeholder values with the template until it changes them. Changing
+ * a fork never affects the template or other forks.
+ * </p>
+ * <br>
+ * <p>
+ * Templates are thread-safe and can be shared between test users. Like a REST call set up from scratch, every fork
+ * gets its own single-use pre-processor and its own default validators. Only validators annotated with
+ * {@link com.xceptance.xrt.annotation.StatelessValidator} are shared. A pre-processor that is reused for the whole
+ * test case is bound to the test user and not part of the template.
+ * </p>
+ * <br>
+ * <p>
+ * Example:
+ * </p>
+ * {@code
+ * RESTCallTemplate template = new RESTCallTemplate( new RESTCall( ProductResource.class ) );
+ * template.fork().addPlaceholderValue( "id", "4711" ).get();
+ * }
+ */
+public final class RESTCallTemplate
+{
+    /**
+     * The frozen configuration. Never modified and never exposed.
+     */
+    private final RESTCall prototype;
+
+    /**
+     * Creates a template from the current configuration of the given REST call. Later changes to the REST call don't
+     * affect the template.
+     *
+     * @param call
+     *         The configured REST call.
+     */
+    public RESTCallTemplate( final RESTCall call )
+    {
+        this.prototype = RESTCall.freeze( call );
+
+        // Resolve the Url once for all forks.
+        this.prototype.getUrl();
+    }
+
+    /**
+     * Creates a new REST call with the configuration of this template.
+     *
+     * @return The new REST call.
+     */
+    public RESTCall fork()
+    {
+        return RESTCall.fork( prototype );
+    }
+
+    /**
+     * Returns the Url of the template with all placeholders replaced by the template's placeholder values.
+     *
+     * @return The Url of the template.
+     */
+    public String getUrl()
+    {
+        return prototype.getUrl();
+    }
+}
@@ -0,0 +1,199 @@
+package com.xceptance.xrt;
+
+import com.gargoylesoftware.htmlunit.WebResponse;
+import com.xceptance.xlt.api.util.XltLogger;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Writes the request and response details of a REST call to the XLT runtime log at debug level. Nothing is built or
+ * read if debug logging is disabled.
+ * </p>
+ * <br>
+ * <p>
+ * The amount of traced REST calls can be reduced with the following properties:
+ * </p>
+ * <ul>
+ * <li><b>com.xceptance.xrt.trace.sampleRate</b> - Traces only every n-th REST call.</li>
+ * <li><b>com.xceptance.xrt.trace.actions</b> - Comma separated list of action names that are traced.</li>
+ * <li><b>com.xceptance.xrt.trace.maxBodyLength</b> - Maximum number of body characters that are traced.</li>
+ * </ul>
+ */
+final class RESTCallTracer
+{
+    /**
+     * Counts all REST calls that are candidates for tracing. Used for sampling.
+     */
+    private static final AtomicLong candidates = new AtomicLong();
+
+    /**
+     * The REST call that is traced.
+     */
+    private final RESTCall call;
+
+    /**
+     * The maximum number of body characters that are traced. <b>-1</b> traces the whole body.
+     */
+    private final int maxBodyLength;
+
+    /**
+     * Private constructor. Use {@link #forCall(RESTCall)} instead.
+     *
+     * @param call
+     *         The REST call that is traced.
+     * @param maxBodyLength
+     *         The maximum number of body characters that are traced.
+     */
+    private RESTCallTracer( final RESTCall call, final int maxBodyLength )
+    {
+        this.call = call;
+        this.maxBodyLength = maxBodyLength;
+    }
+
+    /**
+     * Returns a tracer for the given REST call if the call should be traced.
+     *
+     * @param call
+     *         The REST call that is about to be performed.
+     *
+     * @return The tracer of the REST call or <b>null</b> if the REST call is not traced.
+     */
+    static RESTCallTracer forCall( final RESTCall call )
+    {
+        // Cheap check first. Tracing must not cost anything if disabled.
+        if ( !XltLogger.runTimeLogger.isDebugEnabled() )
+            return null;
+
+        return forCall( call, GlobalSettings.getCurrent() );
+    }
+
+    /**
+     * Returns a tracer for the given REST call if the given settings select the call for tracing. The log level is not
+     * checked.
+     *
+     * @param call
+     *         The REST call that is about to be performed.
+     * @param settings
+     *         The settings that control the tracing.
+     *
+     * @return The tracer of the REST call or <b>null</b> if the REST call is not traced.
+     */
+    static RESTCallTracer forCall( final RESTCall call, final GlobalSettings settings )
+    {
+        if ( !settings.traceActions.isEmpty() && !settings.traceActions.contains( call.getActionName() ) )
+            return null;
+
+        if ( settings.traceSampleRate > 1 && candidates.incrementAndGet() % settings.traceSampleRate != 0 )
+            return null;
+
+        return new RESTCallTracer( call, settings.traceMaxBodyLength );
+    }
+
+    /**
+     * Traces the request details.
+     *
+     * @param url
+     *         The Url that is called.
+     * @param requestBody
+     *         The request body. Can be <b>null</b>.
+     */
+    void traceRequest( final String url, final String requestBody )
+    {
+        StringBuilder builder = new StringBuilder( 256 );
+        builder.append( "Start REST call '" ).append( call.getActionName() ).append( "'..." );
+        builder.append( "\n# Request - URL:\t\t" ).append( url );
+        builder.append( "\n# Request - HTTP method:\t" ).append( call.getHttpMethod() );
+        builder.append( "\n# Request - HTTP headers:\t" ).append( call.readHttpHeaders() );
+
+        if ( requestBody != null )
+            builder.append( "\n# Request - Body:\t" ).append( truncate( requestBody, maxBodyLength ) );
+
+        XltLogger.runTimeLogger.debug( builder.toString() );
+    }
+
+    /**
+     * Traces the response details. Only the traced part of the body is read.
+     *
+     * @param response
+     *         The response of the REST call.
+     */
+    void traceResponse( final WebResponse response )
+    {
+        XltLogger.runTimeLogger.debug( describeResponse( response ) );
+    }
+
+    /**
+     * Builds the trace message of the response.
+     *
+     * @param response
+     *         The response of the REST call.
+     *
+     * @return The trace message.
+     */
+    String describeResponse( final WebResponse response )
+    {
+        StringBuilder builder = new StringBuilder( 256 );
+        builder.append( "Getting response of REST call '" ).append( call.getActionName() ).append( "'..." );
+        builder.append( "\n# Response - Status code:\t" ).append( response.getStatusCode() );
+        builder.append( "\n# Response - HTTP header:\t" ).append( response.getResponseHeaders() );
+        builder.append( "\n# Response - Body:\t" ).append( readBody( response, maxBodyLength ) );
+
+        return builder.toString();
+    }
+
+    /**
+     * Shortens the given body to the maximum length.
+     *
+     * @param body
+     *         The body to shorten.
+     * @param maxLength
+     *         The maximum number of characters. <b>-1</b> does not shorten the body.
+     *
+     * @return The shortened body.
+     */
+    static String truncate( final String body, final int maxLength )
+    {
+        if ( maxLength < 0 || body.length() <= maxLength )
+            return body;
+
+        return body.substring( 0, maxLength ) + "... [" + ( body.length() - maxLength ) + " more characters]";
+    }
+
+    /**
+     * Reads the response body up to the given maximum length. Larger bodies are not decoded completely.
+     *
+     * @param response
+     *         The response.
+     * @param maxLength
+     *         The maximum number of characters. <b>-1</b> reads the whole body.
+     *
+     * @return The (shortened) response body.
+     */
+    static String readBody( final WebResponse response, final int maxLength )
+    {
+        if ( maxLength < 0 )
+            return response.getContentAsString();
+
+        // Read one more character to find out if the body is longer.
+        char[] buffer = new char[maxLength + 1];
+        int length = 0;
+        try ( Reader reader = new InputStreamReader( response.getContentAsStream(), response.getContentCharset() ) )
+        {
+            int read;
+            while ( length < buffer.length && ( read = reader.read( buffer, length, buffer.length - length ) ) != -1 )
+                length += read;
+        } catch ( IOException e )
+        {
+            return "[body not readable: " + e.getMessage() + "]";
+        }
+
+        if ( length <= maxLength )
+            return new String( buffer, 0, length );
+
+        return new String( buffer, 0, maxLength ) + "... [truncated, " + response.getContentLength() + " bytes in total]";
+    }
+}
@@ -1,11 +1,16 @@
 package com.xceptance.xrt;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.util.List;
 import java.util.Map;
 
 import com.gargoylesoftware.htmlunit.HttpMethod;
 import com.gargoylesoftware.htmlunit.util.NameValuePair;
 import com.xceptance.xrt.document.JSON;
+import com.xceptance.xrt.document.StreamingJSON;
+import org.codehaus.jackson.type.TypeReference;
 
 /**
  * This class is used to encapsulate the getter methods for default validation.
@@ -266,6 +271,84 @@ public class RESTCallValidator
         return call.getResponseBodyAsString();
     }
 
+    /**
+     * Encapsulated method of {@link RESTCall}.
+     * 
+     * @return The response body as stream.
+     * 
+     * @throws IOException
+     *             Thrown if the response body cannot be read.
+     * 
+     * @see RESTCall#getResponseBodyAsStream()
+     */
+    public InputStream getResponseBodyAsStream() throws IOException
+    {
+        return call.getResponseBodyAsStream();
+    }
+
+    /**
+     * Encapsulated method of {@link RESTCall}.
+     * 
+     * @return The response body as reader.
+     * 
+     * @throws IOException
+     *             Thrown if the response body cannot be read.
+     * 
+     * @see RESTCall#getResponseBodyAsReader()
+     */
+    public Reader getResponseBodyAsReader() throws IOException
+    {
+        return call.getResponseBodyAsReader();
+    }
+
+    /**
+     * Encapsulated method of {@link RESTCall}.
+     * 
+     * @param type
+     *            The type to bind the body to.
+     * 
+     * @return The response body bound to the type.
+     * 
+     * @throws IOException
+     *             Thrown if the response body cannot be read or does not match the type.
+     * 
+     * @see RESTCall#getResponseBodyAs(Class)
+     */
+    public <T> T getResponseBodyAs( final Class<T> type ) throws IOException
+    {
+        return call.getResponseBodyAs( type );
+    }
+
+    /**
+     * Encapsulated method of {@link RESTCall}.
+     * 
+     * @param type
+     *            The generic type to bind the body to.
+     * 
+     * @return The response body bound to the type.
+     * 
+     * @throws IOException
+     *             Thrown if the response body cannot be read or does not match the type.
+     * 
+     * @see RESTCall#getResponseBodyAs(TypeReference)
+     */
+    public <T> T getResponseBodyAs( final TypeReference<T> type ) throws IOException
+    {
+        return call.getResponseBodyAs( type );
+    }
+
+    /**
+     * Encapsulated method of {@link RESTCall}.
+     * 
+     * @return The length of the response body in bytes.
+     * 
+     * @see RESTCall#getResponseBodyLength()
+     */
+    public long getResponseBodyLength()
+    {
+        return call.getResponseBodyLength();
+    }
+
     /**
      * Encapsulated method of {@link RESTCall}.
      * 
@@ -278,6 +361,18 @@ public class RESTCallValidator
         return call.getResponseBodyAsJSON();
     }
 
+    /**
+     * Encapsulated method of {@link RESTCall}.
+     * 
+     * @return The response body as streamed JSON object.
+     * 
+     * @see RESTCall#getResponseBodyAsStreamingJSON()
+     */
+    public StreamingJSON getResponseBodyAsStreamingJSON()
+    {
+        return call.getResponseBodyAsStreamingJSON();
+    }
+
     /**
      * Encapsulated method of {@link RESTCall}.
      * 
@@ -0,0 +1,57 @@
+package com.xceptance.xrt;
+
+import com.gargoylesoftware.htmlunit.WebRequest;
+import com.gargoylesoftware.htmlunit.WebResponse;
+
+/**
+ * <p>
+ * Sends the request of a REST call and returns the response. The transport is used by {@link XltRESTAction} after the
+ * request was built from the {@link RESTCall} configuration. The action timer is recorded by the action, the transport
+ * is responsible for the request timer.
+ * </p>
+ * <br>
+ * <p>
+ * XRT ships three transports. {@link #HTMLUNIT} is the default and uses the web client of XLT including cookies and
+ * the result browser. {@link #LEAN} uses pooled connections of a plain HTTP client and skips the browser specific
+ * processing. {@link #HTTP2} does the same via HTTP/2 and multiplexes concurrent REST calls over one connection. The
+ * transport is selected per REST call or via the property <b>com.xceptance.xrt.transport</b> that accepts
+ * <b>htmlunit</b>, <b>lean</b>, <b>http2</b>, or the class name of a custom transport with a public no-args
+ * constructor.
+ * </p>
+ * <br>
+ * <p>
+ * Transports are shared between test users and need to be thread-safe.
+ * </p>
+ */
+public interface RESTTransport
+{
+    /**
+     * Sends the request with the web client of XLT.
+     */
+    RESTTransport HTMLUNIT = new HtmlUnitTransport();
+
+    /**
+     * Sends the request with a lightweight HTTP client with pooled connections.
+     */
+    RESTTransport LEAN = new LeanHttpTransport();
+
+    /**
+     * Sends the request via HTTP/2 (h2 or h2c) and multiplexes concurrent requests over one connection per host.
+     */
+    RESTTransport HTTP2 = new Http2Transport();
+
+    /**
+     * Sends the request and returns the complete response.
+     *
+     * @param request
+     *         The request to send.
+     * @param action
+     *         The action that performs the REST call.
+     *
+     * @return The response.
+     *
+     * @throws Exception
+     *         Thrown if the request could not be sent or the response could not be read.
+     */
+    WebResponse send( WebRequest request, XltRESTAction action ) throws Exception;
+}
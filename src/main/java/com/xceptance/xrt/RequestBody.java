@@ -0,0 +1,254 @@
+package com.xceptance.xrt;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * A binary request body of a {@link RESTCall} together with its content type. The body is either a byte array, a
+ * {@link ByteBuffer}, a file, or a supplier of an {@link InputStream}. Exactly one of them is set.
+ * </p>
+ * <br>
+ * <p>
+ * The body is handed to the transport as is. {@link RESTTransport#LEAN} and {@link RESTTransport#HTTP2} stream files
+ * and streams and send arrays and buffers without copying them. Placeholders are not replaced in binary bodies.
+ * </p>
+ */
+final class RequestBody
+{
+    /**
+     * The body as byte array. Can be <b>null</b>.
+     */
+    final byte[] bytes;
+
+    /**
+     * The body as buffer. Only the remaining bytes are sent. Can be <b>null</b>.
+     */
+    final ByteBuffer buffer;
+
+    /**
+     * The file that contains the body. Can be <b>null</b>.
+     */
+    final Path file;
+
+    /**
+     * Supplies a new stream of the body for every request. Can be <b>null</b>.
+     */
+    final Supplier<InputStream> stream;
+
+    /**
+     * The content type of the body.
+     */
+    final String contentType;
+
+    /**
+     * Constructor.
+     *
+     * @param bytes
+     *         The body as byte array.
+     * @param buffer
+     *         The body as buffer.
+     * @param file
+     *         The file that contains the body.
+     * @param stream
+     *         Supplies the body as stream.
+     * @param contentType
+     *         The content type of the body.
+     */
+    private RequestBody( final byte[] bytes, final ByteBuffer buffer, final Path file,
+                         final Supplier<InputStream> stream, final String contentType )
+    {
+        if ( contentType == null )
+            throw new IllegalArgumentException( "The content type of a binary request body must not be null." );
+
+        this.bytes = bytes;
+        this.buffer = buffer;
+        this.file = file;
+        this.stream = stream;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Creates a body from a byte array. The array is not copied.
+     *
+     * @param bytes
+     *         The body.
+     * @param contentType
+     *         The content type of the body.
+     *
+     * @return The request body.
+     */
+    static RequestBody of( final byte[] bytes, final String contentType )
+    {
+        return new RequestBody( bytes, null, null, null, contentType );
+    }
+
+    /**
+     * Creates a body from the remaining bytes of a buffer. The buffer is neither copied nor moved.
+     *
+     * @param buffer
+     *         The body.
+     * @param contentType
+     *         The content type of the body.
+     *
+     * @return The request body.
+     */
+    static RequestBody of( final ByteBuffer buffer, final String contentType )
+    {
+        return new RequestBody( null, buffer.asReadOnlyBuffer(), null, null, contentType );
+    }
+
+    /**
+     * Creates a body from a file. The file is read every time the request is sent, so changes between requests are
+     * sent. Transports that need the body as buffer map the file for every request. The file must not be truncated
+     * while a request sends it.
+     *
+     * @param file
+     *         The file.
+     * @param contentType
+     *         The content type of the body.
+     *
+     * @return The request body.
+     */
+    static RequestBody of( final Path file, final String contentType )
+    {
+        return new RequestBody( null, null, file, null, contentType );
+    }
+
+    /**
+     * Creates a body from a stream supplier. The supplier is asked for a new stream every time the request is sent.
+     *
+     * @param stream
+     *         Supplies the body.
+     * @param contentType
+     *         The content type of the body.
+     *
+     * @return The request body.
+     */
+    static RequestBody of( final Supplier<InputStream> stream, final String contentType )
+    {
+        return new RequestBody( null, null, null, stream, contentType );
+    }
+
+    /**
+     * Returns the length of the body in bytes.
+     *
+     * @return The length or <b>-1</b> if it is unknown before the body was sent, i.e. for streams.
+     *
+     * @throws IOException
+     *         Thrown if the size of the file can't be read.
+     */
+    long getLength() throws IOException
+    {
+        if ( bytes != null )
+            return bytes.length;
+
+        if ( buffer != null )
+            return buffer.remaining();
+
+        if ( file != null )
+            return Files.size( file );
+
+        return -1;
+    }
+
+    /**
+     * Returns the body as buffer. Byte arrays and buffers are wrapped, files are mapped into memory, and streams are
+     * read completely into the heap.
+     *
+     * @return A new buffer positioned at the start of the body.
+     *
+     * @throws IOException
+     *         Thrown if the file or the stream can't be read.
+     */
+    ByteBuffer toByteBuffer() throws IOException
+    {
+        if ( bytes != null )
+            return ByteBuffer.wrap( bytes );
+
+        if ( buffer != null )
+            return buffer.duplicate();
+
+        if ( file != null )
+            return mapFile();
+
+        return ByteBuffer.wrap( readStream() );
+    }
+
+    /**
+     * Maps the file into memory. The channel is closed right away, the mapping stays valid until it is garbage
+     * collected.
+     *
+     * @return The mapped file.
+     *
+     * @throws IOException
+     *         Thrown if the file can't be read.
+     */
+    private ByteBuffer mapFile() throws IOException
+    {
+        try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.READ ) )
+        {
+            return channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+        }
+    }
+
+    /**
+     * Returns the body as String with one character per byte, i.e. ISO-8859-1 encoded. Sending the String with the
+     * same encoding restores the original bytes. Used for transports that only accept String bodies.
+     *
+     * @return The body as String.
+     *
+     * @throws IOException
+     *         Thrown if the file or the stream can't be read.
+     */
+    String toLatin1String() throws IOException
+    {
+        if ( bytes != null )
+            return new String( bytes, StandardCharsets.ISO_8859_1 );
+
+        return StandardCharsets.ISO_8859_1.decode( toByteBuffer() ).toString();
+    }
+
+    /**
+     * Describes the body for tracing without reading it.
+     *
+     * @return The description of the body.
+     */
+    @Override
+    public String toString()
+    {
+        String source = bytes != null ? "byte array" : buffer != null ? "buffer" : file != null ? "file " + file
+                : "stream";
+
+        return "<binary body from " + source + ", " + contentType + ">";
+    }
+
+    /**
+     * Reads the stream of the body completely.
+     *
+     * @return The bytes of the stream.
+     *
+     * @throws IOException
+     *         Thrown if the stream can't be read.
+     */
+    private byte[] readStream() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try ( InputStream in = stream.get() )
+        {
+            byte[] chunk = new byte[8192];
+            for ( int read; ( read = in.read( chunk ) ) != -1; )
+                out.write( chunk, 0, read );
+        }
+
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,123 @@
+package com.xceptance.xrt;
+
+import com.xceptance.xrt.authentication.BasicAuthCredentials;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * The final Url of a {@link RESTCall} with all placeholders replaced. The Url is built once and reused until the
+ * configuration of the REST call changes. The {@link URL} representation is created on first access.
+ * </p>
+ * <br>
+ * <p>
+ * Query parameters, placeholder values, and credentials can be changed by the caller without notifying the REST call
+ * once they were handed out. In that case the resolved Url holds a snapshot of them and is only valid as long as they
+ * are unchanged.
+ * </p>
+ */
+final class ResolvedUrl
+{
+    /**
+     * The Url. Can be <b>null</b> if the host name is missing.
+     */
+    final String url;
+
+    /**
+     * The Url as {@link URL}. Created on first access. Resolved Urls of a template are shared between threads.
+     */
+    private volatile URL javaUrl;
+
+    /**
+     * The query parameters the Url was built from or <b>null</b> if they can't change without notice.
+     */
+    private final Map<String, String> queryParams;
+
+    /**
+     * The placeholder values the Url was built from or <b>null</b> if they can't change without notice.
+     */
+    private final Map<String, String> placeholders;
+
+    /**
+     * The user name of the credentials the Url was built from.
+     */
+    private final String username;
+
+    /**
+     * The password of the credentials the Url was built from.
+     */
+    private final String password;
+
+    /**
+     * Constructor.
+     *
+     * @param url
+     *         The Url. Can be <b>null</b>.
+     * @param queryParams
+     *         The query parameters the Url was built from.
+     * @param placeholders
+     *         The placeholder values the Url was built from.
+     * @param credentials
+     *         The credentials the Url was built from. Can be <b>null</b>.
+     * @param exposed
+     *         <b>true</b> if the query parameters, placeholder values, or credentials can change without notice.
+     */
+    ResolvedUrl( final String url, final Map<String, String> queryParams, final Map<String, String> placeholders,
+                 final BasicAuthCredentials credentials, final boolean exposed )
+    {
+        this.url = url;
+        this.queryParams = exposed ? new HashMap<>( queryParams ) : null;
+        this.placeholders = exposed ? new HashMap<>( placeholders ) : null;
+        this.username = credentials != null ? credentials.getUsername() : null;
+        this.password = credentials != null ? credentials.getPassword() : null;
+    }
+
+    /**
+     * Checks whether this Url still matches the given configuration. Only the state that can change without notice is
+     * compared.
+     *
+     * @param queryParams
+     *         The current query parameters.
+     * @param placeholders
+     *         The current placeholder values.
+     * @param credentials
+     *         The current credentials. Can be <b>null</b>.
+     *
+     * @return <b>true</b> if the Url can be reused.
+     */
+    boolean isValid( final Map<String, String> queryParams, final Map<String, String> placeholders,
+                     final BasicAuthCredentials credentials )
+    {
+        if ( this.queryParams == null )
+            return true;
+
+        if ( credentials == null ? username != null
+                : !credentials.getUsername().equals( username ) || !credentials.getPassword().equals( password ) )
+            return false;
+
+        return this.queryParams.equals( queryParams ) && this.placeholders.equals( placeholders );
+    }
+
+    /**
+     * Returns the Url as {@link URL}. The Url is parsed on first access only.
+     *
+     * @return The Url as {@link URL}.
+     *
+     * @throws MalformedURLException
+     *         Thrown if the Url is invalid or missing.
+     */
+    URL toURL() throws MalformedURLException
+    {
+        URL javaUrl = this.javaUrl;
+        if ( javaUrl == null )
+        {
+            javaUrl = new URL( url );
+            this.javaUrl = javaUrl;
+        }
+
+        return javaUrl;
+    }
+}
@@ -0,0 +1,333 @@
+package com.xceptance.xrt;
+
+import com.gargoylesoftware.htmlunit.HttpMethod;
+import com.xceptance.xrt.annotation.*;
+import com.xceptance.xrt.annotation.authentication.BasicAuth;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * The precomputed settings of a resource definition class. All definition annotations of a class are read once and
+ * merged into the values that a {@link RESTCall} needs to apply. Every value that is not defined by the class is
+ * <b>null</b> and must not be applied.
+ * </p>
+ * <br>
+ * <p>
+ * Descriptors are immutable and cached per class. Use {@link #forClass(Class)} to get the descriptor of a resource
+ * definition class.
+ * </p>
+ */
+final class ResourceDescriptor
+{
+    /**
+     * The cache of all descriptors. Entries are bound to the life cycle of their class.
+     */
+    private static final ClassValue<ResourceDescriptor> descriptors = new ClassValue<ResourceDescriptor>()
+    {
+        @Override
+        protected ResourceDescriptor computeValue( final Class<?> type )
+        {
+            return new ResourceDescriptor( type );
+        }
+    };
+
+    /**
+     * The resource definition class.
+     */
+    final Class<?> type;
+
+    /**
+     * <b>true</b> if the class has the annotation {@link DisableDefaultValidation}.
+     */
+    final boolean defaultValidationDisabled;
+
+    /**
+     * <b>true</b> if the class implements {@link AutoValidatable}.
+     */
+    final boolean autoValidatable;
+
+    /**
+     * <b>true</b> if the class implements {@link PreProcessible}.
+     */
+    final boolean preProcessible;
+
+    /**
+     * Creates a new validator instance. <b>null</b> if the class doesn't implement {@link AutoValidatable} or if the
+     * constructor can't be accessed.
+     */
+    private final MethodHandle validatorConstructor;
+
+    /**
+     * The validator instance shared by all REST calls if the class has the annotation {@link StatelessValidator}.
+     */
+    private final AutoValidatable sharedValidator;
+
+    /**
+     * The exception or error that prevents creating validator instances. Can be <b>null</b>.
+     */
+    private final Throwable validatorError;
+
+    /**
+     * The action name.
+     */
+    final String actionName;
+
+    /**
+     * The protocol without separators.
+     */
+    final String protocol;
+
+    /**
+     * The user name for basic authentication.
+     */
+    final String username;
+
+    /**
+     * The password for basic authentication. Only set together with {@link #username}.
+     */
+    final String password;
+
+    /**
+     * The host name.
+     */
+    final String hostName;
+
+    /**
+     * The port.
+     */
+    final Integer port;
+
+    /**
+     * The base path.
+     */
+    final String basePath;
+
+    /**
+     * The resource path.
+     */
+    final String resourcePath;
+
+    /**
+     * The fragment.
+     */
+    final String fragment;
+
+    /**
+     * The query parameters. Never <b>null</b>.
+     */
+    final Map<String, String> queryParams;
+
+    /**
+     * The HTTP method.
+     */
+    final HttpMethod httpMethod;
+
+    /**
+     * The HTTP headers. Never <b>null</b>.
+     */
+    final Map<String, String> httpHeaders;
+
+    /**
+     * The placeholder values. Never <b>null</b>.
+     */
+    final Map<String, String> placeholders;
+
+    /**
+     * The annotation that defines the pre-processor.
+     */
+    final PreProcess preProcess;
+
+    /**
+     * Reads all definition annotations of the given class.
+     *
+     * @param type
+     *         The resource definition class.
+     */
+    private ResourceDescriptor( final Class<?> type )
+    {
+        this.type = type;
+        this.defaultValidationDisabled = type.isAnnotationPresent( DisableDefaultValidation.class );
+        this.autoValidatable = AutoValidatable.class.isAssignableFrom( type );
+        this.preProcessible = PreProcessible.class.isAssignableFrom( type );
+
+        // Validators. The constructor is looked up once. Stateless validators are even created only once.
+        MethodHandle validatorConstructor = null;
+        AutoValidatable sharedValidator = null;
+        Throwable validatorError = null;
+        if ( autoValidatable )
+        {
+            try
+            {
+                validatorConstructor = MethodHandles.lookup().findConstructor( type, MethodType.methodType( void.class ) )
+                                                    .asType( MethodType.methodType( AutoValidatable.class ) );
+
+                if ( type.isAnnotationPresent( StatelessValidator.class ) )
+                    sharedValidator = createValidator( validatorConstructor );
+            } catch ( Exception | Error e )
+            {
+                // Kept for newValidator(). Throwing here would fail the cached lookup of the descriptor on every call.
+                validatorError = e;
+            }
+        }
+        this.validatorConstructor = validatorConstructor;
+        this.sharedValidator = sharedValidator;
+        this.validatorError = validatorError;
+
+        // Url settings. The settings of the annotation override the ones of the base Url.
+        ResourceDefinition resourceDef = type.getAnnotation( ResourceDefinition.class );
+        UrlParts urlParts = resourceDef != null ? UrlParts.parse( resourceDef.baseUrl() ) : UrlParts.EMPTY;
+
+        if ( resourceDef != null && !resourceDef.protocol().isEmpty() )
+            this.protocol = RESTCall.sanitizeProtocol( resourceDef.protocol() );
+        else if ( urlParts.protocol != null && !urlParts.protocol.isEmpty() )
+            this.protocol = RESTCall.sanitizeProtocol( urlParts.protocol );
+        else
+            this.protocol = null;
+
+        this.hostName = urlParts.hostName;
+
+        if ( resourceDef != null && resourceDef.port() > 0 )
+            this.port = resourceDef.port();
+        else
+            this.port = urlParts.port;
+
+        if ( resourceDef != null && !resourceDef.basePath().isEmpty() )
+            this.basePath = RESTCall.sanitizeUrlPathSegment( resourceDef.basePath() );
+        else
+            this.basePath = urlParts.basePath;
+
+        if ( resourceDef != null && !resourceDef.resourcePath().isEmpty() )
+            this.resourcePath = RESTCall.sanitizeUrlPathSegment( resourceDef.resourcePath() );
+        else
+            this.resourcePath = urlParts.resourcePath;
+
+        Map<String, String> queryParams = new LinkedHashMap<>( urlParts.queryParams );
+        if ( resourceDef != null )
+        {
+            for ( QueryParameter param : resourceDef.queryParams() )
+                queryParams.put( param.name(), param.value() );
+        }
+        this.queryParams = Collections.unmodifiableMap( queryParams );
+
+        if ( resourceDef != null && !resourceDef.fragment().isEmpty() )
+            this.fragment = resourceDef.fragment();
+        else
+            this.fragment = urlParts.fragment;
+
+        if ( resourceDef != null && !resourceDef.actionName().isEmpty() )
+            this.actionName = resourceDef.actionName();
+        else
+            this.actionName = null;
+
+        // HTTP method
+        HttpMethodDefinition httpMethodDef = type.getAnnotation( HttpMethodDefinition.class );
+        this.httpMethod = httpMethodDef != null ? httpMethodDef.value() : null;
+
+        // HTTP headers
+        Map<String, String> httpHeaders = new LinkedHashMap<>();
+        HttpHeaderDefinition httpHeaderDef = type.getAnnotation( HttpHeaderDefinition.class );
+        if ( httpHeaderDef != null )
+        {
+            for ( HttpHeader header : httpHeaderDef.value() )
+                httpHeaders.put( header.name(), header.value() );
+        }
+        this.httpHeaders = Collections.unmodifiableMap( httpHeaders );
+
+        // Placeholders
+        Map<String, String> placeholders = new LinkedHashMap<>();
+        PlaceholderDefinition placeholderDef = type.getAnnotation( PlaceholderDefinition.class );
+        if ( placeholderDef != null )
+        {
+            for ( Placeholder placeholder : placeholderDef.value() )
+                placeholders.put( placeholder.name(), placeholder.value() );
+        }
+        this.placeholders = Collections.unmodifiableMap( placeholders );
+
+        // Pre-processor
+        this.preProcess = type.getAnnotation( PreProcess.class );
+
+        // Basic authentication. The annotation overrides the credentials of the base Url.
+        BasicAuth basicAuth = type.getAnnotation( BasicAuth.class );
+        if ( basicAuth != null )
+        {
+            this.username = basicAuth.username();
+            this.password = basicAuth.password();
+        } else
+        {
+            this.username = urlParts.username;
+            this.password = urlParts.password;
+        }
+    }
+
+    /**
+     * Returns the validator of a REST call. Stateless validators are shared, all others are created by the cached
+     * constructor handle.
+     *
+     * @return The validator.
+     *
+     * @throws Exception
+     *         Thrown if the class doesn't implement {@link AutoValidatable} or the validator can't be created. Errors of
+     *         the constructor are passed on as they are.
+     */
+    AutoValidatable newValidator() throws Exception
+    {
+        if ( validatorError instanceof Error )
+            throw ( Error ) validatorError;
+
+        if ( validatorError != null )
+            throw ( Exception ) validatorError;
+
+        if ( sharedValidator != null )
+            return sharedValidator;
+
+        if ( validatorConstructor == null )
+            throw new IllegalStateException( "Class '" + type.getName() + "' is not of type 'com.xceptance.xrt.AutoValidatable'." );
+
+        return createValidator( validatorConstructor );
+    }
+
+    /**
+     * Creates a validator with the given constructor handle. Errors are passed on as they are.
+     *
+     * @param constructor
+     *         The constructor handle.
+     *
+     * @return The validator.
+     *
+     * @throws Exception
+     *         Thrown by the constructor or if it can't be invoked.
+     */
+    private static AutoValidatable createValidator( final MethodHandle constructor ) throws Exception
+    {
+        try
+        {
+            return ( AutoValidatable ) constructor.invokeExact();
+        } catch ( Exception | Error e )
+        {
+            throw e;
+        } catch ( Throwable t )
+        {
+            throw new UndeclaredThrowableException( t );
+        }
+    }
+
+    /**
+     * Returns the descriptor of the given resource definition class. The annotations of the class are read only once.
+     *
+     * @param type
+     *         The resource definition class.
+     *
+     * @return The descriptor of the given class.
+     */
+    static ResourceDescriptor forClass( final Class<?> type )
+    {
+        return descriptors.get( type );
+    }
+}
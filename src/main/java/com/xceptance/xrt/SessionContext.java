@@ -0,0 +1,368 @@
+package com.xceptance.xrt;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.xceptance.xlt.api.engine.Session;
+import com.xceptance.xlt.api.engine.SessionShutdownListener;
+import com.xceptance.xlt.api.util.XltLogger;
+
+/**
+ * <p>
+ * Holds the XRT state of the current test case, i.e. the previously performed action, the pre-processor that is
+ * reused for the whole test case, and the snapshot of the {@link GlobalSettings}.
+ * </p>
+ * <br>
+ * <p>
+ * There is one context per XLT session. It registers itself as the only shutdown listener of its session and drops
+ * all state once the session ends. The next access afterwards creates a new context for the next test case.
+ * </p>
+ * <br>
+ * <p>
+ * Asynchronous REST calls of the test case run on a bounded executor owned by the root context, also if they are
+ * submitted from an executor thread. Its threads belong to the thread group of the test user and therefore to the
+ * same XLT session. Each of them keeps its own previous action and web client because web clients can't be shared
+ * between threads. The reusable pre-processor of the calling thread is handed over for the duration of a single call.
+ * All calls that use it at the same time share that one instance, {@link XltRESTAction} therefore lets only one call
+ * at a time pre-process with it. Calls that are still queued when the session ends are cancelled.
+ * </p>
+ * <br>
+ * <p>
+ * The XLT session itself is not built for concurrent actions. Its action timers, custom timers and events are logged
+ * from all threads, but request timers and errors are attributed to whichever action the session considers current.
+ * </p>
+ * <br>
+ * <p>
+ * Resources like connection pools and the settings snapshot are shared by all threads of the test user. Resources are
+ * closed when the session ends. Caches of immutable data that does not depend on the test user, e.g. compiled
+ * templates, JSON paths or class descriptors, are shared by all test users and are not part of the context.
+ * </p>
+ */
+final class SessionContext implements SessionShutdownListener
+{
+    /**
+     * The context of the current thread.
+     */
+    private static final ThreadLocal<SessionContext> current = new ThreadLocal<>();
+
+    /**
+     * The session this context belongs to.
+     */
+    private final Session session;
+
+    /**
+     * The context registered at the session. The context itself unless this is the context of an executor thread.
+     */
+    private final SessionContext root;
+
+    /**
+     * <b>false</b> once the session has ended.
+     */
+    private volatile boolean active = true;
+
+    /**
+     * The previously performed REST action. Can be <b>null</b>.
+     */
+    XltRESTAction previousAction;
+
+    /**
+     * The pre-processor used for the whole test case. Can be <b>null</b>.
+     */
+    PreProcessible reusablePreprocessor;
+
+    /**
+     * The snapshot of the global settings. Only used by the root context. Can be <b>null</b>.
+     */
+    private volatile GlobalSettings settings;
+
+    /**
+     * The executor of asynchronous REST calls. Created on first use. Only used by the root context.
+     */
+    private ThreadPoolExecutor executor;
+
+    /**
+     * The resources of the test user by key. Only used by the root context.
+     */
+    private final Map<Object, Closeable> resources = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param session
+     *         The session this context belongs to.
+     * @param root
+     *         The context registered at the session or <b>null</b> if this is the one.
+     */
+    private SessionContext( final Session session, final SessionContext root )
+    {
+        this.session = session;
+        this.root = root != null ? root : this;
+    }
+
+    /**
+     * Returns the context of the current session. A new context is created and registered if there is none yet or if
+     * the previous session has ended.
+     *
+     * @return The context of the current session.
+     */
+    static SessionContext getCurrent()
+    {
+        Session session = Session.getCurrent();
+
+        SessionContext context = current.get();
+        if ( context == null || !context.active || context.session != session )
+        {
+            context = new SessionContext( session, null );
+            session.addShutdownListener( context );
+            current.set( context );
+        }
+
+        return context;
+    }
+
+    /**
+     * Performs the given REST call on the executor of this context.
+     *
+     * @param call
+     *         The REST call.
+     *
+     * @return The future that completes with the REST call after it was performed and validated.
+     */
+    CompletableFuture<RESTCall> submit( final RESTCall call )
+    {
+        AsyncCall asyncCall = new AsyncCall( call );
+        root.getExecutor().execute( asyncCall );
+
+        return asyncCall.future;
+    }
+
+    /**
+     * Returns the resource of the test user with the given key. The resource is created on first access and closed when
+     * the session ends.
+     *
+     * @param key
+     *         The key of the resource.
+     * @param factory
+     *         Creates the resource.
+     *
+     * @return The resource.
+     */
+    @SuppressWarnings( "unchecked" )
+    <T extends Closeable> T getResource( final Object key, final Supplier<T> factory )
+    {
+        synchronized ( root.resources )
+        {
+            T resource = (T) root.resources.get( key );
+            if ( resource == null )
+            {
+                resource = factory.get();
+                root.resources.put( key, resource );
+            }
+
+            return resource;
+        }
+    }
+
+    /**
+     * Returns the snapshot of the global settings of the test case.
+     *
+     * @return The snapshot or <b>null</b> if none was read yet.
+     */
+    GlobalSettings getSettings()
+    {
+        return root.settings;
+    }
+
+    /**
+     * Sets the snapshot of the global settings of the test case.
+     *
+     * @param settings
+     *         The snapshot.
+     */
+    void setSettings( final GlobalSettings settings )
+    {
+        root.settings = settings;
+    }
+
+    /**
+     * Returns the executor of this context. The executor is created on first use with the number of threads defined in
+     * the global settings.
+     *
+     * @return The executor.
+     */
+    private synchronized ThreadPoolExecutor getExecutor()
+    {
+        if ( executor == null )
+        {
+            int threads = GlobalSettings.getCurrent().asyncThreads;
+            executor = new ThreadPoolExecutor( threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                                               new SessionThreadFactory( Thread.currentThread().getThreadGroup(),
+                                                                         session.getUserName() ) );
+            executor.allowCoreThreadTimeOut( true );
+        }
+
+        return executor;
+    }
+
+    /**
+     * Drops all state when the session ends.
+     */
+    @Override
+    public void shutdown()
+    {
+        active = false;
+        previousAction = null;
+        reusablePreprocessor = null;
+        settings = null;
+
+        synchronized ( this )
+        {
+            if ( executor != null )
+            {
+                for ( Runnable queued : executor.shutdownNow() )
+                    ( (AsyncCall) queued ).future.cancel( false );
+
+                executor = null;
+            }
+        }
+
+        synchronized ( resources )
+        {
+            for ( Closeable resource : resources.values() )
+            {
+                try
+                {
+                    resource.close();
+                }
+                catch ( IOException e )
+                {
+                    XltLogger.runTimeLogger.warn( "Failed to close resource of the test case.", e );
+                }
+            }
+
+            resources.clear();
+        }
+
+        if ( current.get() == this )
+            current.remove();
+    }
+
+    /**
+     * A REST call that is performed asynchronously.
+     */
+    private final class AsyncCall implements Runnable
+    {
+        /**
+         * The REST call.
+         */
+        private final RESTCall call;
+
+        /**
+         * The reusable pre-processor of the calling thread at the time of submission. Can be <b>null</b>.
+         */
+        private final PreProcessible preprocessor;
+
+        /**
+         * Completed with the REST call or the error of the REST call.
+         */
+        private final CompletableFuture<RESTCall> future = new CompletableFuture<>();
+
+        /**
+         * Constructor.
+         *
+         * @param call
+         *         The REST call.
+         */
+        private AsyncCall( final RESTCall call )
+        {
+            this.call = call;
+            this.preprocessor = reusablePreprocessor;
+        }
+
+        @Override
+        public void run()
+        {
+            // Cancelled by the caller.
+            if ( future.isDone() )
+                return;
+
+            // Bind the thread to the session of the test user. The thread keeps its own context with its own previous
+            // action. It isn't registered at the session because it ends together with the executor.
+            SessionContext context = current.get();
+            if ( context == null )
+            {
+                context = new SessionContext( session, root );
+                current.set( context );
+            }
+
+            // Use the reusable pre-processor of the calling thread for this call only. Neither the call nor the
+            // context of the calling thread are changed.
+            context.reusablePreprocessor = preprocessor;
+            try
+            {
+                future.complete( call.process() );
+            }
+            catch ( Throwable t )
+            {
+                future.completeExceptionally( t );
+            }
+            finally
+            {
+                context.reusablePreprocessor = null;
+            }
+        }
+    }
+
+    /**
+     * Creates the threads of asynchronous REST calls in the thread group of the test user.
+     */
+    private static final class SessionThreadFactory implements ThreadFactory
+    {
+        /**
+         * The thread group of the test user.
+         */
+        private final ThreadGroup group;
+
+        /**
+         * The prefix of the thread names.
+         */
+        private final String namePrefix;
+
+        /**
+         * The number of created threads.
+         */
+        private final AtomicInteger count = new AtomicInteger();
+
+        /**
+         * Constructor.
+         *
+         * @param group
+         *         The thread group of the test user.
+         * @param userName
+         *         The name of the test user.
+         */
+        private SessionThreadFactory( final ThreadGroup group, final String userName )
+        {
+            this.group = group;
+            this.namePrefix = userName + "-xrt-async-";
+        }
+
+        @Override
+        public Thread newThread( final Runnable runnable )
+        {
+            Thread thread = new Thread( group, runnable, namePrefix + count.incrementAndGet() );
+            thread.setDaemon( true );
+
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.xceptance.xrt;
+
+import com.xceptance.xrt.authentication.MissingUserNameException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Result of splitting an Url into its individual elements, e.g. host name, port, query parameters, ... Every element
+ * that was not part of the Url is <b>null</b> and must not be applied to a {@link RESTCall}. Instances are not modified
+ * after parsing and can therefore be shared.
+ */
+final class UrlParts
+{
+    /**
+     * The parts of an empty Url.
+     */
+    static final UrlParts EMPTY = new UrlParts();
+
+    /**
+     * The protocol without separators, e.g. <b>http</b>.
+     */
+    String protocol;
+
+    /**
+     * The user name for basic authentication.
+     */
+    String username;
+
+    /**
+     * The password for basic authentication. Only set together with {@link #username}.
+     */
+    String password;
+
+    /**
+     * The host name, e.g. <b>xceptance.com</b>.
+     */
+    String hostName;
+
+    /**
+     * The port, e.g. <b>8080</b>.
+     */
+    Integer port;
+
+    /**
+     * The base path without leading and trailing slashes.
+     */
+    String basePath;
+
+    /**
+     * The last path element of the Url.
+     */
+    String resourcePath;
+
+    /**
+     * The query parameters in the order of their appearance. Never <b>null</b>.
+     */
+    Map<String, String> queryParams = Collections.emptyMap();
+
+    /**
+     * The fragment without the leading '#'.
+     */
+    String fragment;
+
+    /**
+     * Private constructor. Use {@link #parse(String)} instead.
+     */
+    private UrlParts()
+    {
+    }
+
+    /**
+     * Splits the Url into its individual elements, e.g. host name, port, query parameters, ... It assumes that the
+     * last path element is the identifier for the resource.
+     * <p>
+     * The Url is scanned once. Only the offsets of the elements are recorded and only the final elements are copied
+     * out of the Url. Multiple slashes, query parameter separators, and fragment separators are reduced to single ones
+     * while copying.
+     * </p>
+     *
+     * @param url
+     *         The url that needs to be processes. Should already be Url encoded.
+     *
+     * @return The elements of the Url.
+     *
+     * @throws MissingUserNameException
+     *         Thrown if the Url contains basic authentication credentials without a user name.
+     */
+    static UrlParts parse( final String url )
+    {
+        // If there is no url or if it's an empty String abort without doing
+        // anything
+        if ( url == null || url.isEmpty() )
+            return EMPTY;
+
+        UrlParts parts = new UrlParts();
+        final int length = url.length();
+        int start = 0;
+
+        // Check if the url has a protocol, if yes extract it
+        int index = url.indexOf( "://" );
+        if ( index != -1 )
+        {
+            parts.protocol = url.substring( 0, index );
+            start = index + 3;
+        }
+
+        // Check if the rest of the Url is empty.
+        if ( start == length )
+            return parts;
+
+        // Check if there are basic authentication credentials
+        index = url.indexOf( '@', start );
+        if ( index != -1 )
+        {
+            if ( index > start )
+            {
+                // find the credentials separator
+                int sepIndex = url.indexOf( ':', start );
+                // no separator => only username
+                if ( sepIndex == -1 || sepIndex > index )
+                    parts.setCredentials( url.substring( start, index ), "" );
+                else
+                    parts.setCredentials( url.substring( start, sepIndex ), url.substring( sepIndex + 1, index ) );
+            }
+
+            start = index + 1;
+        }
+
+        // Find the separators of all remaining elements in a single pass.
+        int hostEnd = -1;
+        int lastSlash = -1;
+        int query = -1;
+        int fragment = -1;
+        for ( int i = start; i < length; i++ )
+        {
+            char c = url.charAt( i );
+            if ( c == '#' )
+            {
+                fragment = i;
+                break;
+            }
+
+            // Slashes and further separators belong to the query string.
+            if ( query != -1 )
+                continue;
+
+            if ( c == '?' )
+                query = i;
+            else if ( c == '/' )
+            {
+                if ( hostEnd == -1 )
+                    hostEnd = i;
+                else if ( url.charAt( i - 1 ) != '/' )
+                    lastSlash = i;
+            }
+        }
+
+        // Check if there is a fragment at the end of the Url. A second fragment is dropped.
+        int end = length;
+        if ( fragment != -1 )
+        {
+            int fragmentStart = skip( url, fragment, '#' );
+            int fragmentEnd = url.indexOf( '#', fragmentStart );
+
+            parts.fragment = slice( url, fragmentStart, fragmentEnd == -1 ? length : fragmentEnd );
+            end = fragment;
+        }
+
+        // Check if the rest of the Url is empty.
+        if ( start == end )
+            return parts;
+
+        // Check if there are query parameters.
+        if ( query != -1 )
+        {
+            parts.queryParams = splitQueryString( url, skip( url, query, '?' ), end );
+            end = query;
+        }
+
+        // Check if the rest of the Url is empty.
+        if ( start == end )
+            return parts;
+
+        // Get the host name and port if present.
+        int hostAndPortEnd = hostEnd != -1 ? hostEnd : end;
+        index = url.indexOf( ':', start );
+        if ( index != -1 && index < hostAndPortEnd )
+        {
+            if ( index != start )
+                parts.hostName = url.substring( start, index );
+
+            // Check if there is a port and if it's a numerical value.
+            if ( index + 1 < hostAndPortEnd && isNumeric( url, index + 1, hostAndPortEnd ) )
+                parts.port = Integer.valueOf( url.substring( index + 1, hostAndPortEnd ) );
+        } else
+            parts.hostName = url.substring( start, hostAndPortEnd );
+
+        // Check if the rest of the Url is empty.
+        if ( hostEnd == -1 )
+            return parts;
+
+        int pathStart = skip( url, hostEnd, '/' );
+        if ( pathStart == end )
+            return parts;
+
+        // Check if there is at least one more element in the Url path. If so
+        // take the last one as the resource path and the rest as the base path.
+        if ( lastSlash == -1 )
+        {
+            parts.basePath = url.substring( pathStart, end );
+        } else
+        {
+            parts.resourcePath = url.substring( skip( url, lastSlash, '/' ), end );
+            parts.basePath = slice( url, pathStart, lastSlash );
+        }
+
+        return parts;
+    }
+
+    /**
+     * Returns <b>true</b> if the Url contained basic authentication credentials.
+     *
+     * @return <b>true</b> if the Url contained basic authentication credentials, <b>false</b> if not.
+     */
+    boolean hasCredentials()
+    {
+        return username != null;
+    }
+
+    /**
+     * Removes multiple slashes from an Url without protocol.
+     *
+     * @param url
+     *         The Url that contains multiple slashes.
+     *
+     * @return An Url that only has single slashes. The given Url if there are no multiple slashes.
+     */
+    static String removeMultipleSlashes( final String url )
+    {
+        int index = url.indexOf( "//" );
+        if ( index == -1 )
+            return url;
+
+        StringBuilder builder = new StringBuilder( url.length() - 1 ).append( url, 0, index + 1 );
+        for ( int i = index + 2; i < url.length(); i++ )
+        {
+            char c = url.charAt( i );
+            if ( c != '/' || url.charAt( i - 1 ) != '/' )
+                builder.append( c );
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Sets the basic authentication credentials. A user name is required.
+     *
+     * @param username
+     *         The user name.
+     * @param password
+     *         The password.
+     *
+     * @throws MissingUserNameException
+     *         Thrown if no username was provided.
+     */
+    private void setCredentials( final String username, final String password )
+    {
+        if ( username.isEmpty() )
+            throw new MissingUserNameException();
+
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Splits the query string of an Url into its individual parameters.
+     *
+     * @param url
+     *         The Url.
+     * @param start
+     *         The index of the query string, i.e. the first character after '?'.
+     * @param end
+     *         The end of the query string, i.e. the index of '#' or the end of the Url.
+     *
+     * @return The query parameters in the order of their appearance.
+     */
+    private static Map<String, String> splitQueryString( final String url, final int start, final int end )
+    {
+        Map<String, String> queryParams = new LinkedHashMap<>();
+
+        // Loop through all key - value pairs separated by '&' and split at the
+        // first '='. Pairs without key or value separator are ignored.
+        int pairStart = start;
+        while ( pairStart < end )
+        {
+            int pairEnd = url.indexOf( '&', pairStart );
+            if ( pairEnd == -1 || pairEnd > end )
+                pairEnd = end;
+
+            int index = url.indexOf( '=', pairStart );
+            if ( index > pairStart && index < pairEnd )
+                queryParams.put( slice( url, pairStart, index ), slice( url, index + 1, pairEnd ) );
+
+            pairStart = pairEnd + 1;
+        }
+
+        return Collections.unmodifiableMap( queryParams );
+    }
+
+    /**
+     * Returns the index after the run of the given separator that starts at the given index.
+     *
+     * @param url
+     *         The Url.
+     * @param index
+     *         The index of the first separator.
+     * @param separator
+     *         The separator.
+     *
+     * @return The index of the first character that is not the separator.
+     */
+    private static int skip( final String url, int index, final char separator )
+    {
+        while ( index < url.length() && url.charAt( index ) == separator )
+            index++;
+
+        return index;
+    }
+
+    /**
+     * Checks whether the given part of the Url consists of the digits 0-9 only.
+     *
+     * @param url
+     *         The Url.
+     * @param start
+     *         The start of the part, inclusive.
+     * @param end
+     *         The end of the part, exclusive.
+     *
+     * @return <b>true</b> if the part is numeric.
+     */
+    private static boolean isNumeric( final String url, final int start, final int end )
+    {
+        for ( int i = start; i < end; i++ )
+        {
+            char c = url.charAt( i );
+            if ( c < '0' || c > '9' )
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Copies a part of the Url. Multiple slashes, query parameter separators, and fragment separators are reduced to
+     * single ones. The part is copied as is if there are none.
+     *
+     * @param url
+     *         The Url.
+     * @param start
+     *         The start of the part, inclusive.
+     * @param end
+     *         The end of the part, exclusive.
+     *
+     * @return The part of the Url.
+     */
+    private static String slice( final String url, final int start, final int end )
+    {
+        StringBuilder builder = null;
+        for ( int i = start + 1; i < end; i++ )
+        {
+            char c = url.charAt( i );
+            boolean repeated = c == url.charAt( i - 1 ) && ( c == '/' || c == '?' || c == '#' );
+
+            if ( builder != null )
+            {
+                if ( !repeated )
+                    builder.append( c );
+            } else if ( repeated )
+                builder = new StringBuilder( end - start ).append( url, start, i );
+        }
+
+        return builder != null ? builder.toString() : url.substring( start, end );
+    }
+}
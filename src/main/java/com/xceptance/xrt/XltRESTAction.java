@@ -4,11 +4,10 @@ import com.gargoylesoftware.htmlunit.WebRequest;
 import com.gargoylesoftware.htmlunit.WebResponse;
 import com.xceptance.xlt.api.actions.AbstractLightWeightPageAction;
 import com.xceptance.xlt.api.htmlunit.LightWeightPage;
-import com.xceptance.xlt.api.util.XltLogger;
 import com.xceptance.xlt.engine.LightWeightPageImpl;
 import com.xceptance.xlt.engine.XltWebClient;
 
-import java.net.URL;
+import java.util.HashMap;
 
 /**
  * This class performs the REST call as configured in the REST call instance.
@@ -23,6 +22,11 @@ public class XltRESTAction extends AbstractLightWeightPageAction
      */
     protected final RESTCall restCall;
 
+    /**
+     * Measures the phases of the REST call. <b>null</b> if phase timers are disabled.
+     */
+    private final RESTCallPhases phases;
+
     /**
      * Constructor with minimum settings.
      * 
@@ -30,9 +34,23 @@ public class XltRESTAction extends AbstractLightWeightPageAction
      *            The instance that provides all settings for the REST call.
      */
     public XltRESTAction( RESTCall restCall )
+    {
+        this( restCall, null );
+    }
+
+    /**
+     * Constructor that measures the phases of the REST call.
+     *
+     * @param restCall
+     *         The instance that provides all settings for the REST call.
+     * @param phases
+     *         Measures the phases of the REST call. Can be <b>null</b>.
+     */
+    XltRESTAction( final RESTCall restCall, final RESTCallPhases phases )
     {
         super( restCall.getPreviousAction(), restCall.getActionName() );
         this.restCall = restCall;
+        this.phases = phases;
     }
 
     /**
@@ -44,8 +62,19 @@ public class XltRESTAction extends AbstractLightWeightPageAction
     public void preValidate() throws Exception
     {
         // Perform pre-processing
-        if(restCall.getPreprocessor() != null)
-            restCall.getPreprocessor().preProcess(restCall);
+        PreProcessible preprocessor = restCall.getPreprocessor();
+        if ( preprocessor != null )
+        {
+            long start = phases != null ? RESTCallPhases.start() : 0;
+
+            // A reusable pre-processor is shared with the asynchronous calls of the test user. Use it one at a time.
+            synchronized ( preprocessor )
+            {
+                preprocessor.preProcess( restCall );
+            }
+            if ( phases != null )
+                phases.stop( RESTCallPhases.PREPROCESS, start );
+        }
     }
 
     /**
@@ -56,47 +85,76 @@ public class XltRESTAction extends AbstractLightWeightPageAction
     @Override
     protected void execute() throws Exception
     {
-        // Call it once for debugging and execution for better performance.
+        long start = phases != null ? RESTCallPhases.start() : 0;
+
+        // Call it once for tracing and execution for better performance.
         String url = restCall.getUrl();
+        String requestBody = restCall.getRequestBody();
+        RequestBody binaryRequestBody = restCall.getBinaryRequestBody();
+        RESTTransport transport = restCall.getTransport();
 
-        // DEBUGGING - log URL, HTTP method, and HTTP headers
-        XltLogger.runTimeLogger.debug( "Start REST call..." );
-        XltLogger.runTimeLogger.debug( "# Request - URL:\t\t" + url );
-        XltLogger.runTimeLogger.debug( "# Request - HTTP method:\t" + restCall.getHttpMethod() );
-        XltLogger.runTimeLogger.debug( "# Request - HTTP headers:\t" + restCall.getHttpHeaders().toString() );
+        // TRACING - null if this call is not traced
+        RESTCallTracer tracer = RESTCallTracer.forCall( restCall );
+        if ( tracer != null )
+            tracer.traceRequest( url, binaryRequestBody != null ? binaryRequestBody.toString() : requestBody );
 
         // Setup the request.
-        WebRequest request = new WebRequest( new URL( url ), restCall.getHttpMethod() );
-        request.setAdditionalHeaders( restCall.getHttpHeaders() );
+        WebRequest request = new WebRequest( restCall.toURL(), restCall.getHttpMethod() );
+        // The request adds its default headers to the given map. Hand over a copy to keep the configuration clean.
+        request.setAdditionalHeaders( new HashMap<>( restCall.readHttpHeaders() ) );
 
         // Set request body.
-        if ( restCall.hasRequestBody() )
+        if ( requestBody != null )
+            request.setRequestBody( requestBody );
+        else if ( binaryRequestBody != null )
         {
-            // Call it once for debugging and execution for better performance.
-            String requestBody = restCall.getRequestBody();
+            request.setAdditionalHeader( "Content-Type", binaryRequestBody.contentType );
 
-            // DEBUGGING - log request body
-            XltLogger.runTimeLogger.debug( "# Request - Body:\t" + requestBody );
-
-            request.setRequestBody( requestBody );
+            // The lean transports send the binary body as is. Others get it as String that restores the original bytes.
+            if ( transport != RESTTransport.LEAN && transport != RESTTransport.HTTP2 )
+            {
+                request.setCharset( "ISO-8859-1" );
+                request.setRequestBody( binaryRequestBody.toLatin1String() );
+            }
         }
-        
+
         // Avoid caching of REST documents
         request.setDocumentRequest();
 
+        if ( phases != null )
+        {
+            phases.stop( RESTCallPhases.PREPARE, start );
+            start = RESTCallPhases.start();
+        }
+
         // Make the call and store the response and previous action.
-        WebResponse response = getWebClient().loadWebResponse( request );
+        WebResponse response = transport.send( request, this );
+        if ( phases != null )
+            phases.stop( RESTCallPhases.TRANSPORT, start );
+
         restCall.setRESTResponse( response );
         restCall.setPreviousAction( this );
-        
+
+        // TRACING - log response code, response HTTP headers, and response body
+        if ( tracer != null )
+            tracer.traceResponse( response );
+    }
+
+    /**
+     * Provides the response as page for the results browser.
+     *
+     * @param response
+     *         The response of the REST call.
+     */
+    void setResultPage( final WebResponse response )
+    {
+        long start = phases != null ? RESTCallPhases.start() : 0;
+
         // Provide timer name to set the resulting page (in results browser)
-        setLightWeightPage(new LightWeightPageImpl(response, getTimerName(), (XltWebClient)getWebClient()));
+        setLightWeightPage( new LightWeightPageImpl( response, getTimerName(), (XltWebClient) getWebClient() ) );
 
-        // DEBUGGING - log response code, response HTTP headers, and response body
-        XltLogger.runTimeLogger.debug( "Getting response..." );
-        XltLogger.runTimeLogger.debug( "# Response - Status code:\t" + response.getStatusCode() );
-        XltLogger.runTimeLogger.debug( "# Response - HTTP header:\t" + response.getResponseHeaders().toString() );
-        XltLogger.runTimeLogger.debug( "# Response - Body:\t" + response.getContentAsString() );
+        if ( phases != null )
+            phases.stopNested( RESTCallPhases.PAGE, RESTCallPhases.TRANSPORT, start );
     }
 
     /**
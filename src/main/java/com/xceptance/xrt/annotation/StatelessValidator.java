@@ -0,0 +1,17 @@
+package com.xceptance.xrt.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a resource definition that implements {@link com.xceptance.xrt.AutoValidatable} as stateless. XRT creates a
+ * single instance of the class and shares it between all REST calls and threads instead of creating a new instance per
+ * REST call. The class must not keep any state in its fields.
+ */
+@Retention( RetentionPolicy.RUNTIME )
+@Target( ElementType.TYPE )
+public @interface StatelessValidator
+{
+}
@@ -0,0 +1,169 @@
+package com.xceptance.xrt.document;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.Matchers;
+
+import com.jayway.jsonassert.JsonAsserter;
+import com.jayway.jsonpath.InvalidPathException;
+
+/**
+ * <p>
+ * {@link JsonAsserter} that works on an already parsed JSON document and reads all values via the compiled paths of
+ * {@link JsonPaths}. The assertion semantics and messages are the same as the ones of
+ * {@link com.jayway.jsonassert.impl.JsonAsserterImpl JsonAsserterImpl}, which compiles the path of every assertion
+ * again.
+ * </p>
+ */
+final class DocumentAsserter implements JsonAsserter
+{
+    /**
+     * The parsed JSON document.
+     */
+    private final Object document;
+
+    /**
+     * Constructor.
+     *
+     * @param document
+     *         The parsed JSON document.
+     */
+    DocumentAsserter( final Object document )
+    {
+        this.document = document;
+    }
+
+    @Override
+    public <T> JsonAsserter assertThat( final String path, final Matcher<T> matcher )
+    {
+        verifyMatch( path, matcher, null, JsonPaths.read( document, path ) );
+        return this;
+    }
+
+    @Override
+    public <T> JsonAsserter assertThat( final String path, final Matcher<T> matcher, final String message )
+    {
+        verifyMatch( path, matcher, message, JsonPaths.read( document, path ) );
+        return this;
+    }
+
+    @Override
+    public <T> JsonAsserter assertEquals( final String path, final T expected )
+    {
+        return assertThat( path, Matchers.equalTo( expected ) );
+    }
+
+    @Override
+    public <T> JsonAsserter assertEquals( final String path, final T expected, final String message )
+    {
+        return assertThat( path, Matchers.equalTo( expected ), message );
+    }
+
+    @Override
+    public JsonAsserter assertNotDefined( final String path )
+    {
+        try
+        {
+            JsonPaths.read( document, path );
+        }
+        catch ( InvalidPathException e )
+        {
+            return this;
+        }
+
+        throw notDefinedError( path );
+    }
+
+    @Override
+    public JsonAsserter assertNotDefined( final String path, final String message )
+    {
+        // Same as JsonAsserterImpl: the message is not part of the error.
+        return assertNotDefined( path );
+    }
+
+    @Override
+    public JsonAsserter assertNull( final String path )
+    {
+        return assertThat( path, Matchers.nullValue() );
+    }
+
+    @Override
+    public JsonAsserter assertNull( final String path, final String message )
+    {
+        return assertThat( path, Matchers.nullValue(), message );
+    }
+
+    @Override
+    public <T> JsonAsserter assertNotNull( final String path )
+    {
+        return assertThat( path, Matchers.notNullValue() );
+    }
+
+    @Override
+    public <T> JsonAsserter assertNotNull( final String path, final String message )
+    {
+        return assertThat( path, Matchers.notNullValue(), message );
+    }
+
+    @Override
+    public JsonAsserter and()
+    {
+        return this;
+    }
+
+    /**
+     * Verifies that the actual value satisfies the matcher.
+     *
+     * @param path
+     *         The JSON path of the value.
+     * @param matcher
+     *         The matcher the value must satisfy.
+     * @param message
+     *         The message of the {@link AssertionError}. Can be <b>null</b>.
+     * @param actual
+     *         The actual value.
+     */
+    static void verifyMatch( final String path, final Matcher<?> matcher, final String message, final Object actual )
+    {
+        if ( matcher.matches( actual ) )
+            return;
+
+        if ( message == null )
+            throw new AssertionError( String.format( "JSON path [%s] doesn't match.\nExpected:\n%s\nActual:\n%s", path,
+                    matcher.toString(), actual ) );
+
+        throw new AssertionError( String.format( "JSON Assert Error: %s\nExpected:\n%s\nActual:\n%s", message,
+                matcher.toString(), actual ) );
+    }
+
+    /**
+     * Creates the error for a path that is defined but was expected not to.
+     *
+     * @param path
+     *         The JSON path.
+     *
+     * @return The assertion error.
+     */
+    static AssertionError notDefinedError( final String path )
+    {
+        return new AssertionError( String.format( "Document contains the path <%s> but was expected not to.", path ) );
+    }
+
+    /**
+     * Creates the error for a path that is defined but was expected not to.
+     *
+     * @param path
+     *         The JSON path.
+     * @param message
+     *         The message of the {@link AssertionError}. Can be <b>null</b>.
+     *
+     * @return The assertion error.
+     */
+    static AssertionError notDefinedError( final String path, final String message )
+    {
+        if ( message == null )
+            return notDefinedError( path );
+
+        return new AssertionError( String.format( "JSON Assert Error: %s\nDocument contains the path <%s> but was " +
+                "expected not to.", message, path ) );
+    }
+}
@@ -2,11 +2,11 @@ package com.xceptance.xrt.document;
 
 import org.hamcrest.Matcher;
 
-import com.jayway.jsonassert.JsonAssert;
 import com.jayway.jsonassert.JsonAsserter;
 import com.jayway.jsonpath.Filter;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
+import com.jayway.jsonpath.spi.JsonProviderFactory;
 
 /**
  * This class manages everything around JSON documents. It allows to create new
@@ -14,6 +14,11 @@ import com.jayway.jsonpath.PathNotFoundException;
  * time allows a simple access to all properties via JSONPath. With the use of
  * different assertions the validation of JSON documents should be as easy as
  * possible.
+ * <p>
+ * The document is parsed once on first access. All getters and assertions read
+ * from the same parsed document and use compiled JSON paths that are shared
+ * between all instances.
+ * </p>
  * 
  * @author Patrick Thaele
  * 
@@ -26,9 +31,15 @@ public class JSON
 
     /**
      * Object that allows assertions on the current JSON instance. Changes to
-     * the JSON document always need to update the asserter.
+     * the JSON document always need to update the asserter. Created on first
+     * access.
      */
-    JsonAsserter asserter;
+    volatile JsonAsserter asserter;
+
+    /**
+     * The parsed JSON document. Parsed on first access.
+     */
+    volatile Object document;
 
     /**
      * The JSON content.
@@ -47,7 +58,6 @@ public class JSON
      */
     public JSON( String json )
     {
-        this.asserter = JsonAssert.with( json );
         this.json = json;
     }
 
@@ -57,9 +67,8 @@ public class JSON
 
     /**
      * Gets a property of the JSON via a specified jsonPath and an optional
-     * filter. This method uses the
-     * {@link JsonPath#read(String, String, Filter...)} method. On details how
-     * to use the filter please see <a
+     * filter. This method uses the {@link JsonPath#read(Object)} method of a
+     * compiled path. On details how to use the filter please see <a
      * href="http://code.google.com/p/json-path">JSON-Path documentation</a>.
      * 
      * @param <T>
@@ -73,7 +82,7 @@ public class JSON
      */
     public <T> T get( String jsonPath, Filter<?>... filters )
     {
-        return JsonPath.read( this.toString(), jsonPath, filters );
+        return JsonPaths.read( getDocument(), jsonPath, filters );
     }
 
     /**
@@ -108,6 +117,45 @@ public class JSON
         return this.json;
     }
 
+    /****************************************************************************************
+     ************************ Private Methods ***********************************************
+     ****************************************************************************************/
+
+    /**
+     * Returns the parsed JSON document. The document is parsed on first access.
+     * 
+     * @return The parsed JSON document.
+     */
+    private Object getDocument()
+    {
+        Object document = this.document;
+        if ( document == null )
+        {
+            document = JsonProviderFactory.createProvider().parse( this.json );
+            this.document = document;
+        }
+
+        return document;
+    }
+
+    /**
+     * Returns the asserter that works on the parsed JSON document. The asserter
+     * is created on first access.
+     * 
+     * @return The asserter of this JSON instance.
+     */
+    private JsonAsserter getAsserter()
+    {
+        JsonAsserter asserter = this.asserter;
+        if ( asserter == null )
+        {
+            asserter = new DocumentAsserter( getDocument() );
+            this.asserter = asserter;
+        }
+
+        return asserter;
+    }
+
     /****************************************************************************************
      ************************ Public Methods - Asserts **************************************
      ****************************************************************************************/
@@ -134,7 +182,7 @@ public class JSON
      */
     public <T> JSON assertEquals( T expected, String path )
     {
-        this.asserter.assertEquals( path, expected );
+        getAsserter().assertEquals( path, expected );
         return this;
     }
 
@@ -157,7 +205,7 @@ public class JSON
      */
     public <T> JSON assertEquals( String message, T expected, String path )
     {
-        this.asserter.assertEquals( path, expected, message );
+        getAsserter().assertEquals( path, expected, message );
         return this;
     }
 
@@ -173,7 +221,7 @@ public class JSON
      */
     public JSON assertNotDefined( String path )
     {
-        this.asserter.assertNotDefined( path );
+        getAsserter().assertNotDefined( path );
         return this;
     }
 
@@ -193,7 +241,7 @@ public class JSON
      */
     public JSON assertNotDefined( String message, String path )
     {
-        this.asserter.assertNotDefined( path, message );
+        getAsserter().assertNotDefined( path, message );
         return this;
     }
 
@@ -208,7 +256,7 @@ public class JSON
      */
     public JSON assertNotNull( String path )
     {
-        this.asserter.assertNotNull( path );
+        getAsserter().assertNotNull( path );
         return this;
     }
 
@@ -227,7 +275,7 @@ public class JSON
      */
     public JSON assertNotNull( String message, String path )
     {
-        this.asserter.assertNotNull( path, message );
+        getAsserter().assertNotNull( path, message );
         return this;
     }
 
@@ -242,7 +290,7 @@ public class JSON
      */
     public JSON assertNull( String path )
     {
-        this.asserter.assertNull( path );
+        getAsserter().assertNull( path );
         return this;
     }
 
@@ -261,7 +309,7 @@ public class JSON
      */
     public JSON assertNull( String message, String path )
     {
-        this.asserter.assertNull( path, message );
+        getAsserter().assertNull( path, message );
         return this;
     }
 
@@ -295,7 +343,7 @@ public class JSON
      */
     public <T> JSON assertThat( Matcher<T> matcher, String path )
     {
-        this.asserter.assertThat( path, matcher );
+        getAsserter().assertThat( path, matcher );
         return this;
     }
 
@@ -333,7 +381,7 @@ public class JSON
      */
     public <T> JSON assertThat( String message, Matcher<T> matcher, String path )
     {
-        this.asserter.assertThat( path, matcher, message );
+        getAsserter().assertThat( path, matcher, message );
         return this;
     }
 }
@@ -0,0 +1,86 @@
+package com.xceptance.xrt.document;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.jayway.jsonpath.Filter;
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * <p>
+ * Provides compiled {@link JsonPath} instances. Compiling a path tokenizes the expression, which is the same work for
+ * every document. Paths without filters are therefore compiled once and shared between all threads via a bounded
+ * cache that is keyed by the expression.
+ * </p>
+ * <br>
+ * <p>
+ * Paths with filters are compiled per call because filters are mutable objects provided by the caller.
+ * </p>
+ */
+final class JsonPaths
+{
+    /**
+     * The maximum number of compiled paths held in the cache. The cache is flushed completely once this limit is
+     * reached to keep the memory footprint bounded, e.g. when paths are built dynamically.
+     */
+    private static final int CACHE_CAPACITY = 1024;
+
+    /**
+     * All compiled paths without filters shared by all threads.
+     */
+    private static final ConcurrentHashMap<String, JsonPath> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor. Utility class.
+     */
+    private JsonPaths()
+    {
+    }
+
+    /**
+     * Returns the compiled path for the given expression and filters.
+     *
+     * @param path
+     *         The JSON path expression.
+     * @param filters
+     *         Optional filters that allow to select certain items for lists.
+     *
+     * @return The compiled path.
+     */
+    static JsonPath compile( final String path, final Filter<?>... filters )
+    {
+        if ( filters != null && filters.length > 0 )
+            return JsonPath.compile( path, filters );
+
+        JsonPath compiled = cache.get( path );
+        if ( compiled != null )
+            return compiled;
+
+        compiled = JsonPath.compile( path );
+
+        if ( cache.size() >= CACHE_CAPACITY )
+            cache.clear();
+
+        cache.put( path, compiled );
+
+        return compiled;
+    }
+
+    /**
+     * Reads the value of the given path from an already parsed JSON document.
+     *
+     * @param <T>
+     *         Auto calculated return type.
+     * @param document
+     *         The parsed JSON document.
+     * @param path
+     *         The JSON path expression.
+     * @param filters
+     *         Optional filters that allow to select certain items for lists.
+     *
+     * @return The value of the requested JSON property.
+     */
+    static <T> T read( final Object document, final String path, final Filter<?>... filters )
+    {
+        return compile( path, filters ).read( document );
+    }
+}
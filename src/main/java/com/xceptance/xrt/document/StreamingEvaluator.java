@@ -0,0 +1,402 @@
+package com.xceptance.xrt.document;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+
+import com.jayway.jsonpath.PathNotFoundException;
+
+/**
+ * <p>
+ * Evaluates a set of {@link StreamingPath}s in a single forward pass over a JSON token stream. Only the values that
+ * are selected by a path are materialized. Subtrees that no path can reach are skipped without building any objects.
+ * </p>
+ * <br>
+ * <p>
+ * If all paths are definite, the pass stops as soon as every path has been found. An evaluator is used for one pass
+ * only and is not thread-safe.
+ * </p>
+ */
+final class StreamingEvaluator
+{
+    /**
+     * The result of a single path.
+     */
+    static final class Result
+    {
+        /**
+         * The evaluated path.
+         */
+        final StreamingPath path;
+
+        /**
+         * All values found for the path.
+         */
+        final List<Object> values = new ArrayList<>( 1 );
+
+        /**
+         * <b>true</b> if the parent of a definite path exists and is an object. A missing last property is then
+         * treated as <b>null</b>, the same as {@link com.jayway.jsonpath.JsonPath JsonPath} does.
+         */
+        boolean parentIsObject;
+
+        /**
+         * Constructor.
+         *
+         * @param path
+         *         The evaluated path.
+         */
+        private Result( final StreamingPath path )
+        {
+            this.path = path;
+        }
+
+        /**
+         * Returns the value of the path. Definite paths return their single value, all other paths return the list of
+         * values found.
+         *
+         * @return The value of the path.
+         *
+         * @throws PathNotFoundException
+         *         Thrown if a definite path does not exist.
+         */
+        Object getValue()
+        {
+            if ( !path.definite )
+                return values;
+
+            if ( !values.isEmpty() )
+                return values.get( 0 );
+
+            if ( parentIsObject )
+                return null;
+
+            throw new PathNotFoundException( "Path '" + path.expression + "' not found." );
+        }
+
+        /**
+         * Returns whether the path exists in the document.
+         *
+         * @return <b>true</b> if the path exists.
+         */
+        boolean isDefined()
+        {
+            return path.definite ? !values.isEmpty() || parentIsObject : !values.isEmpty();
+        }
+    }
+
+    /**
+     * The results mapped by their path. Each path is evaluated once even if it is registered several times.
+     */
+    private final Map<StreamingPath, Result> results = new IdentityHashMap<>();
+
+    /**
+     * The segments of the current location.
+     */
+    private final List<Object> location = new ArrayList<>();
+
+    /**
+     * The number of definite paths that have not been found yet.
+     */
+    private int openDefinitePaths;
+
+    /**
+     * <b>true</b> if at least one path contains a wildcard. Such paths need the whole document.
+     */
+    private boolean hasWildcardPaths;
+
+    /**
+     * Constructor.
+     *
+     * @param paths
+     *         The paths to evaluate.
+     */
+    StreamingEvaluator( final Iterable<StreamingPath> paths )
+    {
+        for ( StreamingPath path : paths )
+        {
+            if ( results.containsKey( path ) )
+                continue;
+
+            results.put( path, new Result( path ) );
+
+            if ( path.definite )
+                openDefinitePaths++;
+            else
+                hasWildcardPaths = true;
+        }
+    }
+
+    /**
+     * Runs the pass over the given parser. The parser is not closed.
+     *
+     * @param parser
+     *         The parser positioned before the root value.
+     *
+     * @throws IOException
+     *         Thrown if the JSON could not be read.
+     */
+    void evaluate( final JsonParser parser ) throws IOException
+    {
+        JsonToken token = parser.nextToken();
+        if ( token == null )
+            return;
+
+        visit( parser, token, 0 );
+    }
+
+    /**
+     * Returns the result of the given path.
+     *
+     * @param path
+     *         The path.
+     *
+     * @return The result of the path.
+     */
+    Result getResult( final StreamingPath path )
+    {
+        return results.get( path );
+    }
+
+    /**
+     * Visits the value at the current location.
+     *
+     * @param parser
+     *         The parser positioned at the first token of the value.
+     * @param token
+     *         The first token of the value.
+     * @param depth
+     *         The depth of the current location.
+     *
+     * @throws IOException
+     *         Thrown if the JSON could not be read.
+     */
+    private void visit( final JsonParser parser, final JsonToken token, final int depth ) throws IOException
+    {
+        boolean matched = false;
+        boolean continued = false;
+        for ( Result result : results.values() )
+        {
+            int match = result.path.match( location, depth );
+            matched |= match == StreamingPath.MATCH;
+            continued |= match == StreamingPath.PREFIX;
+        }
+
+        // Materialize the value once and serve all paths that match here or continue below.
+        if ( matched )
+        {
+            Object value = readValue( parser, token );
+            for ( Result result : results.values() )
+            {
+                int match = result.path.match( location, depth );
+                if ( match == StreamingPath.MATCH )
+                    addValue( result, value );
+                else if ( match == StreamingPath.PREFIX )
+                    evaluateTree( result, value, depth );
+            }
+            return;
+        }
+
+        // Nothing to find here.
+        if ( !continued )
+        {
+            parser.skipChildren();
+            return;
+        }
+
+        if ( token == JsonToken.START_OBJECT )
+        {
+            markParent( depth );
+
+            while ( !isDone() && parser.nextToken() != JsonToken.END_OBJECT )
+            {
+                setLocation( depth, parser.getCurrentName() );
+                visit( parser, parser.nextToken(), depth + 1 );
+            }
+        }
+        else if ( token == JsonToken.START_ARRAY )
+        {
+            int index = 0;
+            JsonToken next;
+            while ( !isDone() && ( next = parser.nextToken() ) != JsonToken.END_ARRAY )
+            {
+                setLocation( depth, index++ );
+                visit( parser, next, depth + 1 );
+            }
+        }
+    }
+
+    /**
+     * Evaluates the remaining segments of a path against an already materialized value.
+     *
+     * @param result
+     *         The result of the path.
+     * @param node
+     *         The materialized value.
+     * @param index
+     *         The index of the next segment to evaluate.
+     */
+    @SuppressWarnings( "unchecked" )
+    private void evaluateTree( final Result result, final Object node, final int index )
+    {
+        StreamingPath path = result.path;
+        if ( index == path.segments.length )
+        {
+            addValue( result, node );
+            return;
+        }
+
+        if ( node instanceof Map )
+        {
+            Map<String, Object> map = (Map<String, Object>) node;
+            if ( path.segments[index] == StreamingPath.WILDCARD )
+            {
+                for ( Object value : map.values() )
+                    evaluateTree( result, value, index + 1 );
+            }
+            else if ( map.containsKey( path.segments[index] ) )
+            {
+                evaluateTree( result, map.get( path.segments[index] ), index + 1 );
+            }
+            else if ( index == path.segments.length - 1 )
+            {
+                result.parentIsObject = true;
+            }
+        }
+        else if ( node instanceof List )
+        {
+            List<Object> list = (List<Object>) node;
+            for ( int i = 0; i < list.size(); i++ )
+            {
+                if ( path.matchesSegment( index, i ) )
+                    evaluateTree( result, list.get( i ), index + 1 );
+            }
+        }
+    }
+
+    /**
+     * Marks all definite paths whose last property would be a property of the object at the current location.
+     *
+     * @param depth
+     *         The depth of the object.
+     */
+    private void markParent( final int depth )
+    {
+        for ( Result result : results.values() )
+        {
+            if ( result.path.definite && result.path.segments.length == depth + 1
+                    && result.path.match( location, depth ) == StreamingPath.PREFIX )
+                result.parentIsObject = true;
+        }
+    }
+
+    /**
+     * Adds a found value to the result.
+     *
+     * @param result
+     *         The result.
+     * @param value
+     *         The found value.
+     */
+    private void addValue( final Result result, final Object value )
+    {
+        if ( result.path.definite && result.values.isEmpty() )
+            openDefinitePaths--;
+
+        result.values.add( value );
+    }
+
+    /**
+     * Returns whether the rest of the document can be skipped.
+     *
+     * @return <b>true</b> if all paths have been evaluated.
+     */
+    private boolean isDone()
+    {
+        return !hasWildcardPaths && openDefinitePaths == 0;
+    }
+
+    /**
+     * Sets the segment of the current location at the given depth.
+     *
+     * @param depth
+     *         The depth.
+     * @param key
+     *         The property name or array index.
+     */
+    private void setLocation( final int depth, final Object key )
+    {
+        if ( depth < location.size() )
+            location.set( depth, key );
+        else
+            location.add( key );
+    }
+
+    /**
+     * Reads the value starting at the current token. Objects and arrays are read completely.
+     *
+     * @param parser
+     *         The parser positioned at the first token of the value.
+     * @param token
+     *         The first token of the value.
+     *
+     * @return The value. Objects are maps, arrays are lists.
+     *
+     * @throws IOException
+     *         Thrown if the JSON could not be read.
+     */
+    static Object readValue( final JsonParser parser, final JsonToken token ) throws IOException
+    {
+        switch ( token )
+        {
+            case START_OBJECT:
+                Map<String, Object> map = new LinkedHashMap<>();
+                while ( parser.nextToken() != JsonToken.END_OBJECT )
+                {
+                    String name = parser.getCurrentName();
+                    map.put( name, readValue( parser, parser.nextToken() ) );
+                }
+                return map;
+
+            case START_ARRAY:
+                List<Object> list = new ArrayList<>();
+                JsonToken next;
+                while ( ( next = parser.nextToken() ) != JsonToken.END_ARRAY )
+                    list.add( readValue( parser, next ) );
+                return list;
+
+            case VALUE_STRING:
+                return parser.getText();
+
+            case VALUE_NUMBER_INT:
+                // Same number types as the JSON path provider.
+                switch ( parser.getNumberType() )
+                {
+                    case INT:
+                        return parser.getIntValue();
+                    case LONG:
+                        return parser.getLongValue();
+                    default:
+                        return parser.getBigIntegerValue();
+                }
+
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,702 @@
+package com.xceptance.xrt.document;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonParser;
+import org.hamcrest.Matcher;
+import org.hamcrest.Matchers;
+
+import com.jayway.jsonpath.Filter;
+import com.jayway.jsonpath.InvalidJsonException;
+
+/**
+ * <p>
+ * A {@link JSON} document that is never parsed into a tree. All values are read from the byte stream of the document
+ * in a single forward pass, and only the values selected by a JSON path are materialized. This keeps the memory
+ * footprint small for huge documents where only a few values need to be checked, e.g. <b>items[*].id</b> of a large
+ * result list.
+ * </p>
+ * <br>
+ * <p>
+ * The getters and assertions inherited from {@link JSON} behave the same as there and fail immediately. Each of them
+ * runs a pass of its own that stops as soon as the value is found. To check several values in one pass, collect them
+ * via {@link #expect()} and verify them together:
+ * </p>
+ * {@code
+ * call.getResponseBodyAsStreamingJSON().expect().assertEquals( 20, "count" ).assertNotNull( "items[*].id" ).verify();
+ * }
+ * <p>
+ * Expectations are not checked before {@link Expectations#verify()} is called. Only the subset of the JSON path syntax
+ * without look-ahead is supported: properties, array indexes, and wildcards. Filters, deep scans, slices, and unions
+ * throw an {@link IllegalArgumentException}.
+ * </p>
+ */
+public class StreamingJSON extends JSON
+{
+    /****************************************************************************************
+     ************************ Types *********************************************************
+     ****************************************************************************************/
+
+    /**
+     * Provides the bytes of the JSON document. Every pass opens a new stream.
+     */
+    public interface Source
+    {
+        /**
+         * Opens a new stream of the JSON document.
+         *
+         * @return The stream. It is closed after the pass.
+         *
+         * @throws IOException
+         *             Thrown if the stream could not be opened.
+         */
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * A registered assertion.
+     */
+    private static final class Check
+    {
+        /**
+         * The compiled path.
+         */
+        final StreamingPath path;
+
+        /**
+         * The matcher the value must satisfy or <b>null</b> if the path must not be defined.
+         */
+        final Matcher<?> matcher;
+
+        /**
+         * The message of the assertion error. Can be <b>null</b>.
+         */
+        final String message;
+
+        /**
+         * Constructor.
+         *
+         * @param path
+         *            The compiled path.
+         * @param matcher
+         *            The matcher the value must satisfy or <b>null</b> if the path must not be defined.
+         * @param message
+         *            The message of the assertion error. Can be <b>null</b>.
+         */
+        Check( final StreamingPath path, final Matcher<?> matcher, final String message )
+        {
+            this.path = path;
+            this.matcher = matcher;
+            this.message = message;
+        }
+    }
+
+    /**
+     * A set of assertions that are verified together in a single pass over the document. Nothing is checked until
+     * {@link #verify()} is called. Create it via {@link StreamingJSON#expect()}.
+     */
+    public final class Expectations
+    {
+        /**
+         * The assertions that are not verified yet.
+         */
+        private final List<Check> checks = new ArrayList<>();
+
+        /**
+         * Private constructor. Use {@link StreamingJSON#expect()} instead.
+         */
+        private Expectations()
+        {
+        }
+
+        /**
+         * Verifies all expectations in a single pass over the document. The expectations are checked in the order of
+         * their registration and the first failing one throws an {@link java.lang.AssertionError AssertionError}. All
+         * expectations are removed afterwards.
+         *
+         * @return The JSON instance the expectations were created for.
+         */
+        public StreamingJSON verify()
+        {
+            if ( checks.isEmpty() )
+                return StreamingJSON.this;
+
+            List<Check> pending = new ArrayList<>( checks );
+            checks.clear();
+
+            StreamingJSON.this.verify( pending );
+
+            return StreamingJSON.this;
+        }
+
+        /**
+         * Expects the object specified by the JSON path to be equal to the expected value.
+         *
+         * @param <T>
+         *            Auto calculated return type.
+         * @param expected
+         *            The expected value.
+         * @param path
+         *            The JSON path specifying the value being compared.
+         *
+         * @return The expectations to allow fluent chains.
+         */
+        public <T> Expectations assertEquals( final T expected, final String path )
+        {
+            return register( path, Matchers.equalTo( expected ), null );
+        }
+
+        /**
+         * Expects the object specified by the JSON path to be equal to the expected value.
+         *
+         * @param <T>
+         *            Auto calculated return type.
+         * @param message
+         *            The message of the {@link java.lang.AssertionError AssertionError} if the expectation fails.
+         * @param expected
+         *            The expected value.
+         * @param path
+         *            The JSON path specifying the value being compared.
+         *
+         * @return The expectations to allow fluent chains.
+         */
+        public <T> Expectations assertEquals( final String message, final T expected, final String path )
+        {
+            return register( path, Matchers.equalTo( expected ), message );
+        }
+
+        /**
+         * Expects the object specified by the JSON path not to be defined within the document.
+         *
+         * @param path
+         *            The JSON path specifying the not defined object.
+         *
+         * @return The expectations to allow fluent chains.
+         */
+        public Expectations assertNotDefined( final String path )
+        {
+            return register( path, null, null );
+        }
+
+        /**
+         * Expects the object specified by the JSON path not to be defined within the document.
+         *
+         * @param message
+         *            The message of the {@link java.lang.AssertionError AssertionError} if the expectation fails.
+         * @param path
+         *            The JSON path specifying the not defined object.
+         *
+         * @return The expectations to allow fluent chains.
+         */
+        public Expectations assertNotDefined( final String message, final String path )
+        {
+            return register( path, null, message );
+        }
+
+        /**
+         * Expects the object specified by the JSON path to be NOT null.
+         *
+         * @param path
+         *            The JSON path specifying the value being NOT null.
+         *
+         * @return The expectations to allow fluent chains.
+         */
+        public Expectations assertNotNull( final String path )
+        {
+            return register( path, Matchers.notNullValue(), null );
+        }
+
+        /**
+         * Expects the object specified by the JSON path to be NOT null.
+         *
+         * @param message
+         *            The message of the {@link java.lang.AssertionError AssertionError} if the expectation fails.
+         * @param path
+         *            The JSON path specifying the value being NOT null.
+         *
+         * @return The expectations to allow fluent chains.
+         */
+        public Expectations assertNotNull( final String message, final String path )
+        {
+            return register( path, Matchers.notNullValue(), message );
+        }
+
+        /**
+         * Expects the object specified by the JSON path to be null.
+         *
+         * @param path
+         *            The JSON path specifying the value being null.
+         *
+         * @return The expectations to allow fluent chains.
+         */
+        public Expectations assertNull( final String path )
+        {
+            return register( path, Matchers.nullValue(), null );
+        }
+
+        /**
+         * Expects the object specified by the JSON path to be null.
+         *
+         * @param message
+         *            The message of the {@link java.lang.AssertionError AssertionError} if the expectation fails.
+         * @param path
+         *            The JSON path specifying the value being null.
+         *
+         * @return The expectations to allow fluent chains.
+         */
+        public Expectations assertNull( final String message, final String path )
+        {
+            return register( path, Matchers.nullValue(), message );
+        }
+
+        /**
+         * Expects the object specified by the JSON path to satisfy the condition specified by the matcher.
+         *
+         * @param <T>
+         *            Auto calculated return type.
+         * @param matcher
+         *            An expression, built of Matchers, specifying how values are verified.
+         * @param path
+         *            The JSON path specifying the value to be asserted.
+         *
+         * @return The expectations to allow fluent chains.
+         */
+        public <T> Expectations assertThat( final Matcher<T> matcher, final String path )
+        {
+            return register( path, matcher, null );
+        }
+
+        /**
+         * Expects the object specified by the JSON path to satisfy the condition specified by the matcher.
+         *
+         * @param <T>
+         *            Auto calculated return type.
+         * @param message
+         *            The message of the {@link java.lang.AssertionError AssertionError} if the expectation fails.
+         * @param matcher
+         *            An expression, built of Matchers, specifying how values are verified.
+         * @param path
+         *            The JSON path specifying the value to be asserted.
+         *
+         * @return The expectations to allow fluent chains.
+         */
+        public <T> Expectations assertThat( final String message, final Matcher<T> matcher, final String path )
+        {
+            return register( path, matcher, message );
+        }
+
+        /**
+         * Registers an expectation. The path is compiled immediately to report unsupported syntax at the caller.
+         *
+         * @param path
+         *            The JSON path.
+         * @param matcher
+         *            The matcher the value must satisfy or <b>null</b> if the path must not be defined.
+         * @param message
+         *            The message of the assertion error. Can be <b>null</b>.
+         *
+         * @return The expectations to allow fluent chains.
+         */
+        private Expectations register( final String path, final Matcher<?> matcher, final String message )
+        {
+            checks.add( new Check( StreamingPath.compile( path ), matcher, message ) );
+            return this;
+        }
+    }
+
+    /****************************************************************************************
+     ************************ Private Properties ********************************************
+     ****************************************************************************************/
+
+    /**
+     * The parser factory. Thread-safe and expensive to create.
+     */
+    private static final JsonFactory factory = new JsonFactory();
+
+    /**
+     * The source of the JSON document.
+     */
+    private final Source source;
+
+    /**
+     * The charset of the JSON document. Can be <b>null</b> to let the parser detect the Unicode encoding.
+     */
+    private final String charset;
+
+    /****************************************************************************************
+     ************************ Constructors **************************************************
+     ****************************************************************************************/
+
+    /**
+     * Constructor that takes the source of the JSON document.
+     *
+     * @param source
+     *            Provides the bytes of the JSON document.
+     * @param charset
+     *            The charset of the JSON document. Can be <b>null</b> to detect the Unicode encoding.
+     */
+    public StreamingJSON( final Source source, final String charset )
+    {
+        super( null );
+        this.source = source;
+        this.charset = charset;
+    }
+
+    /****************************************************************************************
+     ************************ Public Methods - Getter **************************************
+     ****************************************************************************************/
+
+    /**
+     * Gets a property of the JSON via a specified jsonPath. The document is streamed until the value is found. Paths
+     * with wildcards return the list of all values found.
+     *
+     * @param <T>
+     *            Auto calculated return type.
+     * @param jsonPath
+     *            The jsonPath to the requested property.
+     * @param filters
+     *            Not supported. Must be empty.
+     *
+     * @return The value of the requested JSON property.
+     */
+    @Override
+    @SuppressWarnings( "unchecked" )
+    public <T> T get( final String jsonPath, final Filter<?>... filters )
+    {
+        if ( filters != null && filters.length > 0 )
+            throw new IllegalArgumentException( "Filters are not supported for streamed JSON." );
+
+        StreamingPath path = StreamingPath.compile( jsonPath );
+        List<StreamingPath> paths = new ArrayList<>( 1 );
+        paths.add( path );
+
+        return (T) evaluate( paths ).getResult( path ).getValue();
+    }
+
+    /**
+     * Returns the JSON as String. Reads the whole document.
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder();
+        char[] buffer = new char[4096];
+        try ( Reader reader = openReader() )
+        {
+            int read;
+            while ( ( read = reader.read( buffer ) ) != -1 )
+                builder.append( buffer, 0, read );
+        }
+        catch ( IOException e )
+        {
+            throw new InvalidJsonException( e );
+        }
+
+        return builder.toString();
+    }
+
+    /****************************************************************************************
+     ************************ Public Methods - Asserts **************************************
+     ****************************************************************************************/
+
+    /**
+     * Starts a set of expectations that are verified together in a single pass over the document. The expectations are
+     * only checked when {@link Expectations#verify()} is called.
+     *
+     * @return The new, empty set of expectations.
+     */
+    public Expectations expect()
+    {
+        return new Expectations();
+    }
+
+    /**
+     * Asserts that the object specified by the JSON path is equal to the expected value. If they are not, an
+     * {@link java.lang.AssertionError AssertionError} is thrown. The document is streamed until the value is found.
+     *
+     * @param <T>
+     *            Auto calculated return type.
+     * @param expected
+     *            The expected value.
+     * @param path
+     *            The JSON path specifying the value being compared.
+     *
+     * @return The JSON instance to allow fluent assertion chains.
+     */
+    @Override
+    public <T> StreamingJSON assertEquals( final T expected, final String path )
+    {
+        return check( path, Matchers.equalTo( expected ), null );
+    }
+
+    /**
+     * Asserts that the object specified by the JSON path is equal to the expected value. If they are not, an
+     * {@link java.lang.AssertionError AssertionError} with the given message is thrown. The document is streamed until
+     * the value is found.
+     *
+     * @param <T>
+     *            Auto calculated return type.
+     * @param message
+     *            The message of the {@link java.lang.AssertionError AssertionError} if the assert fails.
+     * @param expected
+     *            The expected value.
+     * @param path
+     *            The JSON path specifying the value being compared.
+     *
+     * @return The JSON instance to allow fluent assertion chains.
+     */
+    @Override
+    public <T> StreamingJSON assertEquals( final String message, final T expected, final String path )
+    {
+        return check( path, Matchers.equalTo( expected ), message );
+    }
+
+    /**
+     * Asserts that the object specified by the JSON path is not defined within the document. If the document contains
+     * the given object, an {@link java.lang.AssertionError AssertionError} is thrown.
+     *
+     * @param path
+     *            The JSON path specifying the not defined object.
+     *
+     * @return The JSON instance to allow fluent assertion chains.
+     */
+    @Override
+    public StreamingJSON assertNotDefined( final String path )
+    {
+        return check( path, null, null );
+    }
+
+    /**
+     * Asserts that the object specified by the JSON path is not defined within the document. If the document contains
+     * the given object, an {@link java.lang.AssertionError AssertionError} with the given message is thrown.
+     *
+     * @param message
+     *            The message of the {@link java.lang.AssertionError AssertionError} if the assert fails.
+     * @param path
+     *            The JSON path specifying the not defined object.
+     *
+     * @return The JSON instance to allow fluent assertion chains.
+     */
+    @Override
+    public StreamingJSON assertNotDefined( final String message, final String path )
+    {
+        return check( path, null, message );
+    }
+
+    /**
+     * Asserts that the object specified by the JSON path is NOT null. If it is, an {@link java.lang.AssertionError
+     * AssertionError} is thrown.
+     *
+     * @param path
+     *            The JSON path specifying the value being NOT null.
+     *
+     * @return The JSON instance to allow fluent assertion chains.
+     */
+    @Override
+    public StreamingJSON assertNotNull( final String path )
+    {
+        return check( path, Matchers.notNullValue(), null );
+    }
+
+    /**
+     * Asserts that the object specified by the JSON path is NOT null. If it is, an {@link java.lang.AssertionError
+     * AssertionError} with the given message is thrown.
+     *
+     * @param message
+     *            The message of the {@link java.lang.AssertionError AssertionError} if the assert fails.
+     * @param path
+     *            The JSON path specifying the value being NOT null.
+     *
+     * @return The JSON instance to allow fluent assertion chains.
+     */
+    @Override
+    public StreamingJSON assertNotNull( final String message, final String path )
+    {
+        return check( path, Matchers.notNullValue(), message );
+    }
+
+    /**
+     * Asserts that the object specified by the JSON path is null. If it is not, an {@link java.lang.AssertionError
+     * AssertionError} is thrown.
+     *
+     * @param path
+     *            The JSON path specifying the value being null.
+     *
+     * @return The JSON instance to allow fluent assertion chains.
+     */
+    @Override
+    public StreamingJSON assertNull( final String path )
+    {
+        return check( path, Matchers.nullValue(), null );
+    }
+
+    /**
+     * Asserts that the object specified by the JSON path is null. If it is not, an {@link java.lang.AssertionError
+     * AssertionError} with the given message is thrown.
+     *
+     * @param message
+     *            The message of the {@link java.lang.AssertionError AssertionError} if the assert fails.
+     * @param path
+     *            The JSON path specifying the value being null.
+     *
+     * @return The JSON instance to allow fluent assertion chains.
+     */
+    @Override
+    public StreamingJSON assertNull( final String message, final String path )
+    {
+        return check( path, Matchers.nullValue(), message );
+    }
+
+    /**
+     * Asserts that the object specified by the JSON path satisfies the condition specified by the matcher. If the
+     * assert fails an {@link java.lang.AssertionError AssertionError} is thrown.
+     *
+     * @param <T>
+     *            Auto calculated return type.
+     * @param matcher
+     *            An expression, built of Matchers, specifying how values are verified.
+     * @param path
+     *            The JSON path specifying the value to be asserted.
+     *
+     * @return The JSON instance to allow fluent assertion chains.
+     */
+    @Override
+    public <T> StreamingJSON assertThat( final Matcher<T> matcher, final String path )
+    {
+        return check( path, matcher, null );
+    }
+
+    /**
+     * Asserts that the object specified by the JSON path satisfies the condition specified by the matcher. If the
+     * assert fails an {@link java.lang.AssertionError AssertionError} with the given message is thrown.
+     *
+     * @param <T>
+     *            Auto calculated return type.
+     * @param message
+     *            The message of the {@link java.lang.AssertionError AssertionError} if the assert fails.
+     * @param matcher
+     *            An expression, built of Matchers, specifying how values are verified.
+     * @param path
+     *            The JSON path specifying the value to be asserted.
+     *
+     * @return The JSON instance to allow fluent assertion chains.
+     */
+    @Override
+    public <T> StreamingJSON assertThat( final String message, final Matcher<T> matcher, final String path )
+    {
+        return check( path, matcher, message );
+    }
+
+    /****************************************************************************************
+     ************************ Private Methods ***********************************************
+     ****************************************************************************************/
+
+    /**
+     * Checks a single assertion in a pass of its own.
+     *
+     * @param path
+     *            The JSON path.
+     * @param matcher
+     *            The matcher the value must satisfy or <b>null</b> if the path must not be defined.
+     * @param message
+     *            The message of the assertion error. Can be <b>null</b>.
+     *
+     * @return The JSON instance to allow fluent assertion chains.
+     */
+    private StreamingJSON check( final String path, final Matcher<?> matcher, final String message )
+    {
+        List<Check> checks = new ArrayList<>( 1 );
+        checks.add( new Check( StreamingPath.compile( path ), matcher, message ) );
+        verify( checks );
+
+        return this;
+    }
+
+    /**
+     * Verifies the given assertions in a single pass over the document. The assertions are checked in the given order
+     * and the first failing one throws an {@link java.lang.AssertionError AssertionError}.
+     *
+     * @param checks
+     *            The assertions to verify.
+     */
+    private void verify( final List<Check> checks )
+    {
+        List<StreamingPath> paths = new ArrayList<>( checks.size() );
+        for ( Check check : checks )
+            paths.add( check.path );
+
+        StreamingEvaluator evaluator = evaluate( paths );
+        for ( Check check : checks )
+        {
+            StreamingEvaluator.Result result = evaluator.getResult( check.path );
+            if ( check.matcher == null )
+            {
+                if ( result.isDefined() )
+                    throw DocumentAsserter.notDefinedError( check.path.expression, check.message );
+            }
+            else
+            {
+                DocumentAsserter.verifyMatch( check.path.expression, check.matcher, check.message, result.getValue() );
+            }
+        }
+    }
+
+    /**
+     * Runs a single pass over the document for the given paths.
+     *
+     * @param paths
+     *            The paths to evaluate.
+     *
+     * @return The evaluator holding the results.
+     */
+    private StreamingEvaluator evaluate( final List<StreamingPath> paths )
+    {
+        StreamingEvaluator evaluator = new StreamingEvaluator( paths );
+        try ( JsonParser parser = createParser() )
+        {
+            evaluator.evaluate( parser );
+        }
+        catch ( IOException e )
+        {
+            throw new InvalidJsonException( e );
+        }
+
+        return evaluator;
+    }
+
+    /**
+     * Creates a parser for a new stream of the document. Byte streams are parsed directly if the document is encoded
+     * in Unicode.
+     *
+     * @return The parser.
+     *
+     * @throws IOException
+     *             Thrown if the stream could not be opened.
+     */
+    private JsonParser createParser() throws IOException
+    {
+        if ( charset == null || charset.toUpperCase().startsWith( "UTF-" ) )
+            return factory.createJsonParser( source.open() );
+
+        return factory.createJsonParser( openReader() );
+    }
+
+    /**
+     * Opens a reader for a new stream of the document.
+     *
+     * @return The reader.
+     *
+     * @throws IOException
+     *             Thrown if the stream could not be opened.
+     */
+    private Reader openReader() throws IOException
+    {
+        return new InputStreamReader( source.open(), charset != null ? charset : "UTF-8" );
+    }
+}
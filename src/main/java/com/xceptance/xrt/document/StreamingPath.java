@@ -0,0 +1,279 @@
+package com.xceptance.xrt.document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * A JSON path that can be evaluated while streaming over a JSON document. Only the subset of the JSON path syntax
+ * that needs no look-ahead is supported:
+ * </p>
+ * <ul>
+ * <li>Properties, e.g. <b>$.items</b>, <b>items.name</b>, or <b>['items']</b></li>
+ * <li>Array indexes, e.g. <b>items[0]</b></li>
+ * <li>Wildcards, e.g. <b>items[*].id</b> or <b>list.*</b></li>
+ * </ul>
+ * <p>
+ * Deep scans, filters, slices, and unions throw an {@link IllegalArgumentException}. Compiled paths are immutable and
+ * shared between all threads via a bounded cache that is keyed by the expression.
+ * </p>
+ */
+final class StreamingPath
+{
+    /**
+     * The maximum number of compiled paths held in the cache. The cache is flushed completely once this limit is
+     * reached to keep the memory footprint bounded.
+     */
+    private static final int CACHE_CAPACITY = 1024;
+
+    /**
+     * The segment that matches every property and every array index.
+     */
+    static final Object WILDCARD = new Object();
+
+    /**
+     * The current location is the location of the path.
+     */
+    static final int MATCH = 0;
+
+    /**
+     * The path continues below the current location.
+     */
+    static final int PREFIX = 1;
+
+    /**
+     * The path can't be found at or below the current location.
+     */
+    static final int NONE = 2;
+
+    /**
+     * All compiled paths shared by all threads.
+     */
+    private static final ConcurrentHashMap<String, StreamingPath> cache = new ConcurrentHashMap<>();
+
+    /**
+     * The source expression.
+     */
+    final String expression;
+
+    /**
+     * The segments of the path. Each segment is a property name (String), an array index (Integer), or
+     * {@link #WILDCARD}.
+     */
+    final Object[] segments;
+
+    /**
+     * <b>true</b> if the path can match one location at most, i.e. it contains no wildcard.
+     */
+    final boolean definite;
+
+    /**
+     * Private constructor. Use {@link #compile(String)} instead.
+     *
+     * @param expression
+     *         The source expression.
+     * @param segments
+     *         The segments of the path.
+     */
+    private StreamingPath( final String expression, final Object[] segments )
+    {
+        this.expression = expression;
+        this.segments = segments;
+
+        boolean definite = true;
+        for ( Object segment : segments )
+        {
+            if ( segment == WILDCARD )
+                definite = false;
+        }
+        this.definite = definite;
+    }
+
+    /**
+     * Returns the compiled path for the given expression.
+     *
+     * @param expression
+     *         The JSON path expression.
+     *
+     * @return The compiled path.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the expression uses syntax that is not supported for streaming.
+     */
+    static StreamingPath compile( final String expression )
+    {
+        StreamingPath path = cache.get( expression );
+        if ( path != null )
+            return path;
+
+        path = new StreamingPath( expression, parse( expression ) );
+
+        if ( cache.size() >= CACHE_CAPACITY )
+            cache.clear();
+
+        cache.put( expression, path );
+
+        return path;
+    }
+
+    /**
+     * Compares the given location with this path.
+     *
+     * @param location
+     *         The segments of the current location. Property names are Strings, array indexes are Integers.
+     * @param depth
+     *         The number of valid segments of the location.
+     *
+     * @return {@link #MATCH}, {@link #PREFIX}, or {@link #NONE}.
+     */
+    int match( final List<Object> location, final int depth )
+    {
+        if ( depth > segments.length )
+            return NONE;
+
+        for ( int i = 0; i < depth; i++ )
+        {
+            if ( !matchesSegment( i, location.get( i ) ) )
+                return NONE;
+        }
+
+        return depth == segments.length ? MATCH : PREFIX;
+    }
+
+    /**
+     * Checks whether the segment at the given index matches the given property name or array index.
+     *
+     * @param index
+     *         The index of the segment.
+     * @param key
+     *         The property name (String) or array index (Integer).
+     *
+     * @return <b>true</b> if the segment matches.
+     */
+    boolean matchesSegment( final int index, final Object key )
+    {
+        Object segment = segments[index];
+        return segment == WILDCARD || segment.equals( key );
+    }
+
+    /**
+     * Splits the expression into its segments.
+     *
+     * @param expression
+     *         The JSON path expression.
+     *
+     * @return The segments.
+     */
+    private static Object[] parse( final String expression )
+    {
+        if ( expression == null || expression.trim().isEmpty() )
+            throw new IllegalArgumentException( "The JSON path must not be empty." );
+
+        String path = expression.trim();
+        List<Object> segments = new ArrayList<>();
+
+        int pos = 0;
+        int length = path.length();
+
+        // Skip the optional root.
+        if ( path.charAt( 0 ) == '$' )
+            pos++;
+
+        while ( pos < length )
+        {
+            char c = path.charAt( pos );
+            if ( c == '.' )
+            {
+                pos++;
+                if ( pos < length && path.charAt( pos ) == '.' )
+                    throw unsupported( expression, "deep scan" );
+                if ( pos == length )
+                    throw unsupported( expression, "trailing dot" );
+            }
+            else if ( c == '[' )
+            {
+                int end = path.indexOf( ']', pos );
+                if ( end < 0 )
+                    throw unsupported( expression, "missing ']'" );
+
+                segments.add( parseBracket( expression, path.substring( pos + 1, end ).trim() ) );
+                pos = end + 1;
+                continue;
+            }
+            else if ( pos > 0 && segments.isEmpty() && path.charAt( 0 ) == '$' )
+            {
+                throw unsupported( expression, "missing '.' after root" );
+            }
+
+            // Property name up to the next separator.
+            int start = pos;
+            while ( pos < length && path.charAt( pos ) != '.' && path.charAt( pos ) != '[' )
+                pos++;
+
+            String name = path.substring( start, pos );
+            if ( name.isEmpty() )
+                continue;
+
+            segments.add( "*".equals( name ) ? WILDCARD : name );
+        }
+
+        return segments.toArray();
+    }
+
+    /**
+     * Parses the content of a bracket segment.
+     *
+     * @param expression
+     *         The JSON path expression. Used for error messages only.
+     * @param content
+     *         The content between the brackets.
+     *
+     * @return The segment.
+     */
+    private static Object parseBracket( final String expression, final String content )
+    {
+        if ( "*".equals( content ) )
+            return WILDCARD;
+
+        if ( content.length() >= 2 && ( content.charAt( 0 ) == '\'' || content.charAt( 0 ) == '"' )
+                && content.charAt( content.length() - 1 ) == content.charAt( 0 ) )
+            return content.substring( 1, content.length() - 1 );
+
+        if ( content.startsWith( "?" ) || content.startsWith( "(" ) )
+            throw unsupported( expression, "filter" );
+        if ( content.indexOf( ':' ) >= 0 )
+            throw unsupported( expression, "slice" );
+        if ( content.indexOf( ',' ) >= 0 )
+            throw unsupported( expression, "union" );
+
+        try
+        {
+            int index = Integer.parseInt( content );
+            if ( index < 0 )
+                throw unsupported( expression, "negative index" );
+
+            return index;
+        }
+        catch ( NumberFormatException e )
+        {
+            throw unsupported( expression, "'[" + content + "]'" );
+        }
+    }
+
+    /**
+     * Creates the exception for unsupported syntax.
+     *
+     * @param expression
+     *         The JSON path expression.
+     * @param feature
+     *         The unsupported syntax.
+     *
+     * @return The exception.
+     */
+    private static IllegalArgumentException unsupported( final String expression, final String feature )
+    {
+        return new IllegalArgumentException( "The JSON path '" + expression + "' can't be streamed: " + feature
+                + " is not supported." );
+    }
+}
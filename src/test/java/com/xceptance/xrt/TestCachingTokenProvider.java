@@ -0,0 +1,374 @@
+package com.xceptance.xrt;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.xceptance.xlt.api.util.XltProperties;
+
+/**
+ * Tests the shared token cache of {@link CachingTokenProvider} and the {@link OAuthTokenProvider} against a local
+ * token endpoint.
+ */
+public class TestCachingTokenProvider
+{
+    /**
+     * Provider that counts the fetched tokens. Tokens are valid for 60 seconds and refreshed 10 seconds ahead by
+     * default.
+     */
+    public static class CountingTokenProvider extends CachingTokenProvider
+    {
+        static final AtomicInteger fetches = new AtomicInteger();
+
+        static volatile long refreshAhead = 10000;
+
+        static volatile long refreshTimeout = 10000;
+
+        static volatile long lifetime = 60000;
+
+        static volatile boolean failing;
+
+        @Override
+        protected String getCredentialKey( final RESTCall call )
+        {
+            return call.getHttpHeader( "X-Client" );
+        }
+
+        @Override
+        protected long getRefreshAhead()
+        {
+            return refreshAhead;
+        }
+
+        @Override
+        protected long getRefreshTimeout()
+        {
+            return refreshTimeout;
+        }
+
+        @Override
+        protected Token fetchToken( final String credentialKey ) throws Exception
+        {
+            if ( failing )
+                throw new IOException( "Token endpoint not available." );
+
+            Thread.sleep( 100 );
+            return new Token( credentialKey + "-" + fetches.incrementAndGet(), System.currentTimeMillis() + lifetime );
+        }
+    }
+
+    /**
+     * The local token endpoint.
+     */
+    private HttpServer server;
+
+    /**
+     * The number of token requests received by the token endpoint.
+     */
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+
+    /**
+     * Define result dir to prevent timers.csv exceptions.
+     */
+    @BeforeClass
+    public static void setUpOnce()
+    {
+        XltProperties.getInstance().setProperty( "com.xceptance.xlt.result-dir", "tmp" );
+    }
+
+    /**
+     * Cleanup the timer output.
+     */
+    @AfterClass
+    public static void tearDownFinally() throws Throwable
+    {
+        FileUtils.deleteDirectory( new File( "tmp" ) );
+    }
+
+    /**
+     * Starts the local token endpoint. It accepts the client <b>xrt</b> with secret <b>secret</b> and issues tokens
+     * that are valid for one hour.
+     */
+    @Before
+    public void setUp() throws Throwable
+    {
+        CountingTokenProvider.fetches.set( 0 );
+        CountingTokenProvider.refreshAhead = 10000;
+        CountingTokenProvider.refreshTimeout = 10000;
+        CountingTokenProvider.lifetime = 60000;
+        CountingTokenProvider.failing = false;
+
+        server = HttpServer.create( new InetSocketAddress( InetAddress.getLoopbackAddress(), 0 ), 0 );
+        server.setExecutor( Executors.newCachedThreadPool() );
+        server.createContext( "/token", new HttpHandler()
+        {
+            @Override
+            public void handle( final HttpExchange exchange ) throws IOException
+            {
+                String form;
+                try ( InputStream in = exchange.getRequestBody(); Scanner scanner = new Scanner( in, "UTF-8" ) )
+                {
+                    form = scanner.useDelimiter( "\\A" ).hasNext() ? scanner.next() : "";
+                }
+
+                boolean valid = "Basic eHJ0OnNlY3JldA==".equals( exchange.getRequestHeaders().getFirst( "Authorization" ) )
+                        && form.startsWith( "grant_type=client_credentials" );
+
+                byte[] body = ( "{\"access_token\":\"token-" + tokenRequests.incrementAndGet()
+                        + "\",\"token_type\":\"Bearer\",\"expires_in\":3600}" ).getBytes( StandardCharsets.UTF_8 );
+                exchange.getResponseHeaders().set( "Content-Type", "application/json" );
+
+                try
+                {
+                    Thread.sleep( 100 );
+                } catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                }
+
+                exchange.sendResponseHeaders( valid ? 200 : 401, body.length );
+                try ( OutputStream out = exchange.getResponseBody() )
+                {
+                    out.write( body );
+                }
+            }
+        } );
+        server.start();
+    }
+
+    /**
+     * Stops the local token endpoint.
+     */
+    @After
+    public void tearDown()
+    {
+        server.stop( 0 );
+        XltProperties.getInstance().removeProperty( "com.xceptance.xrt.oauth.tokenUrl" );
+        XltProperties.getInstance().removeProperty( "com.xceptance.xrt.oauth.clientId" );
+        XltProperties.getInstance().removeProperty( "com.xceptance.xrt.oauth.clientSecret" );
+        XltProperties.getInstance().removeProperty( "com.xceptance.xrt.oauth.scope" );
+    }
+
+    @Test
+    public void singleFlight() throws Throwable
+    {
+        List<String> tokens = preProcessConcurrently( 16, new Callable<PreProcessible>()
+        {
+            @Override
+            public PreProcessible call()
+            {
+                return new CountingTokenProvider();
+            }
+        }, "singleFlight" );
+
+        Assert.assertEquals( 1, CountingTokenProvider.fetches.get() );
+        for ( String token : tokens )
+            Assert.assertEquals( "Bearer singleFlight-1", token );
+    }
+
+    @Test
+    public void tokenPerCredentialKey() throws Throwable
+    {
+        Assert.assertEquals( "Bearer keyA-1", preProcess( new CountingTokenProvider(), "keyA" ) );
+        Assert.assertEquals( "Bearer keyB-2", preProcess( new CountingTokenProvider(), "keyB" ) );
+        Assert.assertEquals( "Bearer keyA-1", preProcess( new CountingTokenProvider(), "keyA" ) );
+    }
+
+    @Test
+    public void shortLivedTokenIsReused() throws Throwable
+    {
+        // The refresh ahead is longer than the lifetime, the token is still used for half of its lifetime.
+        CountingTokenProvider.refreshAhead = 120000;
+
+        Assert.assertEquals( "Bearer shortLived-1", preProcess( new CountingTokenProvider(), "shortLived" ) );
+        Assert.assertEquals( "Bearer shortLived-1", preProcess( new CountingTokenProvider(), "shortLived" ) );
+        Assert.assertEquals( 1, CountingTokenProvider.fetches.get() );
+    }
+
+    @Test
+    public void refreshAheadOfExpiry() throws Throwable
+    {
+        // Refreshed after half of the lifetime, while the token is still valid.
+        CountingTokenProvider.refreshAhead = 120000;
+        CountingTokenProvider.lifetime = 2000;
+
+        Assert.assertEquals( "Bearer refresh-1", preProcess( new CountingTokenProvider(), "refresh" ) );
+        Thread.sleep( 1100 );
+        Assert.assertEquals( "Bearer refresh-2", preProcess( new CountingTokenProvider(), "refresh" ) );
+    }
+
+    @Test
+    public void failedRefreshKeepsValidToken() throws Throwable
+    {
+        CountingTokenProvider.refreshAhead = 120000;
+        CountingTokenProvider.lifetime = 2000;
+        Assert.assertEquals( "Bearer failed-1", preProcess( new CountingTokenProvider(), "failed" ) );
+
+        Thread.sleep( 1100 );
+        CountingTokenProvider.failing = true;
+        Assert.assertEquals( "Bearer failed-1", preProcess( new CountingTokenProvider(), "failed" ) );
+    }
+
+    @Test
+    public void waitForRefreshIsBounded() throws Throwable
+    {
+        // The fetch takes 100 ms, the caller that doesn't fetch gives up earlier.
+        CountingTokenProvider.refreshTimeout = 20;
+
+        try
+        {
+            preProcessConcurrently( 2, new Callable<PreProcessible>()
+            {
+                @Override
+                public PreProcessible call()
+                {
+                    return new CountingTokenProvider();
+                }
+            }, "bounded" );
+            Assert.fail( "Expected the waiting caller to time out." );
+        } catch ( ExecutionException e )
+        {
+            Assert.assertTrue( e.getCause() instanceof IllegalStateException );
+        }
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void failedFetch() throws Throwable
+    {
+        CountingTokenProvider.failing = true;
+        preProcess( new CountingTokenProvider(), "unavailable" );
+    }
+
+    @Test
+    public void oauthClientCredentials() throws Throwable
+    {
+        configureClient( "secret" );
+
+        List<String> tokens = preProcessConcurrently( 8, new Callable<PreProcessible>()
+        {
+            @Override
+            public PreProcessible call()
+            {
+                return new OAuthTokenProvider();
+            }
+        }, null );
+
+        Assert.assertEquals( 1, tokenRequests.get() );
+        for ( String token : tokens )
+            Assert.assertEquals( "Bearer token-1", token );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void oauthInvalidClient() throws Throwable
+    {
+        configureClient( "wrong" );
+
+        preProcess( new OAuthTokenProvider(), null );
+    }
+
+    /**
+     * Configures the OAuth client <b>xrt</b> for the local token endpoint.
+     *
+     * @param secret
+     *         The client secret.
+     */
+    private void configureClient( final String secret )
+    {
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.oauth.tokenUrl",
+                                                 "http://localhost:" + server.getAddress().getPort() + "/token" );
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.oauth.clientId", "xrt" );
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.oauth.clientSecret", secret );
+    }
+
+    /**
+     * Pre-processes a REST call.
+     *
+     * @param preprocessor
+     *         The pre-processor.
+     * @param client
+     *         The value of the header <b>X-Client</b>.
+     *
+     * @return The Authorization header of the REST call.
+     */
+    private static String preProcess( final PreProcessible preprocessor, final String client )
+    {
+        RESTCall call = new RESTCall( "http://localhost/products" );
+        if ( client != null )
+            call.addHttpHeader( "X-Client", client );
+
+        preprocessor.preProcess( call );
+
+        return call.getHttpHeader( "Authorization" );
+    }
+
+    /**
+     * Pre-processes REST calls from several threads at the same time. Every thread uses its own pre-processor.
+     *
+     * @param threads
+     *         The number of threads.
+     * @param preprocessors
+     *         Creates the pre-processors.
+     * @param client
+     *         The value of the header <b>X-Client</b>.
+     *
+     * @return The Authorization headers of all REST calls.
+     */
+    private static List<String> preProcessConcurrently( final int threads, final Callable<PreProcessible> preprocessors,
+                                                        final String client ) throws Exception
+    {
+        final CountDownLatch start = new CountDownLatch( 1 );
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<String>> futures = new ArrayList<>();
+            for ( int i = 0; i < threads; i++ )
+            {
+                final PreProcessible preprocessor = preprocessors.call();
+                futures.add( executor.submit( new Callable<String>()
+                {
+                    @Override
+                    public String call() throws Exception
+                    {
+                        start.await();
+                        return preProcess( preprocessor, client );
+                    }
+                } ) );
+            }
+            start.countDown();
+
+            List<String> tokens = new ArrayList<>();
+            for ( Future<String> future : futures )
+                tokens.add( future.get() );
+
+            return tokens;
+        } finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -16,11 +16,16 @@ import com.gargoylesoftware.htmlunit.HttpMethod;
 import com.gargoylesoftware.htmlunit.MockWebConnection;
 import com.gargoylesoftware.htmlunit.util.NameValuePair;
 import com.xceptance.xlt.api.util.XltProperties;
+import com.xceptance.xrt.validation.DefaultValidation_ConstructorError;
+import com.xceptance.xrt.validation.DefaultValidation_ConstructorException;
 import com.xceptance.xrt.validation.DefaultValidation_Correct;
 import com.xceptance.xrt.validation.DefaultValidation_CorrectStatusCode;
 import com.xceptance.xrt.validation.DefaultValidation_DerivedMethod;
 import com.xceptance.xrt.validation.DefaultValidation_Disabled;
 import com.xceptance.xrt.validation.DefaultValidation_Disabled2nd;
+import com.xceptance.xrt.validation.DefaultValidation_Stateful;
+import com.xceptance.xrt.validation.DefaultValidation_Stateless;
+import com.xceptance.xrt.validation.DefaultValidation_StatelessConstructorError;
 
 /**
  * Unit tests for the method {@link RESTCall#processValidators()}.
@@ -113,6 +118,10 @@ public class TestDefaultValidation
         DefaultValidation_CorrectStatusCode.valStatusCode = "Not yet executed.";
         DefaultValidation_Disabled.valPerformed = false;
         DefaultValidation_Disabled2nd.valPerformed = false;
+        DefaultValidation_Stateless.validators.clear();
+        DefaultValidation_Stateless.views.clear();
+        DefaultValidation_Stateful.validators.clear();
+        DefaultValidation_Stateful.views.clear();
 
         // Cleanup property changes
         XltProperties.reset();
@@ -435,4 +444,101 @@ public class TestDefaultValidation
         assertEquals( "DefaultValidation_Disabled: performed.", DefaultValidation_CorrectStatusCode.expValStatusCode
                 + STATUS_CODE, DefaultValidation_CorrectStatusCode.valStatusCode );
     }
+
+    /**
+     * Validators annotated with {@link com.xceptance.xrt.annotation.StatelessValidator} are shared by all REST calls.
+     * 
+     * @throws Throwable
+     */
+    @Test
+    public void statelessValidatorIsShared() throws Throwable
+    {
+        new RESTCall( DefaultValidation_Stateless.class ).setPreviousAction( mockAction ).get();
+        new RESTCall( DefaultValidation_Stateless.class ).setPreviousAction( mockAction ).get();
+
+        assertEquals( 2, DefaultValidation_Stateless.validators.size() );
+        assertSame( DefaultValidation_Stateless.validators.get( 0 ), DefaultValidation_Stateless.validators.get( 1 ) );
+    }
+
+    /**
+     * All other validators are created for every REST call.
+     * 
+     * @throws Throwable
+     */
+    @Test
+    public void statefulValidatorPerCall() throws Throwable
+    {
+        new RESTCall( DefaultValidation_Stateful.class ).setPreviousAction( mockAction ).get();
+        new RESTCall( DefaultValidation_Stateful.class ).setPreviousAction( mockAction ).get();
+
+        assertEquals( 2, DefaultValidation_Stateful.validators.size() );
+        assertNotSame( DefaultValidation_Stateful.validators.get( 0 ), DefaultValidation_Stateful.validators.get( 1 ) );
+    }
+
+    /**
+     * All validators of a REST call get the same view of the call, also when the call is performed again.
+     * 
+     * @throws Throwable
+     */
+    @Test
+    public void validatorViewIsReused() throws Throwable
+    {
+        RESTCall call = new RESTCall( DefaultValidation_Stateless.class, DefaultValidation_Stateful.class )
+                .setPreviousAction( mockAction );
+        call.get();
+        call.get();
+
+        assertEquals( 2, DefaultValidation_Stateless.views.size() );
+        assertSame( DefaultValidation_Stateless.views.get( 0 ), DefaultValidation_Stateless.views.get( 1 ) );
+        assertSame( DefaultValidation_Stateless.views.get( 0 ), DefaultValidation_Stateful.views.get( 0 ) );
+    }
+
+    /**
+     * A validator that can't be created because of an exception is skipped.
+     * 
+     * @throws Throwable
+     */
+    @Test
+    public void validatorConstructorExceptionIsLogged() throws Throwable
+    {
+        RESTCall call = new RESTCall( DefaultValidation_ConstructorException.class ).setPreviousAction( mockAction );
+
+        assertTrue( call.defaultValidators.isEmpty() );
+    }
+
+    /**
+     * Errors of the validator constructor are not swallowed.
+     * 
+     * @throws Throwable
+     */
+    @Test( expected = LinkageError.class )
+    public void validatorConstructorErrorIsPropagated() throws Throwable
+    {
+        new RESTCall( DefaultValidation_ConstructorError.class );
+    }
+
+    /**
+     * Errors of a stateless validator constructor don't break the descriptor of the class. They are propagated every
+     * time a REST call needs the validator.
+     * 
+     * @throws Throwable
+     */
+    @Test
+    public void statelessValidatorConstructorErrorIsPropagated() throws Throwable
+    {
+        ResourceDescriptor descriptor = ResourceDescriptor.forClass( DefaultValidation_StatelessConstructorError.class );
+        assertSame( descriptor, ResourceDescriptor.forClass( DefaultValidation_StatelessConstructorError.class ) );
+
+        for ( int i = 0; i < 2; i++ )
+        {
+            try
+            {
+                new RESTCall( DefaultValidation_StatelessConstructorError.class );
+                fail( "LinkageError expected." );
+            } catch ( LinkageError e )
+            {
+                assertEquals( "Validator can't be created.", e.getMessage() );
+            }
+        }
+    }
 }
@@ -194,6 +194,60 @@ public class TestGlobalSettings
         XltProperties.getInstance().setProperty( "com.xceptance.xrt.http.method", "POST" );
     }
     
+    @Test
+    public void changedSingleDefinition() throws Throwable
+    {
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.queryParam.qp6", "val6" );
+        assertThat( new RESTCall().getQueryParams(), hasEntry( "qp6", "val6" ) );
+
+        // Test cleanup
+        XltProperties.getInstance().removeProperty( "com.xceptance.xrt.queryParam.qp6" );
+        assertFalse( new RESTCall().getQueryParams().containsKey( "qp6" ) );
+    }
+
+    @Test
+    public void changedSettingsDoNotAffectExistingCalls() throws Throwable
+    {
+        RESTCall call = new RESTCall();
+
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.host", "www.other.com" );
+        assertEquals( "www.other.com", new RESTCall().getHostName() );
+        assertEquals( "www.xrt.com", call.getHostName() );
+
+        // Test cleanup
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.host", "www.xrt.com" );
+    }
+
+    @Test
+    public void snapshotReusedWhileUnchanged() throws Throwable
+    {
+        GlobalSettings settings = GlobalSettings.getCurrent();
+        assertSame( settings, GlobalSettings.getCurrent() );
+
+        // Properties outside of XRT don't matter.
+        XltProperties.getInstance().setProperty( "com.xceptance.other.setting", "value" );
+        assertSame( settings, GlobalSettings.getCurrent() );
+
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.host", "www.other.com" );
+        assertNotSame( settings, GlobalSettings.getCurrent() );
+
+        // Test cleanup
+        XltProperties.getInstance().removeProperty( "com.xceptance.other.setting" );
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.host", "www.xrt.com" );
+    }
+
+    @Test
+    public void timeout() throws Throwable
+    {
+        assertEquals( 100000, GlobalSettings.getCurrent().timeout );
+
+        XltProperties.getInstance().setProperty( "com.xceptance.xlt.timeout", "5000" );
+        assertEquals( 5000, GlobalSettings.getCurrent().timeout );
+
+        // Test cleanup
+        XltProperties.getInstance().removeProperty( "com.xceptance.xlt.timeout" );
+    }
+
     @Test
     public void defaultValidationEnabled() throws Throwable
     {
@@ -258,6 +258,37 @@ public class TestPreprocessing
         XltProperties.getInstance().removeProperty( "com.xceptance.xrt.preprocess.class" );
     }
 
+    @Test
+    public void factoryIsCached() throws Throwable
+    {
+        PreprocessorFactory factory = PreprocessorFactory.forName( DummyTokenProvider.class.getName() );
+
+        Assert.assertSame( factory, PreprocessorFactory.forName( DummyTokenProvider.class.getName() ) );
+        Assert.assertSame( factory, PreprocessorFactory.forClass( DummyTokenProvider.class ) );
+        Assert.assertTrue( factory.newInstance() instanceof DummyTokenProvider );
+        Assert.assertNotSame( factory.newInstance(), factory.newInstance() );
+    }
+
+    @Test
+    public void factoryMissesAreCached() throws Throwable
+    {
+        PreprocessorFactory notFound = PreprocessorFactory.forName( "com.xceptance.xrt.DoesNotExist" );
+        PreprocessorFactory wrongType = PreprocessorFactory.forClass( DefinitionNoPreProcessor.class );
+
+        Assert.assertFalse( notFound.isAvailable() );
+        Assert.assertNull( notFound.newInstance() );
+        Assert.assertSame( notFound, PreprocessorFactory.forName( "com.xceptance.xrt.DoesNotExist" ) );
+        Assert.assertFalse( wrongType.isAvailable() );
+        Assert.assertSame( wrongType, PreprocessorFactory.forClass( DefinitionNoPreProcessor.class ) );
+    }
+
+    /**
+     * A definition class that doesn't implement {@link PreProcessible}.
+     */
+    public static class DefinitionNoPreProcessor
+    {
+    }
+
     @Test
     public void setPreprocessor() throws Throwable
     {
@@ -0,0 +1,480 @@
+package com.xceptance.xrt;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.gargoylesoftware.htmlunit.HttpMethod;
+import com.gargoylesoftware.htmlunit.WebRequest;
+import com.gargoylesoftware.htmlunit.WebResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.xceptance.xlt.api.util.XltProperties;
+
+/**
+ * Tests the asynchronous and batch processing of REST calls against a local HTTP server.
+ */
+public class TestRESTCallAsync
+{
+    /**
+     * Resource definition whose default validation always fails.
+     */
+    public static class FailingValidation implements AutoValidatable
+    {
+        @Override
+        public void validate( final RESTCallValidator call )
+        {
+            throw new AssertionError( "validation failed" );
+        }
+    }
+
+    /**
+     * Resource definition with a validator that is not thread-safe. Records its instances and whether an instance was
+     * used by two calls at the same time.
+     */
+    public static class StatefulValidation implements AutoValidatable
+    {
+        static final Set<StatefulValidation> instances = ConcurrentHashMap.newKeySet();
+
+        static final AtomicBoolean overlapped = new AtomicBoolean();
+
+        private final AtomicBoolean inUse = new AtomicBoolean();
+
+        @Override
+        public void validate( final RESTCallValidator call )
+        {
+            instances.add( this );
+            if ( !inUse.compareAndSet( false, true ) )
+                overlapped.set( true );
+
+            try
+            {
+                Thread.sleep( 50 );
+            } catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            inUse.set( false );
+        }
+    }
+
+    /**
+     * Single-use pre-processor that is not thread-safe. Records its instances.
+     */
+    public static class StatefulPreprocessor implements PreProcessible
+    {
+        static final Set<StatefulPreprocessor> instances = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void preProcess( final RESTCall restCall )
+        {
+            instances.add( this );
+        }
+    }
+
+    /**
+     * Reusable pre-processor that is not thread-safe. Records whether it was used by two calls at the same time.
+     */
+    public static class SerialPreprocessor implements PreProcessible
+    {
+        final AtomicInteger invocations = new AtomicInteger();
+
+        final AtomicBoolean overlapped = new AtomicBoolean();
+
+        private final AtomicBoolean inUse = new AtomicBoolean();
+
+        @Override
+        public void preProcess( final RESTCall restCall )
+        {
+            if ( !inUse.compareAndSet( false, true ) )
+                overlapped.set( true );
+
+            try
+            {
+                Thread.sleep( 20 );
+            } catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            invocations.incrementAndGet();
+            inUse.set( false );
+        }
+    }
+
+    /**
+     * Transport that records the action of every REST call.
+     */
+    public static class RecordingTransport implements RESTTransport
+    {
+        final Map<String, XltRESTAction> actions = new ConcurrentHashMap<>();
+
+        @Override
+        public WebResponse send( final WebRequest request, final XltRESTAction action ) throws Exception
+        {
+            actions.put( action.getTimerName(), action );
+
+            return RESTTransport.LEAN.send( request, action );
+        }
+    }
+
+    /**
+     * Thread-safe pre-processor that counts its invocations.
+     */
+    public static class CountingPreprocessor implements PreProcessible
+    {
+        final AtomicInteger invocations = new AtomicInteger();
+
+        @Override
+        public void preProcess( final RESTCall restCall )
+        {
+            invocations.incrementAndGet();
+        }
+    }
+
+    /**
+     * The response body of the local server.
+     */
+    private static final String RESPONSE_BODY = "{\"id\":\"test\"}";
+
+    /**
+     * The local server.
+     */
+    private HttpServer server;
+
+    /**
+     * The number of requests that are currently handled.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * The maximum number of requests handled at the same time.
+     */
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    /**
+     * Requests wait until this latch is released or a timeout occurs.
+     */
+    private volatile CountDownLatch arrivals = new CountDownLatch( 0 );
+
+    /**
+     * The paths of all requests.
+     */
+    private final Set<String> paths = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Define result dir to prevent timers.csv exceptions.
+     */
+    @BeforeClass
+    public static void setUpOnce()
+    {
+        XltProperties.getInstance().setProperty( "com.xceptance.xlt.result-dir", "tmp" );
+    }
+
+    /**
+     * Cleanup the timer output.
+     */
+    @AfterClass
+    public static void tearDownFinally() throws Throwable
+    {
+        FileUtils.deleteDirectory( new File( "tmp" ) );
+    }
+
+    /**
+     * Starts the local server.
+     */
+    @Before
+    public void setUp() throws Throwable
+    {
+        server = HttpServer.create( new InetSocketAddress( InetAddress.getLoopbackAddress(), 0 ), 0 );
+        server.setExecutor( Executors.newCachedThreadPool() );
+        server.createContext( "/", new HttpHandler()
+        {
+            @Override
+            public void handle( final HttpExchange exchange ) throws IOException
+            {
+                paths.add( exchange.getRequestURI().getPath() );
+
+                int current = inFlight.incrementAndGet();
+                while ( maxInFlight.get() < current )
+                    maxInFlight.compareAndSet( maxInFlight.get(), current );
+
+                try
+                {
+                    arrivals.countDown();
+                    arrivals.await( 5, TimeUnit.SECONDS );
+
+                    byte[] body = RESPONSE_BODY.getBytes( StandardCharsets.UTF_8 );
+                    exchange.getResponseHeaders().set( "Content-Type", "application/json" );
+                    exchange.sendResponseHeaders( 200, body.length );
+                    try ( OutputStream out = exchange.getResponseBody() )
+                    {
+                        out.write( body );
+                    }
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                }
+                finally
+                {
+                    inFlight.decrementAndGet();
+                    exchange.close();
+                }
+            }
+        } );
+        server.start();
+    }
+
+    /**
+     * Stops the local server and removes the reusable pre-processor.
+     */
+    @After
+    public void tearDown()
+    {
+        server.stop( 0 );
+        new RESTCall().setPreprocessor( null, true );
+    }
+
+    @Test
+    public void getAsync() throws Throwable
+    {
+        RESTCall call = new RESTCall( url() );
+        CompletableFuture<RESTCall> future = call.getAsync();
+
+        Assert.assertSame( call, future.get( 10, TimeUnit.SECONDS ) );
+        Assert.assertEquals( 200, call.getResponseStatusCode() );
+        Assert.assertEquals( RESPONSE_BODY, call.getResponseBodyAsString() );
+    }
+
+    @Test
+    public void callsRunConcurrently() throws Throwable
+    {
+        // Every request waits until the second one arrives.
+        arrivals = new CountDownLatch( 2 );
+
+        CompletableFuture<RESTCall> first = new RESTCall( url() ).getAsync();
+        CompletableFuture<RESTCall> second = new RESTCall( url() ).getAsync();
+
+        CompletableFuture.allOf( first, second ).get( 10, TimeUnit.SECONDS );
+
+        Assert.assertEquals( 2, maxInFlight.get() );
+        Assert.assertEquals( 200, first.get().getResponseStatusCode() );
+        Assert.assertEquals( 200, second.get().getResponseStatusCode() );
+    }
+
+    @Test
+    public void concurrentCallsKeepActionsAndPreprocessor() throws Throwable
+    {
+        // Every request waits until the third one arrives.
+        arrivals = new CountDownLatch( 3 );
+
+        CountingPreprocessor preprocessor = new CountingPreprocessor();
+        new RESTCall().setPreprocessor( preprocessor, true );
+
+        RecordingTransport transport = new RecordingTransport();
+        List<String> names = Arrays.asList( "First", "Second", "Third" );
+        List<RESTCall> calls = new ArrayList<>();
+        List<CompletableFuture<RESTCall>> futures = new ArrayList<>();
+        for ( String name : names )
+        {
+            RESTCall call = new RESTCall( url() ).setActionName( name ).setTransport( transport );
+            calls.add( call );
+            futures.add( call.getAsync() );
+        }
+
+        CompletableFuture.allOf( futures.toArray( new CompletableFuture<?>[futures.size()] ) ).get( 10, TimeUnit.SECONDS );
+        Assert.assertEquals( 3, maxInFlight.get() );
+
+        // Every call ran its own action with its own timer.
+        Assert.assertEquals( new HashSet<>( names ), transport.actions.keySet() );
+        Assert.assertEquals( 3, new HashSet<>( transport.actions.values() ).size() );
+        for ( XltRESTAction action : transport.actions.values() )
+            Assert.assertFalse( transport.actions.containsValue( action.getPreviousAction() ) );
+
+        // The reusable pre-processor ran once per call, but neither the calls nor the test case were changed.
+        Assert.assertEquals( 3, preprocessor.invocations.get() );
+        Assert.assertSame( preprocessor, SessionContext.getCurrent().reusablePreprocessor );
+
+        PreProcessible other = new CountingPreprocessor();
+        new RESTCall().setPreprocessor( other, true );
+        for ( RESTCall call : calls )
+            Assert.assertSame( other, call.getPreprocessor() );
+    }
+
+    @Test
+    public void failedCallKeepsPreprocessorSettings() throws Throwable
+    {
+        new RESTCall().setPreprocessor( new CountingPreprocessor(), true );
+
+        RESTCall call = new RESTCall( FailingValidation.class ).setUrl( url() );
+        try
+        {
+            call.getAsync().get( 10, TimeUnit.SECONDS );
+            Assert.fail( "Expected the validation to fail." );
+        }
+        catch ( ExecutionException e )
+        {
+            Assert.assertTrue( e.getCause() instanceof AssertionError );
+        }
+
+        // A new reusable pre-processor also applies to the failed call.
+        PreProcessible other = new CountingPreprocessor();
+        new RESTCall().setPreprocessor( other, true );
+        Assert.assertSame( other, call.getPreprocessor() );
+    }
+
+    @Test
+    public void failedValidationCompletesExceptionally() throws Throwable
+    {
+        CompletableFuture<RESTCall> future = new RESTCall( FailingValidation.class ).setUrl( url() ).getAsync();
+
+        try
+        {
+            future.get( 10, TimeUnit.SECONDS );
+            Assert.fail( "Expected the validation to fail." );
+        }
+        catch ( ExecutionException e )
+        {
+            Assert.assertTrue( e.getCause() instanceof AssertionError );
+            Assert.assertEquals( "validation failed", e.getCause().getMessage() );
+        }
+    }
+
+    @Test
+    public void processAll() throws Throwable
+    {
+        // The first two requests wait for each other.
+        arrivals = new CountDownLatch( 2 );
+
+        List<RESTCall> calls = Arrays.asList( getCall(), getCall(), getCall(), getCall(), getCall() );
+
+        Assert.assertEquals( calls, RESTCall.processAll( calls, 2 ) );
+        Assert.assertEquals( 2, maxInFlight.get() );
+        for ( RESTCall call : calls )
+            Assert.assertEquals( 200, call.getResponseStatusCode() );
+    }
+
+    @Test
+    public void processAllPlaceholderValues() throws Throwable
+    {
+        RESTCall call = new RESTCall( url() + "/${id}" ).setHttpMethod( HttpMethod.GET );
+        List<RESTCall> calls = call.processAll( "id", Arrays.asList( "1", "2", "3" ), 2 );
+
+        Assert.assertEquals( 3, calls.size() );
+        Assert.assertEquals( url() + "/1", calls.get( 0 ).getUrl() );
+        Assert.assertEquals( url() + "/2", calls.get( 1 ).getUrl() );
+        Assert.assertEquals( url() + "/3", calls.get( 2 ).getUrl() );
+        Assert.assertEquals( new HashSet<>( Arrays.asList( "/products/1", "/products/2", "/products/3" ) ),
+                             paths );
+    }
+
+    @Test
+    public void processAllPlaceholderValuesWithStatefulValidator() throws Throwable
+    {
+        StatefulValidation.instances.clear();
+        StatefulValidation.overlapped.set( false );
+        StatefulPreprocessor.instances.clear();
+
+        // The calls run at the same time, each one needs its own validator and pre-processor.
+        arrivals = new CountDownLatch( 4 );
+        RESTCall call = new RESTCall( StatefulValidation.class ).setUrl( url() + "/${id}" )
+                                                                 .setHttpMethod( HttpMethod.GET )
+                                                                 .setPreprocessor( new StatefulPreprocessor(), false );
+        call.processAll( "id", Arrays.asList( "1", "2", "3", "4" ), 4 );
+
+        Assert.assertEquals( 4, StatefulValidation.instances.size() );
+        Assert.assertFalse( StatefulValidation.overlapped.get() );
+        Assert.assertEquals( 4, StatefulPreprocessor.instances.size() );
+    }
+
+    @Test
+    public void reusablePreprocessorUsedOneAtATime() throws Throwable
+    {
+        SerialPreprocessor preprocessor = new SerialPreprocessor();
+        new RESTCall().setPreprocessor( preprocessor, true );
+
+        List<CompletableFuture<RESTCall>> futures = new ArrayList<>();
+        for ( int i = 0; i < 4; i++ )
+            futures.add( getCall().processAsync() );
+        for ( CompletableFuture<RESTCall> future : futures )
+            future.get( 10, TimeUnit.SECONDS );
+
+        Assert.assertEquals( 4, preprocessor.invocations.get() );
+        Assert.assertFalse( preprocessor.overlapped.get() );
+    }
+
+    @Test
+    public void processAllDoesNotGrowExecutor() throws Throwable
+    {
+        // Only the 4 async threads run at the same time although the batch allows 8.
+        arrivals = new CountDownLatch( 4 );
+
+        List<RESTCall> calls = new ArrayList<>();
+        for ( int i = 0; i < 8; i++ )
+            calls.add( getCall() );
+        RESTCall.processAll( calls, 8 );
+
+        Assert.assertEquals( 4, maxInFlight.get() );
+    }
+
+    @Test( expected = AssertionError.class )
+    public void processAllFailedValidation() throws Throwable
+    {
+        RESTCall.processAll( Arrays.asList( getCall(), new RESTCall( FailingValidation.class ).setUrl( url() )
+                                                                              .setHttpMethod( HttpMethod.GET ) ), 1 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void processAllWithoutConcurrency() throws Throwable
+    {
+        RESTCall.processAll( Arrays.asList( getCall() ), 0 );
+    }
+
+    /**
+     * Returns the Url of the local server.
+     *
+     * @return The Url of the local server.
+     */
+    private String url()
+    {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/products";
+    }
+
+    /**
+     * Returns a new GET call to the local server.
+     *
+     * @return The REST call.
+     */
+    private RESTCall getCall()
+    {
+        return new RESTCall( url() ).setHttpMethod( HttpMethod.GET );
+    }
+}
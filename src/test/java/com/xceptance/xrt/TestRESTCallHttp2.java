@@ -0,0 +1,252 @@
+package com.xceptance.xrt;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.entity.StringAsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.entity.StringAsyncEntityProducer;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.nio.support.BasicResponseProducer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2ServerBootstrap;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.ListenerEndpoint;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.gargoylesoftware.htmlunit.HttpMethod;
+import com.xceptance.xlt.api.util.XltProperties;
+
+/**
+ * Tests the HTTP/2 transport against a local h2c server that echoes the request.
+ */
+public class TestRESTCallHttp2
+{
+    /**
+     * The local server.
+     */
+    private HttpAsyncServer server;
+
+    /**
+     * The port of the local server.
+     */
+    private int port;
+
+    /**
+     * The remote addresses of all connections that sent requests.
+     */
+    private final Set<String> connections = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Responses are held back until this number of requests is pending.
+     */
+    private volatile int arrivals = 1;
+
+    /**
+     * The responses that are held back.
+     */
+    private final List<Runnable> pending = new ArrayList<>();
+
+    /**
+     * Define result dir to prevent timers.csv exceptions.
+     */
+    @BeforeClass
+    public static void setUpOnce()
+    {
+        XltProperties.getInstance().setProperty( "com.xceptance.xlt.result-dir", "tmp" );
+    }
+
+    /**
+     * Cleanup the timer output.
+     */
+    @AfterClass
+    public static void tearDownFinally() throws Throwable
+    {
+        FileUtils.deleteDirectory( new File( "tmp" ) );
+    }
+
+    /**
+     * Starts the local server. The response body contains the protocol version, the method, and the request body.
+     */
+    @Before
+    public void setUp() throws Throwable
+    {
+        server = H2ServerBootstrap.bootstrap().setVersionPolicy( HttpVersionPolicy.FORCE_HTTP_2 )
+                                  .register( "*", new AsyncServerRequestHandler<Message<HttpRequest, String>>()
+                                  {
+                                      @Override
+                                      public AsyncRequestConsumer<Message<HttpRequest, String>> prepare(
+                                              final HttpRequest request, final EntityDetails entityDetails,
+                                              final HttpContext context ) throws HttpException
+                                      {
+                                          return new BasicRequestConsumer<>( new StringAsyncEntityConsumer() );
+                                      }
+
+                                      @Override
+                                      public void handle( final Message<HttpRequest, String> message,
+                                                          final ResponseTrigger trigger, final HttpContext context )
+                                          throws HttpException, IOException
+                                      {
+                                          respond( message, trigger, context );
+                                      }
+                                  } ).create();
+        server.start();
+
+        ListenerEndpoint endpoint = server.listen( new InetSocketAddress( InetAddress.getLoopbackAddress(), 0 ) )
+                                          .get( 10, TimeUnit.SECONDS );
+        port = ( (InetSocketAddress) endpoint.getAddress() ).getPort();
+    }
+
+    /**
+     * Stops the local server and restores the default transport.
+     */
+    @After
+    public void tearDown()
+    {
+        server.close( CloseMode.IMMEDIATE );
+        XltProperties.getInstance().removeProperty( "com.xceptance.xrt.transport" );
+    }
+
+    @Test
+    public void get() throws Throwable
+    {
+        RESTCall call = new RESTCall( url() ).setTransport( RESTTransport.HTTP2 ).get();
+
+        Assert.assertEquals( 200, call.getResponseStatusCode() );
+        Assert.assertEquals( "HTTP/2.0 GET /echo ", call.getResponseBodyAsString() );
+        Assert.assertEquals( "true", call.getResponseHttpHeader( "x-echo" ) );
+    }
+
+    @Test
+    public void post() throws Throwable
+    {
+        RESTCall call = new RESTCall( url() ).setTransport( RESTTransport.HTTP2 )
+                                             .addHttpHeader( "Content-Type", "application/json" )
+                                             .post( "{\"id\":\"4711\"}" );
+
+        Assert.assertEquals( "HTTP/2.0 POST /echo {\"id\":\"4711\"}", call.getResponseBodyAsString() );
+    }
+
+    @Test
+    public void fileBody() throws Throwable
+    {
+        Path file = Files.createTempFile( "xrt", ".json" );
+        try
+        {
+            Files.write( file, "{\"id\":\"file\"}".getBytes( StandardCharsets.UTF_8 ) );
+
+            RESTCall call = new RESTCall( url() ).setTransport( RESTTransport.HTTP2 )
+                                                 .setRequestBody( file, "application/json" ).put();
+
+            Assert.assertEquals( "HTTP/2.0 PUT /echo {\"id\":\"file\"}", call.getResponseBodyAsString() );
+        }
+        finally
+        {
+            Files.delete( file );
+        }
+    }
+
+    @Test
+    public void concurrentCallsShareOneConnection() throws Throwable
+    {
+        // No response is sent before all four requests arrived.
+        arrivals = 4;
+
+        RESTCall call = new RESTCall( url() + "/${id}" ).setTransport( RESTTransport.HTTP2 )
+                                                        .setHttpMethod( HttpMethod.GET );
+        List<RESTCall> calls = call.processAll( "id", Arrays.asList( "1", "2", "3", "4" ), 4 );
+
+        for ( RESTCall performed : calls )
+            Assert.assertEquals( 200, performed.getResponseStatusCode() );
+
+        Assert.assertEquals( 1, connections.size() );
+    }
+
+    @Test
+    public void globalTransport()
+    {
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.transport", "http2" );
+
+        Assert.assertSame( RESTTransport.HTTP2, new RESTCall().getTransport() );
+    }
+
+    /**
+     * Echoes the request. The response is held back until the expected number of requests arrived.
+     */
+    private void respond( final Message<HttpRequest, String> message, final AsyncServerRequestHandler.ResponseTrigger trigger,
+                          final HttpContext context )
+    {
+        HttpRequest request = message.getHead();
+        connections.add( String.valueOf( HttpCoreContext.adapt( context ).getEndpointDetails().getRemoteAddress() ) );
+
+        final String echo = request.getVersion() + " " + request.getMethod() + " " + request.getPath() + " "
+                + ( message.getBody() != null ? message.getBody() : "" );
+
+        synchronized ( pending )
+        {
+            pending.add( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    BasicHttpResponse response = new BasicHttpResponse( 200 );
+                    response.addHeader( "X-Echo", "true" );
+                    try
+                    {
+                        trigger.submitResponse( new BasicResponseProducer( response, new StringAsyncEntityProducer(
+                                echo, ContentType.TEXT_PLAIN ) ), context );
+                    }
+                    catch ( HttpException | IOException e )
+                    {
+                        throw new IllegalStateException( e );
+                    }
+                }
+            } );
+
+            if ( pending.size() >= arrivals )
+            {
+                for ( Runnable runnable : pending )
+                    runnable.run();
+
+                pending.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the Url of the local server.
+     *
+     * @return The Url of the local server.
+     */
+    private String url()
+    {
+        return "http://localhost:" + port + "/echo";
+    }
+}
@@ -0,0 +1,74 @@
+package com.xceptance.xrt;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.xceptance.xlt.api.engine.CustomData;
+import com.xceptance.xlt.api.util.XltProperties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the phase timers of a REST call.
+ */
+public class TestRESTCallPhases
+{
+    @After
+    public void tearDown()
+    {
+        XltProperties.reset();
+    }
+
+    @Test
+    public void onlyPhasesThatRan()
+    {
+        RESTCallPhases phases = new RESTCallPhases( "GetProduct" );
+        phases.stop( RESTCallPhases.PREPARE, RESTCallPhases.start() );
+        phases.stop( RESTCallPhases.VALIDATION, RESTCallPhases.start() );
+
+        List<CustomData> timers = phases.toTimers();
+
+        assertEquals( 2, timers.size() );
+        assertEquals( "GetProduct (prepare)", timers.get( 0 ).getName() );
+        assertEquals( "GetProduct (validation)", timers.get( 1 ).getName() );
+    }
+
+    @Test
+    public void nestedPhaseIsTakenFromOuterPhase() throws Exception
+    {
+        RESTCallPhases phases = new RESTCallPhases( "GetProduct" );
+
+        long transport = RESTCallPhases.start();
+        long page = RESTCallPhases.start();
+        Thread.sleep( 50 );
+        phases.stopNested( RESTCallPhases.PAGE, RESTCallPhases.TRANSPORT, page );
+        phases.stop( RESTCallPhases.TRANSPORT, transport );
+
+        List<CustomData> timers = phases.toTimers();
+
+        assertEquals( "GetProduct (transport)", timers.get( 0 ).getName() );
+        assertTrue( timers.get( 0 ).getRunTime() < 50 );
+        assertEquals( "GetProduct (page)", timers.get( 1 ).getName() );
+        assertTrue( timers.get( 1 ).getRunTime() >= 50 );
+    }
+
+    @Test
+    public void disabledByDefault()
+    {
+        assertFalse( new RESTCall().isPhaseTimersEnabled() );
+    }
+
+    @Test
+    public void globalSetting()
+    {
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.phaseTimers.enabled", "true" );
+
+        RESTCall call = new RESTCall();
+        assertTrue( call.isPhaseTimersEnabled() );
+        assertFalse( call.setPhaseTimersEnabled( false ).isPhaseTimersEnabled() );
+    }
+}
@@ -1,10 +1,15 @@
 package com.xceptance.xrt;
 
 import java.io.File;
+import java.io.InputStream;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.codehaus.jackson.map.JsonMappingException;
+import org.codehaus.jackson.type.TypeReference;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.Before;
@@ -18,6 +23,7 @@ import com.gargoylesoftware.htmlunit.util.NameValuePair;
 import com.xceptance.xlt.api.util.XltProperties;
 import com.xceptance.xrt.RESTCall;
 import com.xceptance.xrt.RESTCallNotYetPerformedException;
+import com.xceptance.xrt.document.JSON;
 
 /**
  * This class validates the response behavior of the RESTCall class.
@@ -30,6 +36,14 @@ public class TestRESTCallResponse
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
+    /**
+     * The type the response body is bound to.
+     */
+    public static class Item
+    {
+        public String id;
+    }
+
     /****************************************************************************************
      ************************ Mock Settings *************************************************
      ****************************************************************************************/
@@ -140,6 +154,51 @@ public class TestRESTCallResponse
         new RESTCall().getResponseBodyAsString();
     }
 
+    @Test
+    public void getResponseBodyAsStream_Positive() throws Throwable
+    {
+        RESTCall call = new RESTCall( URL ).setPreviousAction( mockAction ).get();
+        try ( InputStream stream = call.getResponseBodyAsStream() )
+        {
+            Assert.assertEquals( RESPONSE_BODY, IOUtils.toString( stream, "UTF-8" ) );
+        }
+        Assert.assertEquals( RESPONSE_BODY.length(), call.getResponseBodyLength() );
+    }
+
+    @Test
+    public void getResponseBodyAsStream_NoCallPerformed() throws Throwable
+    {
+        expectedException.expect( RESTCallNotYetPerformedException.class );
+        expectedException.expectMessage( "getResponseBodyAsStream()" );
+
+        new RESTCall().getResponseBodyAsStream();
+    }
+
+    @Test
+    public void getResponseBodyAsReader_Positive() throws Throwable
+    {
+        RESTCall call = new RESTCall( URL ).setPreviousAction( mockAction ).get();
+        try ( Reader reader = call.getResponseBodyAsReader() )
+        {
+            Assert.assertEquals( RESPONSE_BODY, IOUtils.toString( reader ) );
+        }
+
+        // Every call starts at the beginning of the body
+        try ( Reader reader = call.getResponseBodyAsReader() )
+        {
+            Assert.assertEquals( RESPONSE_BODY, IOUtils.toString( reader ) );
+        }
+    }
+
+    @Test
+    public void getResponseBodyAsReader_NoCallPerformed() throws Throwable
+    {
+        expectedException.expect( RESTCallNotYetPerformedException.class );
+        expectedException.expectMessage( "getResponseBodyAsReader()" );
+
+        new RESTCall().getResponseBodyAsReader();
+    }
+
     @Test
     public void getResponseBodyAsJSON_Positive() throws Throwable
     {
@@ -147,6 +206,101 @@ public class TestRESTCallResponse
         Assert.assertEquals( RESPONSE_BODY, call.getResponseBodyAsJSON().toString() );
     }
 
+    @Test
+    public void getResponseBodyAsJSON_SameInstance() throws Throwable
+    {
+        RESTCall call = new RESTCall( URL ).setPreviousAction( mockAction ).get();
+        Assert.assertSame( call.getResponseBodyAsJSON(), call.getResponseBodyAsJSON() );
+    }
+
+    @Test
+    public void getResponseBodyAsJSON_NewInstanceAfterNextCall() throws Throwable
+    {
+        RESTCall call = new RESTCall( URL ).setPreviousAction( mockAction ).get();
+        JSON json = call.getResponseBodyAsJSON();
+
+        call.get();
+        Assert.assertNotSame( json, call.getResponseBodyAsJSON() );
+    }
+
+    @Test
+    public void getResponseBodyAsStreamingJSON_Positive() throws Throwable
+    {
+        RESTCall call = new RESTCall( URL ).setPreviousAction( mockAction ).get();
+        Assert.assertEquals( RESPONSE_BODY, call.getResponseBodyAsStreamingJSON().toString() );
+    }
+
+    @Test
+    public void getResponseBodyAsStreamingJSON_NoCallPerformed()
+    {
+        expectedException.expect( RESTCallNotYetPerformedException.class );
+        expectedException.expectMessage( "getResponseBodyAsStreamingJSON()" );
+
+        new RESTCall().getResponseBodyAsStreamingJSON();
+    }
+
+    @Test
+    public void getResponseBodyAs_Class() throws Throwable
+    {
+        RESTCall call = new RESTCall( URL ).setPreviousAction( mockAction ).get();
+        Item item = call.getResponseBodyAs( Item.class );
+
+        Assert.assertEquals( "test", item.id );
+        Assert.assertEquals( "test", new RESTCallValidator( call ).getResponseBodyAs( Item.class ).id );
+        Assert.assertSame( JsonMapping.reader( Item.class ), JsonMapping.reader( Item.class ) );
+    }
+
+    @Test
+    public void getResponseBodyAs_TypeReference() throws Throwable
+    {
+        MockWebConnection connection = new MockWebConnection();
+        connection.setDefaultResponse( "[{\"id\":\"1\"},{\"id\":\"2\"}]", STATUS_CODE, STATUS_MESSAGE, CONTENT_TYPE,
+                                       HTTP_HEADERS );
+        mockAction.getWebClient().setWebConnection( connection );
+
+        RESTCall call = new RESTCall( URL ).setPreviousAction( mockAction ).get();
+        List<Item> items = call.getResponseBodyAs( new TypeReference<List<Item>>()
+        {
+        } );
+
+        Assert.assertEquals( 2, items.size() );
+        Assert.assertEquals( "2", items.get( 1 ).id );
+
+        // Every type reference of the same type shares the reader.
+        Assert.assertSame( JsonMapping.reader( new TypeReference<List<Item>>()
+        {
+        } ), JsonMapping.reader( new TypeReference<List<Item>>()
+        {
+        } ) );
+    }
+
+    @Test
+    public void getResponseBodyAs_Latin1() throws Throwable
+    {
+        MockWebConnection connection = new MockWebConnection();
+        connection.setDefaultResponse( "{\"id\":\"Zo\u00eb\"}".getBytes( "ISO-8859-1" ), STATUS_CODE, STATUS_MESSAGE,
+                                       "application/json; charset=ISO-8859-1" );
+        mockAction.getWebClient().setWebConnection( connection );
+
+        RESTCall call = new RESTCall( URL ).setPreviousAction( mockAction ).get();
+        Assert.assertEquals( "Zo\u00eb", call.getResponseBodyAs( Item.class ).id );
+    }
+
+    @Test( expected = JsonMappingException.class )
+    public void getResponseBodyAs_Mismatch() throws Throwable
+    {
+        new RESTCall( URL ).setPreviousAction( mockAction ).get().getResponseBodyAs( Integer.class );
+    }
+
+    @Test
+    public void getResponseBodyAs_NoCallPerformed() throws Throwable
+    {
+        expectedException.expect( RESTCallNotYetPerformedException.class );
+        expectedException.expectMessage( "getResponseBodyAs(Class)" );
+
+        new RESTCall().getResponseBodyAs( Item.class );
+    }
+
     @Test
     public void getResponseBodyAsJSON_EmptyBody() throws Throwable
     {
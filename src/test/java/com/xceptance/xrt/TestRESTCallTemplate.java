@@ -0,0 +1,160 @@
+package com.xceptance.xrt;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import com.gargoylesoftware.htmlunit.MockWebConnection;
+import com.xceptance.xlt.api.util.XltProperties;
+import com.xceptance.xrt.authentication.BasicAuthCredentials;
+import com.xceptance.xrt.validation.DefaultValidation_Correct;
+import com.xceptance.xrt.validation.DefaultValidation_Stateful;
+import com.xceptance.xrt.validation.DefaultValidation_Stateless;
+import com.xceptance.xrt.validation.preprocess.DummyTokenProvider;
+
+/**
+ * Tests the templates of REST calls and their forks.
+ */
+public class TestRESTCallTemplate
+{
+    private static final String URL = "http://www.xrt.com/rest/${id}?lang=${lang}";
+
+    private RESTCallTemplate createTemplate()
+    {
+        return new RESTCallTemplate( new RESTCall( URL ).addHttpHeader( "header1", "hvalue1" )
+                .addPlaceholderValue( "id", "1" ).addPlaceholderValue( "lang", "en" ) );
+    }
+
+    @After
+    public void tearDown() throws Throwable
+    {
+        DefaultValidation_Correct.valPerformed = false;
+        XltProperties.reset();
+    }
+
+    @AfterClass
+    public static void tearDownFinally() throws Throwable
+    {
+        FileUtils.deleteDirectory( new File( "tmp" ) );
+    }
+
+    @Test
+    public void forkHasTemplateConfiguration()
+    {
+        RESTCall fork = createTemplate().fork();
+
+        assertEquals( "http://www.xrt.com/rest/1?lang=en", fork.getUrl() );
+        assertEquals( "hvalue1", fork.getHttpHeader( "header1" ) );
+    }
+
+    @Test
+    public void forkChangesDoNotAffectTemplate()
+    {
+        RESTCallTemplate template = createTemplate();
+
+        RESTCall fork = template.fork().addPlaceholderValue( "id", "2" ).addQueryParam( "page", "3" )
+                .addHttpHeader( "header2", "hvalue2" ).setHostName( "www.other.com" );
+        fork.getHttpHeaders().remove( "header1" );
+
+        assertEquals( "http://www.other.com/rest/2?lang=en&page=3", fork.getUrl() );
+        assertNull( fork.getHttpHeader( "header1" ) );
+
+        RESTCall otherFork = template.fork();
+        assertEquals( "http://www.xrt.com/rest/1?lang=en", otherFork.getUrl() );
+        assertEquals( "hvalue1", otherFork.getHttpHeader( "header1" ) );
+        assertNull( otherFork.getHttpHeader( "header2" ) );
+        assertEquals( "http://www.xrt.com/rest/1?lang=en", template.getUrl() );
+    }
+
+    @Test
+    public void sourceChangesDoNotAffectTemplate()
+    {
+        RESTCall source = new RESTCall( URL ).addPlaceholderValue( "id", "1" ).addPlaceholderValue( "lang", "en" );
+        RESTCallTemplate template = new RESTCallTemplate( source );
+
+        source.addPlaceholderValue( "id", "2" ).setResourcePath( "other" );
+
+        assertEquals( "http://www.xrt.com/rest/1?lang=en", template.fork().getUrl() );
+    }
+
+    @Test
+    public void forksShareUnchangedMaps()
+    {
+        RESTCallTemplate template = createTemplate();
+        RESTCall fork1 = template.fork();
+        RESTCall fork2 = template.fork();
+
+        assertSame( fork1.readHttpHeaders(), fork2.readHttpHeaders() );
+        assertSame( fork1.defaultValidators, fork2.defaultValidators );
+
+        fork1.addHttpHeader( "header2", "hvalue2" );
+        assertNotSame( fork1.readHttpHeaders(), fork2.readHttpHeaders() );
+    }
+
+    @Test
+    public void credentialsAreCopiedPerFork()
+    {
+        RESTCallTemplate template = new RESTCallTemplate( new RESTCall( URL )
+                .setBasicAuthCredentials( new BasicAuthCredentials( "user", "pass" ) ) );
+
+        RESTCall fork = template.fork();
+        fork.getBasicAuthCredentials().setPassword( "changed" );
+
+        assertEquals( "pass", template.fork().getBasicAuthCredentials().getPassword() );
+    }
+
+    @Test
+    public void forkRunsTemplateValidators() throws Throwable
+    {
+        XltProperties.getInstance().setProperty( "com.xceptance.xlt.result-dir", "tmp" );
+
+        MockWebConnection connection = new MockWebConnection();
+        connection.setDefaultResponse( "{\"id\":\"test\"}", 200, "OK", "application/json" );
+
+        XltRESTAction mockAction = new XltRESTAction( new RESTCall() );
+        mockAction.getWebClient().setWebConnection( connection );
+
+        RESTCallTemplate template = new RESTCallTemplate( new RESTCall( DefaultValidation_Correct.class ) );
+        template.fork().setPreviousAction( mockAction ).get();
+
+        assertTrue( DefaultValidation_Correct.valPerformed );
+    }
+
+    @Test
+    public void forksGetOwnStatefulValidators()
+    {
+        RESTCallTemplate template = new RESTCallTemplate( new RESTCall( DefaultValidation_Stateful.class,
+                DefaultValidation_Stateless.class ) );
+        RESTCall fork1 = template.fork();
+        RESTCall fork2 = template.fork();
+
+        assertEquals( 2, fork1.defaultValidators.size() );
+        assertNotSame( fork1.defaultValidators.get( 0 ), fork2.defaultValidators.get( 0 ) );
+        assertSame( fork1.defaultValidators.get( 1 ), fork2.defaultValidators.get( 1 ) );
+    }
+
+    @Test
+    public void forksShareStatelessValidators()
+    {
+        RESTCallTemplate template = new RESTCallTemplate( new RESTCall( DefaultValidation_Stateless.class ) );
+
+        assertSame( template.fork().defaultValidators, template.fork().defaultValidators );
+    }
+
+    @Test
+    public void forksGetOwnPreprocessor()
+    {
+        RESTCallTemplate template = new RESTCallTemplate( new RESTCall( URL )
+                .setPreprocessor( new DummyTokenProvider(), false ) );
+        RESTCall fork1 = template.fork();
+        RESTCall fork2 = template.fork();
+
+        assertTrue( fork1.getPreprocessor() instanceof DummyTokenProvider );
+        assertNotSame( fork1.getPreprocessor(), fork2.getPreprocessor() );
+    }
+}
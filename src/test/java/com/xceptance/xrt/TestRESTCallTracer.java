@@ -0,0 +1,158 @@
+package com.xceptance.xrt;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.gargoylesoftware.htmlunit.HttpMethod;
+import com.gargoylesoftware.htmlunit.WebResponse;
+import com.gargoylesoftware.htmlunit.WebResponseData;
+import com.gargoylesoftware.htmlunit.util.NameValuePair;
+import com.xceptance.xlt.api.util.XltProperties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the selection of traced REST calls and the body handling of the {@link RESTCallTracer}.
+ */
+public class TestRESTCallTracer
+{
+    private static final String BODY = "{\"id\":\"test\"}";
+
+    @After
+    public void tearDown()
+    {
+        XltProperties.reset();
+    }
+
+    @Test
+    public void truncateUnlimited()
+    {
+        assertEquals( "{\"id\":\"test\"}", RESTCallTracer.truncate( "{\"id\":\"test\"}", -1 ) );
+    }
+
+    @Test
+    public void truncateShortBody()
+    {
+        assertEquals( "{\"id\":\"test\"}", RESTCallTracer.truncate( "{\"id\":\"test\"}", 13 ) );
+    }
+
+    @Test
+    public void truncateLongBody()
+    {
+        assertEquals( "{\"id\"... [8 more characters]", RESTCallTracer.truncate( "{\"id\":\"test\"}", 5 ) );
+    }
+
+    @Test
+    public void truncateEmptyLimit()
+    {
+        assertEquals( "... [2 more characters]", RESTCallTracer.truncate( "{}", 0 ) );
+    }
+
+    @Test
+    public void everyCallTracedByDefault()
+    {
+        for ( int i = 0; i < 5; i++ )
+            assertNotNull( RESTCallTracer.forCall( new RESTCall(), GlobalSettings.getCurrent() ) );
+    }
+
+    @Test
+    public void sampleRate()
+    {
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.trace.sampleRate", "3" );
+
+        int traced = 0;
+        for ( int i = 0; i < 9; i++ )
+        {
+            if ( RESTCallTracer.forCall( new RESTCall(), GlobalSettings.getCurrent() ) != null )
+                traced++;
+        }
+
+        assertEquals( 3, traced );
+    }
+
+    @Test
+    public void sampleRateBelowOneTracesEveryCall()
+    {
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.trace.sampleRate", "0" );
+
+        for ( int i = 0; i < 5; i++ )
+            assertNotNull( RESTCallTracer.forCall( new RESTCall(), GlobalSettings.getCurrent() ) );
+    }
+
+    @Test
+    public void actions()
+    {
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.trace.actions", "GetProduct, GetBasket" );
+
+        assertNotNull( RESTCallTracer.forCall( new RESTCall().setActionName( "GetProduct" ),
+                                               GlobalSettings.getCurrent() ) );
+        assertNotNull( RESTCallTracer.forCall( new RESTCall().setActionName( "GetBasket" ),
+                                               GlobalSettings.getCurrent() ) );
+        assertNull( RESTCallTracer.forCall( new RESTCall().setActionName( "Login" ), GlobalSettings.getCurrent() ) );
+    }
+
+    @Test
+    public void maxBodyLength() throws Throwable
+    {
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.trace.maxBodyLength", "5" );
+
+        RESTCallTracer tracer = RESTCallTracer.forCall( new RESTCall(), GlobalSettings.getCurrent() );
+        String message = tracer.describeResponse( response( BODY ) );
+
+        assertTrue( message, message.endsWith( "# Response - Body:\t{\"id\"... [truncated, 13 bytes in total]" ) );
+        assertFalse( message, message.contains( BODY ) );
+    }
+
+    @Test
+    public void maxBodyLengthDefault() throws Throwable
+    {
+        RESTCallTracer tracer = RESTCallTracer.forCall( new RESTCall(), GlobalSettings.getCurrent() );
+
+        assertTrue( tracer.describeResponse( response( BODY ) ).endsWith( "# Response - Body:\t" + BODY ) );
+    }
+
+    @Test
+    public void readBodyUnlimited() throws Throwable
+    {
+        assertEquals( BODY, RESTCallTracer.readBody( response( BODY ), -1 ) );
+    }
+
+    @Test
+    public void readBodyShortBody() throws Throwable
+    {
+        assertEquals( BODY, RESTCallTracer.readBody( response( BODY ), 13 ) );
+    }
+
+    @Test
+    public void readBodyLongBody() throws Throwable
+    {
+        assertEquals( "{\"id\"... [truncated, 13 bytes in total]", RESTCallTracer.readBody( response( BODY ), 5 ) );
+    }
+
+    @Test
+    public void readBodyMultiByteCharacters() throws Throwable
+    {
+        assertEquals( "äöü", RESTCallTracer.readBody( response( "äöü" ), 3 ) );
+    }
+
+    /**
+     * Creates a JSON response with the given body encoded in UTF-8.
+     */
+    private static WebResponse response( final String body ) throws Exception
+    {
+        List<NameValuePair> headers = new ArrayList<>();
+        headers.add( new NameValuePair( "Content-Type", "application/json;charset=UTF-8" ) );
+
+        WebResponseData data = new WebResponseData( body.getBytes( StandardCharsets.UTF_8 ), 200, "OK", headers );
+        return new WebResponse( data, new URL( "http://localhost/resource" ), HttpMethod.GET, 10 );
+    }
+}
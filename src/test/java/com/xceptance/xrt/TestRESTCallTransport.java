@@ -0,0 +1,328 @@
+package com.xceptance.xrt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.gargoylesoftware.htmlunit.WebRequest;
+import com.gargoylesoftware.htmlunit.WebResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.xceptance.xlt.api.util.XltProperties;
+import com.xceptance.xrt.authentication.BasicAuthCredentials;
+
+/**
+ * Tests the transports of REST calls against a local HTTP server that echoes the request.
+ */
+public class TestRESTCallTransport
+{
+    /**
+     * Transport that counts the requests and delegates to the lean transport.
+     */
+    public static class CountingTransport implements RESTTransport
+    {
+        static final AtomicInteger requests = new AtomicInteger();
+
+        @Override
+        public WebResponse send( final WebRequest request, final XltRESTAction action ) throws Exception
+        {
+            requests.incrementAndGet();
+
+            return RESTTransport.LEAN.send( request, action );
+        }
+    }
+
+    /**
+     * The local server.
+     */
+    private HttpServer server;
+
+    /**
+     * Define result dir to prevent timers.csv exceptions.
+     */
+    @BeforeClass
+    public static void setUpOnce()
+    {
+        XltProperties.getInstance().setProperty( "com.xceptance.xlt.result-dir", "tmp" );
+    }
+
+    /**
+     * Cleanup the timer output.
+     */
+    @AfterClass
+    public static void tearDownFinally() throws Throwable
+    {
+        FileUtils.deleteDirectory( new File( "tmp" ) );
+    }
+
+    /**
+     * Starts the local server. The response body contains the method, the Authorization header, and the request body.
+     */
+    @Before
+    public void setUp() throws Throwable
+    {
+        server = HttpServer.create( new InetSocketAddress( InetAddress.getLoopbackAddress(), 0 ), 0 );
+        server.createContext( "/", new HttpHandler()
+        {
+            @Override
+            public void handle( final HttpExchange exchange ) throws IOException
+            {
+                ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+                try ( InputStream in = exchange.getRequestBody() )
+                {
+                    byte[] buffer = new byte[1024];
+                    for ( int read; ( read = in.read( buffer ) ) != -1; )
+                        requestBody.write( buffer, 0, read );
+                }
+
+                String echo = exchange.getRequestMethod() + "|" + exchange.getRequestHeaders().getFirst( "Authorization" )
+                        + "|" + exchange.getRequestHeaders().getFirst( "X-Test" ) + "|"
+                        + new String( requestBody.toByteArray(), StandardCharsets.UTF_8 );
+
+                CRC32 crc = new CRC32();
+                crc.update( requestBody.toByteArray() );
+
+                byte[] body = echo.getBytes( StandardCharsets.UTF_8 );
+                exchange.getResponseHeaders().set( "Content-Type", "text/plain; charset=UTF-8" );
+                exchange.getResponseHeaders().set( "X-body-crc", requestBody.size() + "/" + crc.getValue() );
+                exchange.getResponseHeaders().set( "X-body-type",
+                                                   String.valueOf( exchange.getRequestHeaders()
+                                                                           .getFirst( "Content-Type" ) ) );
+                exchange.getResponseHeaders().set( "X-echo", "true" );
+                exchange.sendResponseHeaders( exchange.getRequestURI().getPath().endsWith( "missing" ) ? 404 : 200,
+                                              body.length );
+                try ( OutputStream out = exchange.getResponseBody() )
+                {
+                    out.write( body );
+                }
+            }
+        } );
+        server.start();
+    }
+
+    /**
+     * Stops the local server and restores the default transport.
+     */
+    @After
+    public void tearDown()
+    {
+        server.stop( 0 );
+        XltProperties.getInstance().removeProperty( "com.xceptance.xrt.transport" );
+    }
+
+    @Test
+    public void defaultTransport()
+    {
+        Assert.assertSame( RESTTransport.HTMLUNIT, new RESTCall().getTransport() );
+        Assert.assertSame( RESTTransport.HTMLUNIT, new RESTCall().setTransport( null ).getTransport() );
+    }
+
+    @Test
+    public void leanGet() throws Throwable
+    {
+        RESTCall call = new RESTCall( url() ).setTransport( RESTTransport.LEAN ).addHttpHeader( "X-Test", "header" )
+                                             .get();
+
+        Assert.assertEquals( 200, call.getResponseStatusCode() );
+        Assert.assertEquals( "GET|null|header|", call.getResponseBodyAsString() );
+        Assert.assertEquals( "true", call.getResponseHttpHeader( "X-echo" ) );
+    }
+
+    @Test
+    public void leanPost() throws Throwable
+    {
+        RESTCall call = new RESTCall( url() ).setTransport( RESTTransport.LEAN ).post( "{\"name\":\"Zoe\"}" );
+
+        Assert.assertEquals( "POST|null|null|{\"name\":\"Zoe\"}", call.getResponseBodyAsString() );
+    }
+
+    @Test
+    public void leanStatusCode() throws Throwable
+    {
+        RESTCall call = new RESTCall( url() + "/missing" ).setTransport( RESTTransport.LEAN ).get();
+
+        Assert.assertEquals( 404, call.getResponseStatusCode() );
+    }
+
+    @Test
+    public void leanBasicAuthentication() throws Throwable
+    {
+        RESTCall call = new RESTCall( url() ).setTransport( RESTTransport.LEAN )
+                                             .setBasicAuthCredentials( new BasicAuthCredentials( "user", "secret" ) ).get();
+
+        Assert.assertEquals( "GET|Basic dXNlcjpzZWNyZXQ=|null|", call.getResponseBodyAsString() );
+    }
+
+    @Test
+    public void phaseTimers() throws Throwable
+    {
+        for ( RESTTransport transport : new RESTTransport[] { RESTTransport.HTMLUNIT, RESTTransport.LEAN } )
+        {
+            RESTCall call = new RESTCall( url() ).setTransport( transport ).setPhaseTimersEnabled( true ).get();
+
+            Assert.assertEquals( 200, call.getResponseStatusCode() );
+            Assert.assertEquals( "GET|null|null|", call.getResponseBodyAsString() );
+        }
+    }
+
+    @Test
+    public void binaryBodyHtmlUnit() throws Throwable
+    {
+        byte[] body = allBytes();
+        RESTCall call = new RESTCall( url() ).setRequestBody( body, "application/octet-stream" ).post();
+
+        Assert.assertEquals( describe( body ), call.getResponseHttpHeader( "X-body-crc" ) );
+        Assert.assertEquals( "application/octet-stream", call.getResponseHttpHeader( "X-body-type" ) );
+    }
+
+    @Test
+    public void jsonBody() throws Throwable
+    {
+        Map<String, Object> product = new LinkedHashMap<>();
+        product.put( "name", "Zoë" );
+        product.put( "tags", Arrays.asList( "a", "b" ) );
+
+        RESTCall call = new RESTCall( url() ).setRequestBodyAsJson( product ).post();
+
+        Assert.assertEquals( "POST|null|null|{\"name\":\"Zoë\",\"tags\":[\"a\",\"b\"]}",
+                             call.getResponseBodyAsString() );
+        Assert.assertEquals( "application/json; charset=UTF-8", call.getResponseHttpHeader( "X-body-type" ) );
+    }
+
+    @Test
+    public void binaryBodiesLean() throws Throwable
+    {
+        final byte[] body = allBytes();
+        RESTCall call = new RESTCall( url() ).setTransport( RESTTransport.LEAN );
+
+        call.setRequestBody( body, "application/pdf" ).post();
+        Assert.assertEquals( describe( body ), call.getResponseHttpHeader( "X-body-crc" ) );
+        Assert.assertEquals( "application/pdf", call.getResponseHttpHeader( "X-body-type" ) );
+
+        // Only the remaining bytes of the buffer are sent.
+        ByteBuffer buffer = ByteBuffer.allocateDirect( body.length + 10 );
+        buffer.position( 10 );
+        buffer.put( body ).position( 10 );
+        call.setRequestBody( buffer, "application/octet-stream" ).post();
+        Assert.assertEquals( describe( body ), call.getResponseHttpHeader( "X-body-crc" ) );
+        Assert.assertEquals( 10, buffer.position() );
+
+        Path file = Files.createTempFile( "xrt", ".bin" );
+        try
+        {
+            byte[] large = new byte[3 * 1024 * 1024];
+            new Random( 42 ).nextBytes( large );
+            Files.write( file, large );
+
+            call.setRequestBody( file, "application/zip" ).put();
+            Assert.assertEquals( describe( large ), call.getResponseHttpHeader( "X-body-crc" ) );
+        }
+        finally
+        {
+            Files.delete( file );
+        }
+
+        call.setRequestBody( new Supplier<InputStream>()
+        {
+            @Override
+            public InputStream get()
+            {
+                return new ByteArrayInputStream( body );
+            }
+        }, "application/octet-stream" ).post();
+        Assert.assertEquals( describe( body ), call.getResponseHttpHeader( "X-body-crc" ) );
+    }
+
+    @Test
+    public void customTransport() throws Throwable
+    {
+        int requests = CountingTransport.requests.get();
+
+        RESTCall call = new RESTCall( url() ).setTransport( new CountingTransport() ).get();
+
+        Assert.assertEquals( requests + 1, CountingTransport.requests.get() );
+        Assert.assertEquals( 200, call.getResponseStatusCode() );
+    }
+
+    @Test
+    public void globalTransport() throws Throwable
+    {
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.transport", "lean" );
+        Assert.assertSame( RESTTransport.LEAN, new RESTCall().getTransport() );
+
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.transport", CountingTransport.class.getName() );
+        RESTCall call = new RESTCall( url() );
+        Assert.assertTrue( call.getTransport() instanceof CountingTransport );
+
+        // Forks keep the transport of the template.
+        Assert.assertSame( call.getTransport(), new RESTCallTemplate( call ).fork().getTransport() );
+
+        XltProperties.getInstance().setProperty( "com.xceptance.xrt.transport", "com.xceptance.xrt.DoesNotExist" );
+        Assert.assertSame( RESTTransport.HTMLUNIT, new RESTCall().getTransport() );
+    }
+
+    /**
+     * Returns an array that contains every byte value once.
+     *
+     * @return The array.
+     */
+    private static byte[] allBytes()
+    {
+        byte[] bytes = new byte[256];
+        for ( int i = 0; i < bytes.length; i++ )
+            bytes[i] = (byte) i;
+
+        return bytes;
+    }
+
+    /**
+     * Describes the bytes like the local server does.
+     *
+     * @param bytes
+     *         The bytes.
+     *
+     * @return The length and the CRC32 checksum of the bytes.
+     */
+    private static String describe( final byte[] bytes )
+    {
+        CRC32 crc = new CRC32();
+        crc.update( bytes );
+
+        return bytes.length + "/" + crc.getValue();
+    }
+
+    /**
+     * Returns the Url of the local server.
+     *
+     * @return The Url of the local server.
+     */
+    private String url()
+    {
+        return "http://localhost:" + server.getAddress().getPort() + "/echo";
+    }
+}
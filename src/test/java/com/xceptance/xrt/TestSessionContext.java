@@ -0,0 +1,56 @@
+package com.xceptance.xrt;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the per-session state of XRT.
+ */
+public class TestSessionContext
+{
+    @Test
+    public void oneContextPerSession()
+    {
+        SessionContext context = SessionContext.getCurrent();
+
+        for ( int i = 0; i < 100; i++ )
+            new RESTCall().setPreviousAction( null );
+
+        assertSame( context, SessionContext.getCurrent() );
+    }
+
+    @Test
+    public void shutdownDropsState() throws Throwable
+    {
+        SessionContext context = SessionContext.getCurrent();
+        PreProcessible preprocessor = new PreProcessible()
+        {
+            @Override
+            public void preProcess( RESTCall restCall )
+            {
+            }
+        };
+
+        RESTCall call = new RESTCall().setPreprocessor( preprocessor, true );
+        assertSame( preprocessor, call.getPreprocessor() );
+        assertNotNull( context.getSettings() );
+
+        context.shutdown();
+
+        assertNotSame( context, SessionContext.getCurrent() );
+        assertNull( call.getPreprocessor() );
+        assertNull( call.getPreviousAction() );
+        assertNull( context.reusablePreprocessor );
+        assertNull( context.getSettings() );
+    }
+
+    @Test
+    public void settingsHeldByContext()
+    {
+        GlobalSettings settings = GlobalSettings.getCurrent();
+
+        assertSame( settings, SessionContext.getCurrent().getSettings() );
+        assertSame( settings, GlobalSettings.getCurrent() );
+    }
+}
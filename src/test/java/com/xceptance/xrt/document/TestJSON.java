@@ -46,4 +46,59 @@ public class TestJSON
         Assert.assertFalse( json.exists( "list.strings" ) );
         Assert.assertFalse( json.exists( "lists.string" ) );
     }
+
+    @Test
+    public void getValues()
+    {
+        Assert.assertEquals( "Hello World!", json.get( "message" ) );
+        Assert.assertEquals( Integer.valueOf( 4 ), json.get( "counter" ) );
+        Assert.assertEquals( Integer.valueOf( 3 ), json.get( "array[1]" ) );
+        Assert.assertEquals( "check", json.get( "list.string" ) );
+    }
+
+    @Test
+    public void sameDocumentForGetAndAssert()
+    {
+        JSON json = new JSON( "{\"message\":\"Hello World!\"}" );
+        json.assertEquals( "Hello World!", "message" );
+        Object document = json.document;
+
+        Assert.assertEquals( "Hello World!", json.get( "message" ) );
+        Assert.assertSame( "Document was parsed twice.", document, json.document );
+    }
+
+    @Test
+    public void samePathInDifferentDocuments()
+    {
+        Assert.assertEquals( "first", new JSON( "{\"message\":\"first\"}" ).get( "message" ) );
+        Assert.assertEquals( "second", new JSON( "{\"message\":\"second\"}" ).get( "message" ) );
+    }
+
+    @Test
+    public void assertEqualsFails()
+    {
+        try
+        {
+            json.assertEquals( "custom message", "Goodbye", "message" );
+        }
+        catch ( AssertionError e )
+        {
+            Assert.assertTrue( e.getMessage().startsWith( "JSON Assert Error: custom message" ) );
+            return;
+        }
+
+        Assert.fail( "Assertion did not fail." );
+    }
+
+    @Test
+    public void assertNotDefined()
+    {
+        json.assertNotDefined( "lists.string" ).assertNotNull( "message" );
+    }
+
+    @Test( expected = AssertionError.class )
+    public void assertNotDefinedFails()
+    {
+        json.assertNotDefined( "message" );
+    }
 }
@@ -0,0 +1,202 @@
+package com.xceptance.xrt.document;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jayway.jsonpath.PathNotFoundException;
+
+/**
+ * Verifies that {@link StreamingJSON} returns the same values and fails the same
+ * assertions as {@link JSON}, and checks all expectations in one pass.
+ */
+public class TestStreamingJSON
+{
+    private static final String DOCUMENT = "{\"message\":\"Hello World!\", \"counter\":4, \"big\":12345678901, \"number\":4.234, "
+            + "\"array\":[4,3,2], \"list\":{\"string\":\"check\", \"number\":3.24, \"empty\":null}, "
+            + "\"items\":[{\"id\":1, \"name\":\"a\"}, {\"id\":2, \"name\":\"b\"}, {\"id\":3, \"tags\":[\"x\"]}]}";
+
+    private static StreamingJSON stream( final String json )
+    {
+        final byte[] bytes = json.getBytes( StandardCharsets.UTF_8 );
+        return new StreamingJSON( new StreamingJSON.Source()
+        {
+            @Override
+            public InputStream open()
+            {
+                return new ByteArrayInputStream( bytes );
+            }
+        }, "UTF-8" );
+    }
+
+    @Test
+    public void sameValuesAsJSON()
+    {
+        JSON json = new JSON( DOCUMENT );
+        StreamingJSON streamed = stream( DOCUMENT );
+
+        for ( String path : Arrays.asList( "message", "$.counter", "big", "number", "array", "array[1]", "list",
+                "list.string", "['list']['number']", "list.empty", "list.missing", "items[1].name", "items[*].id",
+                "items[2].tags[0]", "$" ) )
+        {
+            Assert.assertEquals( "Path: " + path, json.<Object> get( path ), streamed.<Object> get( path ) );
+        }
+    }
+
+    @Test
+    public void wildcardWithoutMatches()
+    {
+        Assert.assertEquals( Collections.emptyList(), stream( DOCUMENT ).get( "items[*].missing" ) );
+    }
+
+    @Test( expected = PathNotFoundException.class )
+    public void missingParent()
+    {
+        stream( DOCUMENT ).get( "lists.string" );
+    }
+
+    @Test
+    public void exists()
+    {
+        StreamingJSON streamed = stream( DOCUMENT );
+        Assert.assertTrue( streamed.exists( "list.string" ) );
+        Assert.assertFalse( streamed.exists( "list.strings" ) );
+        Assert.assertFalse( streamed.exists( "lists.string" ) );
+    }
+
+    @Test
+    public void assertAll()
+    {
+        stream( DOCUMENT ).assertEquals( "Hello World!", "message" ).assertEquals( Arrays.asList( 1, 2, 3 ), "items[*].id" )
+                .assertNotNull( "list" ).assertNull( "list.empty" ).assertNotDefined( "lists.string" )
+                .assertThat( Matchers.hasSize( 3 ), "items" );
+    }
+
+    @Test( expected = AssertionError.class )
+    public void assertionsFailImmediately()
+    {
+        stream( DOCUMENT ).assertEquals( "Goodbye", "message" );
+    }
+
+    @Test( expected = AssertionError.class )
+    public void assertionsFailImmediatelyAsJSON()
+    {
+        JSON json = stream( DOCUMENT );
+        json.assertNull( "message" );
+    }
+
+    @Test
+    public void assertNotDefinedMessage()
+    {
+        try
+        {
+            stream( DOCUMENT ).assertNotDefined( "custom message", "items[0].id" );
+        }
+        catch ( AssertionError e )
+        {
+            Assert.assertTrue( e.getMessage().startsWith( "JSON Assert Error: custom message" ) );
+            return;
+        }
+
+        Assert.fail( "Assertion did not fail." );
+    }
+
+    @Test
+    public void verifyAll()
+    {
+        stream( DOCUMENT ).expect().assertEquals( "Hello World!", "message" ).assertEquals( Arrays.asList( 1, 2, 3 ), "items[*].id" )
+                .assertNotNull( "list" ).assertNull( "list.empty" ).assertNotDefined( "lists.string" )
+                .assertThat( Matchers.hasSize( 3 ), "items" ).verify();
+    }
+
+    @Test
+    public void verifyFails()
+    {
+        StreamingJSON.Expectations expectations = stream( DOCUMENT ).expect().assertEquals( "Hello World!", "message" )
+                .assertEquals( "custom message", "b", "items[0].name" );
+
+        try
+        {
+            expectations.verify();
+        }
+        catch ( AssertionError e )
+        {
+            Assert.assertTrue( e.getMessage().startsWith( "JSON Assert Error: custom message" ) );
+
+            // Expectations are removed after verification.
+            expectations.verify();
+            return;
+        }
+
+        Assert.fail( "Assertion did not fail." );
+    }
+
+    @Test
+    public void expectationsAreDeferred()
+    {
+        // Nothing is checked before verify() is called.
+        stream( DOCUMENT ).expect().assertEquals( "Goodbye", "message" );
+    }
+
+    @Test( expected = AssertionError.class )
+    public void assertNotDefinedFails()
+    {
+        stream( DOCUMENT ).assertNotDefined( "items[0].id" );
+    }
+
+    @Test( expected = AssertionError.class )
+    public void expectNotDefinedFails()
+    {
+        stream( DOCUMENT ).expect().assertNotDefined( "items[0].id" ).verify();
+    }
+
+    @Test
+    public void stopsAfterAllDefinitePathsFound()
+    {
+        // The broken rest of the document is never read.
+        StreamingJSON streamed = stream( "{\"first\":1, \"second\":{\"value\":2}, \"rest\": [ broken" );
+        streamed.expect().assertEquals( 1, "first" ).assertEquals( 2, "second.value" ).verify();
+        streamed.assertEquals( 2, "second.value" );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void deepScanNotSupported()
+    {
+        stream( DOCUMENT ).assertNotNull( "$..id" );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void deepScanNotSupportedInExpectations()
+    {
+        stream( DOCUMENT ).expect().assertNotNull( "$..id" );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void filterNotSupported()
+    {
+        stream( DOCUMENT ).get( "items[?(@.id > 1)]" );
+    }
+
+    @Test
+    public void nonUnicodeCharset()
+    {
+        final byte[] bytes = "{\"name\":\"M\u00fcller\"}".getBytes( StandardCharsets.ISO_8859_1 );
+        StreamingJSON streamed = new StreamingJSON( new StreamingJSON.Source()
+        {
+            @Override
+            public InputStream open()
+            {
+                return new ByteArrayInputStream( bytes );
+            }
+        }, "ISO-8859-1" );
+
+        Assert.assertEquals( "M\u00fcller", streamed.get( "name" ) );
+        Assert.assertEquals( "{\"name\":\"M\u00fcller\"}", streamed.toString() );
+    }
+}
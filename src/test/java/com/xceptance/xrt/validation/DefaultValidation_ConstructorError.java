@@ -0,0 +1,22 @@
+package com.xceptance.xrt.validation;
+
+import com.xceptance.xrt.AutoValidatable;
+import com.xceptance.xrt.RESTCallValidator;
+import com.xceptance.xrt.annotation.ResourceDefinition;
+
+/**
+ * Definition class with a validator whose constructor fails with an error.
+ */
+@ResourceDefinition( baseUrl = "www.xrt.com" )
+public class DefaultValidation_ConstructorError implements AutoValidatable
+{
+    public DefaultValidation_ConstructorError()
+    {
+        throw new LinkageError( "Validator can't be created." );
+    }
+
+    @Override
+    public void validate( RESTCallValidator call )
+    {
+    }
+}
@@ -0,0 +1,22 @@
+package com.xceptance.xrt.validation;
+
+import com.xceptance.xrt.AutoValidatable;
+import com.xceptance.xrt.RESTCallValidator;
+import com.xceptance.xrt.annotation.ResourceDefinition;
+
+/**
+ * Definition class with a validator whose constructor fails with an exception.
+ */
+@ResourceDefinition( baseUrl = "www.xrt.com" )
+public class DefaultValidation_ConstructorException implements AutoValidatable
+{
+    public DefaultValidation_ConstructorException()
+    {
+        throw new IllegalStateException( "Validator can't be created." );
+    }
+
+    @Override
+    public void validate( RESTCallValidator call )
+    {
+    }
+}
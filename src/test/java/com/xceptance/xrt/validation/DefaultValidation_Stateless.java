@@ -0,0 +1,34 @@
+package com.xceptance.xrt.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.xceptance.xrt.AutoValidatable;
+import com.xceptance.xrt.RESTCallValidator;
+import com.xceptance.xrt.annotation.ResourceDefinition;
+import com.xceptance.xrt.annotation.StatelessValidator;
+
+/**
+ * Definition class with a stateless validator that is shared by all REST calls.
+ */
+@StatelessValidator
+@ResourceDefinition( baseUrl = "www.xrt.com" )
+public class DefaultValidation_Stateless implements AutoValidatable
+{
+    /**
+     * Static test property that records the validator instances.
+     */
+    public static final List<AutoValidatable> validators = new ArrayList<>();
+
+    /**
+     * Static test property that records the views passed to the validators.
+     */
+    public static final List<RESTCallValidator> views = new ArrayList<>();
+
+    @Override
+    public void validate( RESTCallValidator call )
+    {
+        validators.add( this );
+        views.add( call );
+    }
+}
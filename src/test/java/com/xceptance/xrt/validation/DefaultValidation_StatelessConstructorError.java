@@ -0,0 +1,24 @@
+package com.xceptance.xrt.validation;
+
+import com.xceptance.xrt.AutoValidatable;
+import com.xceptance.xrt.RESTCallValidator;
+import com.xceptance.xrt.annotation.ResourceDefinition;
+import com.xceptance.xrt.annotation.StatelessValidator;
+
+/**
+ * Definition class with a stateless validator whose constructor fails with an error.
+ */
+@StatelessValidator
+@ResourceDefinition( baseUrl = "www.xrt.com" )
+public class DefaultValidation_StatelessConstructorError implements AutoValidatable
+{
+    public DefaultValidation_StatelessConstructorError()
+    {
+        throw new LinkageError( "Validator can't be created." );
+    }
+
+    @Override
+    public void validate( RESTCallValidator call )
+    {
+    }
+}
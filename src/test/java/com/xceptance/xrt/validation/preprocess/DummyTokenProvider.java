@@ -3,6 +3,8 @@ package com.xceptance.xrt.validation.preprocess;
 import com.xceptance.xrt.PreProcessible;
 import com.xceptance.xrt.RESTCall;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  *
  *
@@ -10,12 +12,15 @@ import com.xceptance.xrt.RESTCall;
  */
 public class DummyTokenProvider implements PreProcessible{
 
+    private static final AtomicLong instanceCounter = new AtomicLong();
+
     private String token = "somerandomtoken";
 
     private final long creationTime;
 
     public DummyTokenProvider() {
-        creationTime = System.currentTimeMillis();
+        // Instances created within the same millisecond must still differ
+        creationTime = System.currentTimeMillis() * 1000 + instanceCounter.incrementAndGet() % 1000;
     }
 
     public void preProcess(final RESTCall call){